@@ -0,0 +1,56 @@
+package frc.robot.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import lib.team3526.driveControl.CustomController;
+
+/**
+ * Cost of the joystick curve applied by every CustomController axis getter
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControllerShapingBenchmark {
+    private static final int kSamples = 1024;
+
+    private double[] axes;
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(3526);
+        axes = new double[kSamples];
+        for (int j = 0; j < kSamples; j++) axes[j] = random.nextDouble() * 2 - 1;
+    }
+
+    @Benchmark
+    public double linear() {
+        i = (i + 1) & (kSamples - 1);
+        return CustomController.shapeAxis(axes[i], 1);
+    }
+
+    @Benchmark
+    public double cubic() {
+        i = (i + 1) & (kSamples - 1);
+        return CustomController.shapeAxis(axes[i], 3);
+    }
+
+    // * The driver command reads four axes per loop
+    @Benchmark
+    public double driverLoop() {
+        i = (i + 4) & (kSamples - 1);
+        return CustomController.shapeAxis(axes[i], 3)
+            + CustomController.shapeAxis(axes[i + 1], 3)
+            + CustomController.shapeAxis(axes[i + 2], 3)
+            + CustomController.shapeAxis(axes[i + 3], 3);
+    }
+}
@@ -0,0 +1,70 @@
+package frc.robot.benchmarks;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.geometry.Pose3d;
+import lib.team3526.field.AprilTagFieldGeometry;
+
+/**
+ * Tag lookups done by the vision threads: the layout (Optional + list search) against the precomputed geometry
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FieldGeometryBenchmark {
+    private static final int kSamples = 1024;
+
+    private AprilTagFieldLayout layout;
+    private AprilTagFieldGeometry geometry;
+    private int[] ids;
+    private double[] xs;
+    private double[] ys;
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        layout = AprilTagFields.k2024Crescendo.loadAprilTagLayoutField();
+        geometry = new AprilTagFieldGeometry(layout);
+
+        Random random = new Random(3526);
+        ids = new int[kSamples];
+        xs = new double[kSamples];
+        ys = new double[kSamples];
+        for (int j = 0; j < kSamples; j++) {
+            ids[j] = 1 + random.nextInt(16);
+            xs[j] = random.nextDouble() * geometry.getFieldLength();
+            ys[j] = random.nextDouble() * geometry.getFieldWidth();
+        }
+    }
+
+    @Benchmark
+    public double layoutTagDistance() {
+        i = (i + 1) & (kSamples - 1);
+        Optional<Pose3d> pose = layout.getTagPose(ids[i]);
+        return pose.isPresent() ? Math.hypot(xs[i] - pose.get().getX(), ys[i] - pose.get().getY()) : 0;
+    }
+
+    @Benchmark
+    public double geometryTagDistance() {
+        i = (i + 1) & (kSamples - 1);
+        return geometry.getDistance(ids[i], xs[i], ys[i]);
+    }
+
+    @Benchmark
+    public boolean geometryIsInFrontOf() {
+        i = (i + 1) & (kSamples - 1);
+        return geometry.isInFrontOf(ids[i], xs[i], ys[i]);
+    }
+}
@@ -0,0 +1,66 @@
+package frc.robot.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import frc.robot.LimelightHelpers.LimelightResults;
+import frc.robot.LimelightHelpers.LimelightResultsDecoder;
+
+/**
+ * Compares the databind and streaming decoders used by LimelightHelpers.getLatestResults on synthetic JSON dumps
+ * (hand-written in src/jmh/resources/limelight, shaped like a Limelight dump with no, one and several tags).
+ * Run with the gc profiler (enabled in build.gradle) to compare the allocation per decode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LimelightDecoderBenchmark {
+    @Param({ "no_targets", "single_tag", "multi_tag" })
+    public String dump;
+
+    private String json;
+    private ObjectMapper mapper;
+    private LimelightResultsDecoder allTargetsDecoder;
+    private LimelightResultsDecoder fiducialDecoder;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream stream = getClass().getResourceAsStream("/limelight/" + dump + ".json")) {
+            json = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // Same configuration as LimelightHelpers.getLatestResults
+        mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        allTargetsDecoder = new LimelightResultsDecoder(LimelightResultsDecoder.kAllTargets);
+        fiducialDecoder = new LimelightResultsDecoder(LimelightResultsDecoder.kFiducialTargets);
+    }
+
+    @Benchmark
+    public LimelightResults databind() throws IOException {
+        return mapper.readValue(json, LimelightResults.class);
+    }
+
+    @Benchmark
+    public LimelightResults streamingAllTargets() {
+        return allTargetsDecoder.decode(json);
+    }
+
+    @Benchmark
+    public LimelightResults streamingFiducials() {
+        return fiducialDecoder.decode(json);
+    }
+}
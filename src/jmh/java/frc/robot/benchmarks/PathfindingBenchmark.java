@@ -0,0 +1,94 @@
+package frc.robot.benchmarks;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import lib.team3526.pathfinding.DStarLitePlanner;
+import lib.team3526.pathfinding.NavGrid;
+
+/**
+ * Pathfinding queries over the deployed navgrid: a new search (goal changed) against repairing the previous one
+ * when the robot moves a cell or an obstacle appears on the path
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathfindingBenchmark {
+    private static final int kSamples = 256;
+    private static final int kMaxExpansions = Integer.MAX_VALUE;
+
+    private NavGrid grid;
+    private DStarLitePlanner planner;
+    private int[] starts;
+    private int[] goals;
+    private int[] path;
+    private long[] obstacles;
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        grid = NavGrid.load(new File("src/main/deploy/pathplanner/navgrid.json"));
+        planner = new DStarLitePlanner(grid);
+        path = new int[grid.getCellCount()];
+        obstacles = new long[NavGrid.words(grid.getCellCount())];
+
+        Random random = new Random(3526);
+        starts = new int[kSamples];
+        goals = new int[kSamples];
+        for (int j = 0; j < kSamples; j++) {
+            starts[j] = planner.findNearestFree(random.nextInt(grid.getCellCount()));
+            goals[j] = planner.findNearestFree(random.nextInt(grid.getCellCount()));
+        }
+        planner.reset(starts[0], goals[0]);
+        planner.computeShortestPath(kMaxExpansions);
+    }
+
+    @Benchmark
+    public int newSearch() {
+        i = (i + 1) & (kSamples - 1);
+        planner.reset(starts[i], goals[i]);
+        planner.computeShortestPath(kMaxExpansions);
+        return planner.extractPath(path);
+    }
+
+    @Benchmark
+    public int moveStart() {
+        // Step along the path, start over when the goal is reached
+        int count = planner.extractPath(path);
+        if (count < 2) {
+            i = (i + 1) & (kSamples - 1);
+            planner.reset(starts[i], goals[i]);
+        } else {
+            planner.moveStart(path[1]);
+        }
+        planner.computeShortestPath(kMaxExpansions);
+        return planner.extractPath(path);
+    }
+
+    @Benchmark
+    public int toggleObstacle() {
+        // Block the middle of the path, then clear it on the next call
+        int count = planner.extractPath(path);
+        boolean clear = false;
+        for (long word : obstacles) clear |= word != 0;
+        if (clear) {
+            Arrays.fill(obstacles, 0);
+        } else if (count > 2) {
+            int cell = path[count / 2];
+            obstacles[cell >>> 6] |= 1L << cell;
+        }
+        planner.setDynamicObstacles(obstacles);
+        planner.computeShortestPath(kMaxExpansions);
+        return planner.extractPath(path);
+    }
+}
@@ -0,0 +1,94 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import frc.robot.Constants;
+
+/**
+ * Cost of the pose estimator calls made by the drivetrain: one update per odometry sample and one
+ * addVisionMeasurement per accepted vision frame (which replays the odometry since the capture time).
+ * <p>
+ * Timestamps are passed explicitly so no HAL clock is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PoseEstimatorBenchmark {
+    private static final double kSamplePeriod = 1.0 / Constants.SwerveDrive.Odometry.kFrequencyHz;
+
+    // * Robot driving forward while turning slowly
+    private static final double kSpeed = 2;
+    private static final double kTurnRate = 0.5;
+
+    // * Typical age of a vision frame when it reaches the estimator
+    private static final double kVisionLatency = 0.05;
+
+    private SwerveDrivePoseEstimator estimator;
+    private final SwerveModulePosition[] positions = new SwerveModulePosition[4];
+    private double timestamp = 0;
+    private double heading = 0;
+    private double distance = 0;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < positions.length; i++) positions[i] = new SwerveModulePosition();
+
+        estimator = new SwerveDrivePoseEstimator(
+            Constants.SwerveDrive.PhysicalModel.kDriveKinematics,
+            new Rotation2d(),
+            positions,
+            new Pose2d(),
+            VecBuilder.fill(0.05, 0.05, 0.01),
+            VecBuilder.fill(0.5, 0.5, 1)
+        );
+
+        // Fill the estimator's odometry buffer so vision measurements have a full history to replay
+        double historySeconds = Constants.SwerveDrive.Odometry.kHistorySeconds;
+        while (timestamp < historySeconds) step();
+    }
+
+    /**
+     * Advance the simulated odometry by one sample and feed it to the estimator
+     */
+    private Pose2d step() {
+        timestamp += kSamplePeriod;
+        heading += kTurnRate * kSamplePeriod;
+        distance += kSpeed * kSamplePeriod;
+
+        // Same as the odometry thread: positions are reused, the heading is a new Rotation2d
+        Rotation2d angle = Rotation2d.fromRadians(heading);
+        for (SwerveModulePosition position : positions) {
+            position.distanceMeters = distance;
+            position.angle = angle;
+        }
+        return estimator.updateWithTime(timestamp, Rotation2d.fromRadians(heading), positions);
+    }
+
+    @Benchmark
+    public Pose2d update() {
+        return step();
+    }
+
+    @Benchmark
+    public Pose2d addVisionMeasurement() {
+        // Same as SwerveDriveIOReal.addVisionMeasurement
+        Pose2d estimate = estimator.getEstimatedPosition();
+        Pose2d measured = new Pose2d(estimate.getX() + 0.02, estimate.getY() - 0.02, estimate.getRotation());
+        estimator.setVisionMeasurementStdDevs(VecBuilder.fill(0.3, 0.3, 9999999));
+        estimator.addVisionMeasurement(measured, timestamp - kVisionLatency);
+        return estimator.getEstimatedPosition();
+    }
+}
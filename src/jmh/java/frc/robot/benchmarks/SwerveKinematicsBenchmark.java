@@ -0,0 +1,76 @@
+package frc.robot.benchmarks;
+
+import static edu.wpi.first.units.Units.MetersPerSecond;
+import static edu.wpi.first.units.Units.RadiansPerSecond;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants;
+
+/**
+ * Cost of turning chassis speeds into module states, the same way as SwerveDriveIOReal.drive() and setModuleStates()
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SwerveKinematicsBenchmark {
+    private static final int kSamples = 1024;
+
+    private final SwerveDriveKinematics kinematics = Constants.SwerveDrive.PhysicalModel.kDriveKinematics;
+    private final double maxSpeed = Constants.SwerveDrive.PhysicalModel.kMaxSpeed.in(MetersPerSecond);
+
+    private ChassisSpeeds[] speeds;
+    private Rotation2d[] headings;
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(3526);
+        double maxAngularSpeed = Constants.SwerveDrive.PhysicalModel.kMaxAngularSpeed.in(RadiansPerSecond);
+
+        // Joystick-like commands, some of them above the max speed so desaturation has work to do
+        speeds = new ChassisSpeeds[kSamples];
+        headings = new Rotation2d[kSamples];
+        for (int j = 0; j < kSamples; j++) {
+            speeds[j] = new ChassisSpeeds(
+                (random.nextDouble() * 2 - 1) * maxSpeed,
+                (random.nextDouble() * 2 - 1) * maxSpeed,
+                (random.nextDouble() * 2 - 1) * maxAngularSpeed
+            );
+            headings[j] = Rotation2d.fromRadians((random.nextDouble() * 2 - 1) * Math.PI);
+        }
+    }
+
+    private int next() {
+        i = (i + 1) & (kSamples - 1);
+        return i;
+    }
+
+    @Benchmark
+    public SwerveModuleState[] drive() {
+        SwerveModuleState[] states = kinematics.toSwerveModuleStates(speeds[next()]);
+        SwerveDriveKinematics.desaturateWheelSpeeds(states, maxSpeed);
+        return states;
+    }
+
+    @Benchmark
+    public SwerveModuleState[] driveFieldRelative() {
+        int j = next();
+        SwerveModuleState[] states = kinematics.toSwerveModuleStates(ChassisSpeeds.fromFieldRelativeSpeeds(speeds[j], headings[j]));
+        SwerveDriveKinematics.desaturateWheelSpeeds(states, maxSpeed);
+        return states;
+    }
+}
@@ -0,0 +1,48 @@
+package frc.robot.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Cost of SwerveModuleState.optimize, called by every module on every setTargetState
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SwerveModuleStateBenchmark {
+    private static final int kSamples = 1024;
+
+    private SwerveModuleState[] targets;
+    private Rotation2d[] currentAngles;
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(3526);
+
+        // Half of the targets are more than 90 degrees away from the current angle (the module flips)
+        targets = new SwerveModuleState[kSamples];
+        currentAngles = new Rotation2d[kSamples];
+        for (int j = 0; j < kSamples; j++) {
+            targets[j] = new SwerveModuleState(random.nextDouble() * 4, Rotation2d.fromRadians((random.nextDouble() * 2 - 1) * Math.PI));
+            currentAngles[j] = Rotation2d.fromRadians((random.nextDouble() * 2 - 1) * Math.PI);
+        }
+    }
+
+    @Benchmark
+    public SwerveModuleState optimize() {
+        i = (i + 1) & (kSamples - 1);
+        return SwerveModuleState.optimize(targets[i], currentAngles[i]);
+    }
+}
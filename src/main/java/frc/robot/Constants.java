@@ -1,6 +1,5 @@
 package frc.robot;
 
-import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.apriltag.AprilTagFields;
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.VecBuilder;
@@ -21,7 +20,9 @@ import edu.wpi.first.units.Distance;
 import edu.wpi.first.units.Measure;
 import edu.wpi.first.units.Velocity;
 import lib.team3526.constants.CTRECANDevice;
+import lib.team3526.constants.CameraOptions;
 import lib.team3526.constants.PIDFConstants;
+import lib.team3526.constants.SparkRole;
 import lib.team3526.constants.SwerveModuleOptions;
 import lib.team3526.led.LEDStrip;
 import lib.team3526.utils.SwerveChassis;
@@ -30,10 +31,74 @@ import static edu.wpi.first.units.Units.*;
 
 import com.ctre.phoenix.led.CANdle.LEDStripType;
 import com.pathplanner.lib.util.PIDConstants;
+import com.revrobotics.CANSparkLowLevel.PeriodicFrame;
 
 public final class Constants {
     public static final class Logging {
         public static final boolean kDebug = true;
+
+        // Time subsystem periodics and commands (logged under LoopTime/)
+        public static final boolean kProfileLoop = true;
+
+        // Log file (written on the robot only, to the USB drive when there is one)
+        public static final boolean kWriteLogFile = true;
+        public static final String kUSBLogDirectory = "/U/logs";
+        public static final String kRioLogDirectory = "/home/lvuser/logs";
+
+        // Loops of log data buffered for the log writer thread before dropping (5 seconds)
+        public static final int kLogQueueCapacity = 250;
+
+        // Replay the log at AKIT_LOG_PATH in simulation instead of running the simulated IO (./gradlew replayLogs)
+        public static final boolean kReplay = System.getenv("AKIT_LOG_PATH") != null;
+    }
+
+    //! CAN BUS
+    public static final class CAN {
+        // Update frequency of the Phoenix 6 status signals read once per loop
+        public static final double kStatusSignalFrequencyHz = 50;
+
+        // Spark outputs closer than this to the last one sent are not written, unchanged outputs are resent every 0.5s
+        public static final double kDutyCycleDeadband = 0.001;
+        public static final double kVoltageDeadband = 0.01;
+        public static final int kOutputRefreshLoops = 25;
+
+        // Spark MAX status frames for each kind of motor (frames nobody reads are disabled)
+        // Drive and steer positions are sent as fast as the odometry thread samples them
+        private static final int kOdometryFramePeriodMs = (int) Math.ceil(1000.0 / SwerveDrive.Odometry.kFrequencyHz);
+
+        public static final SparkRole kDriveRole = new SparkRole("Drive")
+            .setPeriod(PeriodicFrame.kStatus0, 20)
+            .setPeriod(PeriodicFrame.kStatus1, 20)
+            .setPeriod(PeriodicFrame.kStatus2, kOdometryFramePeriodMs)
+            .disable(PeriodicFrame.kStatus3, PeriodicFrame.kStatus4, PeriodicFrame.kStatus5, PeriodicFrame.kStatus6);
+
+        public static final SparkRole kSteerRole = new SparkRole("Steer")
+            .setPeriod(PeriodicFrame.kStatus0, 20)
+            .setPeriod(PeriodicFrame.kStatus1, 100)
+            .setPeriod(PeriodicFrame.kStatus2, kOdometryFramePeriodMs)
+            .disable(PeriodicFrame.kStatus3, PeriodicFrame.kStatus4, PeriodicFrame.kStatus5, PeriodicFrame.kStatus6);
+
+        public static final SparkRole kFlywheelRole = new SparkRole("Flywheel")
+            .setPeriod(PeriodicFrame.kStatus0, 20)
+            .setPeriod(PeriodicFrame.kStatus1, 20)
+            .disable(PeriodicFrame.kStatus2, PeriodicFrame.kStatus3, PeriodicFrame.kStatus4, PeriodicFrame.kStatus5, PeriodicFrame.kStatus6);
+
+        public static final SparkRole kRollerRole = new SparkRole("Roller")
+            .setPeriod(PeriodicFrame.kStatus0, 20)
+            .setPeriod(PeriodicFrame.kStatus1, 20)
+            .disable(PeriodicFrame.kStatus2, PeriodicFrame.kStatus3, PeriodicFrame.kStatus4, PeriodicFrame.kStatus5, PeriodicFrame.kStatus6);
+
+        // The lifter angle comes from a DutyCycleEncoder on the roboRIO, not from the Spark
+        public static final SparkRole kLifterRole = new SparkRole("Lifter")
+            .setPeriod(PeriodicFrame.kStatus0, 20)
+            .setPeriod(PeriodicFrame.kStatus1, 100)
+            .disable(PeriodicFrame.kStatus2, PeriodicFrame.kStatus3, PeriodicFrame.kStatus4, PeriodicFrame.kStatus5, PeriodicFrame.kStatus6);
+
+        public static final SparkRole kClimberRole = new SparkRole("Climber")
+            .setPeriod(PeriodicFrame.kStatus0, 50)
+            .setPeriod(PeriodicFrame.kStatus1, 50)
+            .setPeriod(PeriodicFrame.kStatus2, 20)
+            .disable(PeriodicFrame.kStatus3, PeriodicFrame.kStatus4, PeriodicFrame.kStatus5, PeriodicFrame.kStatus6);
     }
 
     public static final class SwerveDrive {
@@ -48,6 +113,20 @@ public final class Constants {
         public static final PIDFConstants kActiveTrackPIDConstants = new PIDFConstants(0.1, 0.0, 0.0);
 
         public static final double kJoystickDeadband = 0.1;
+
+        //! High frequency odometry
+        public static final class Odometry {
+            // Sample rate of the odometry thread
+            public static final double kFrequencyHz = 250;
+
+            // Samples buffered between main loop cycles (~5 per cycle at 250Hz)
+            public static final int kBufferSize = 64;
+
+            // Length of the pose history (one entry per odometry sample)
+            public static final double kHistorySeconds = 2;
+            public static final int kHistorySize = (int) Math.ceil(kHistorySeconds * kFrequencyHz);
+        }
+
         //! Physical model of the robot
         public static final class PhysicalModel {
             //! MAX DISPLACEMENT SPEED (and acceleration)
@@ -95,6 +174,8 @@ public final class Constants {
         public static final class SwerveModules {
             //! PID
             public static final PIDFConstants kTurningPIDConstants = new PIDFConstants(0.5);
+            // Steer references closer than this to the last one sent are not written (radians)
+            public static final double kTurningReferenceDeadband = 0.002;
 
             //! Global offset
             public static final Measure<Angle> kGlobalOffset = Degrees.of(0);
@@ -129,11 +210,35 @@ public final class Constants {
                 .setName("Back Right");
         }
 
+        //! Simulation model of the drivetrain
+        public static final class Simulation {
+            // Moments of inertia seen by the motors (kg*m^2)
+            public static final double kDriveMOI = 0.025;
+            public static final double kTurningMOI = 0.004;
+
+            // Turning position controller (volts per radian of error)
+            public static final double kTurningP = 8;
+
+            // Loop period the simulation is stepped with
+            public static final double kLoopPeriodSeconds = 0.02;
+        }
+
         //! AUTONOMOUS
         public static final class Autonomous {
             public static final PIDConstants kTranslatePIDConstants = new PIDConstants(1.45, 0.5, 0.0);
             public static final PIDConstants kRotatePIDConstants = new PIDConstants(10, 0.0, 0.0);
             public static final Measure<Velocity<Distance>> kMaxSpeedMetersPerSecond = MetersPerSecond.of(1);
+
+            // Build and warm up the selected auto while disabled (false to measure a cold first cycle)
+            public static final boolean kPrewarm = true;
+            public static final double kPrewarmBudgetSeconds = 0.002;
+            public static final int kPrewarmSamples = 20000;
+
+            // Plan the PathPlanner pathfinding commands with GridPathfinder instead of PathPlanner's own pathfinder
+            public static final boolean kUseGridPathfinder = true;
+            // Cells a pathfinding query can expand before it checks for a newer request (about a third of the 56x28 grid,
+            // so a long new search yields a couple of times while a repair finishes in one go)
+            public static final int kPathfindingMaxExpansions = 500;
         }
     }
 
@@ -147,9 +252,45 @@ public final class Constants {
     //! VISION
     public static final class Vision {
         public static final double kMaxPoseDifferenceMeters = 2;
+        // Older camera poses are not used to reset the odometry
+        public static final double kMaxLatestPoseAgeSeconds = 0.5;
+        // Single tag estimates above this ambiguity are rejected (PhotonVision only, the Limelight does not report it)
+        public static final double kMaxSingleTagAmbiguity = 0.2;
         public static final String kLimelightName = "limelight";
-        public static final AprilTagFieldLayout kAprilTagFieldLayout = AprilTagFields.k2024Crescendo.loadAprilTagLayoutField();
-        public static final Transform3d kCameraPose = new Transform3d(new Translation3d(0.5, 0.5, 0.3), new Rotation3d(0, -2, 0));
+
+        // Vision thread
+        public static final double kThreadPeriodSeconds = 0.01;
+        public static final int kQueueSize = 16;
+        // Decode the JSON dump with the pooled streaming decoder (fiducials only) instead of the databind one
+        public static final boolean kUseStreamingDecoder = true;
+        // Loaded off the main thread on first use, see AprilTagFieldGeometry
+        public static final AprilTagFields kAprilTagField = AprilTagFields.k2024Crescendo;
+
+        // Cameras (each one is processed on its own thread, the main loop only merges their measurements)
+        // robotToCamera is only used by PhotonVision (placeholder, not measured), Limelights keep the mounting pose set in their web UI
+        public static final CameraOptions kFrontCamera = new CameraOptions()
+            .setName(kLimelightName)
+            .setRobotToCamera(new Transform3d(new Translation3d(0.5, 0.5, 0.3), new Rotation3d(0, Math.toRadians(-2), 0)))
+            .setStdDevScale(1);
+
+        public static final CameraOptions[] kCameras = new CameraOptions[]{
+            kFrontCamera
+        };
+
+        // Use PhotonVision (PhotonPoseEstimator) instead of the Limelight for the cameras on the real robot
+        public static final boolean kUsePhotonVision = false;
+
+        //! Simulated cameras (PhotonVision VisionSystemSim)
+        public static final class Simulation {
+            public static final int kResolutionWidth = 960;
+            public static final int kResolutionHeight = 720;
+            public static final double kFovDegrees = 70;
+            public static final double kAvgErrorPx = 0.35;
+            public static final double kErrorStdDevPx = 0.10;
+            public static final double kFps = 30;
+            public static final double kAvgLatencyMs = 35;
+            public static final double kLatencyStdDevMs = 5;
+        }
     }
 
     //* INTAKE
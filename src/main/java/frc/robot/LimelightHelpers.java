@@ -2,9 +2,14 @@
 
 package frc.robot;
 
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoubleSubscriber;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.StringSubscriber;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
@@ -17,12 +22,19 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonFormat.Shape;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -368,6 +380,500 @@ public class LimelightHelpers {
         }
     }
 
+    /**
+     * Pre-created NetworkTables subscribers for a single Limelight.
+     * Avoids looking up the table and entries by name on every call, and lets
+     * botpose samples be read as a queue so none are missed between loops.
+     */
+    public static class LimelightHandle {
+        /**
+         * Number of botpose samples kept between two reads of the queue
+         */
+        public static final int kBotPoseQueueSize = 20;
+
+        public final String name;
+
+        public final DoubleSubscriber tx;
+        public final DoubleSubscriber ty;
+        public final DoubleSubscriber ta;
+        public final DoubleSubscriber tv;
+        public final DoubleSubscriber tl;
+        public final DoubleSubscriber cl;
+
+        public final StringSubscriber json;
+
+        public final DoubleArraySubscriber botpose;
+        public final DoubleArraySubscriber botpose_wpired;
+        public final DoubleArraySubscriber botpose_wpiblue;
+
+        private LimelightHandle(String name) {
+            this.name = name;
+            NetworkTable table = getLimelightNTTable(name);
+
+            tx = table.getDoubleTopic("tx").subscribe(0.0);
+            ty = table.getDoubleTopic("ty").subscribe(0.0);
+            ta = table.getDoubleTopic("ta").subscribe(0.0);
+            tv = table.getDoubleTopic("tv").subscribe(0.0);
+            tl = table.getDoubleTopic("tl").subscribe(0.0);
+            cl = table.getDoubleTopic("cl").subscribe(0.0);
+
+            json = table.getStringTopic("json").subscribe("");
+
+            botpose = table.getDoubleArrayTopic("botpose").subscribe(new double[0], PubSubOption.pollStorage(kBotPoseQueueSize));
+            botpose_wpired = table.getDoubleArrayTopic("botpose_wpired").subscribe(new double[0], PubSubOption.pollStorage(kBotPoseQueueSize));
+            botpose_wpiblue = table.getDoubleArrayTopic("botpose_wpiblue").subscribe(new double[0], PubSubOption.pollStorage(kBotPoseQueueSize));
+        }
+
+        /**
+         * Get every blue-origin botpose sample received since the last call, oldest first.
+         * Sample timestamps are in the local NetworkTables time base (microseconds, FPGA time on the roboRIO).
+         */
+        public TimestampedDoubleArray[] readBotPoseQueue_wpiBlue() {
+            return botpose_wpiblue.readQueue();
+        }
+
+        /**
+         * Get every red-origin botpose sample received since the last call, oldest first.
+         */
+        public TimestampedDoubleArray[] readBotPoseQueue_wpiRed() {
+            return botpose_wpired.readQueue();
+        }
+    }
+
+    private static final Map<String, LimelightHandle> handles = new ConcurrentHashMap<>();
+
+    /**
+     * Get the (cached) subscribers of a Limelight
+     * @param limelightName
+     * @return
+     */
+    public static LimelightHandle getHandle(String limelightName) {
+        return handles.computeIfAbsent(sanitizeName(limelightName), LimelightHandle::new);
+    }
+
+    /**
+     * Streaming decoder for the Limelight JSON dump.
+     * <p>
+     * Fills a single pooled {@link LimelightResults} (and pooled targets) instead of building a new object graph on
+     * every frame, and skips the target types that were not requested. The returned results are overwritten by the
+     * next call, so a decoder must only be used by one thread and the results must not be kept between frames.
+     */
+    public static class LimelightResultsDecoder {
+        // * Target types
+        public static final int kFiducialTargets = 1;
+        public static final int kRetroTargets = 1 << 1;
+        public static final int kDetectorTargets = 1 << 2;
+        public static final int kClassifierTargets = 1 << 3;
+        public static final int kBarcodeTargets = 1 << 4;
+        public static final int kAllTargets = kFiducialTargets | kRetroTargets | kDetectorTargets | kClassifierTargets | kBarcodeTargets;
+
+        // * Target arrays are cached for every count up to this one
+        private static final int kMaxCachedTargets = 32;
+
+        private static final JsonFactory factory = new JsonFactory();
+
+        // * Pooled results
+        private final LimelightResults results = new LimelightResults();
+        private final int targetMask;
+
+        // * Pooled targets, indexed by their position in the JSON array
+        private final ArrayList<LimelightTarget_Fiducial> fiducialPool = new ArrayList<>();
+        private final ArrayList<LimelightTarget_Retro> retroPool = new ArrayList<>();
+        private final ArrayList<LimelightTarget_Detector> detectorPool = new ArrayList<>();
+        private final ArrayList<LimelightTarget_Classifier> classifierPool = new ArrayList<>();
+        private final ArrayList<LimelightTarget_Barcode> barcodePool = new ArrayList<>();
+
+        // * Target arrays, indexed by their length
+        private final LimelightTarget_Fiducial[][] fiducialArrays = new LimelightTarget_Fiducial[kMaxCachedTargets + 1][];
+        private final LimelightTarget_Retro[][] retroArrays = new LimelightTarget_Retro[kMaxCachedTargets + 1][];
+        private final LimelightTarget_Detector[][] detectorArrays = new LimelightTarget_Detector[kMaxCachedTargets + 1][];
+        private final LimelightTarget_Classifier[][] classifierArrays = new LimelightTarget_Classifier[kMaxCachedTargets + 1][];
+        private final LimelightTarget_Barcode[][] barcodeArrays = new LimelightTarget_Barcode[kMaxCachedTargets + 1][];
+
+        // * Scratch buffers
+        private char[] jsonBuffer = new char[4096];
+        private double[] numberBuffer = new double[16];
+
+        // * Stats
+        private double lastDecodeMs = 0;
+        private double maxDecodeMs = 0;
+        private long decodeCount = 0;
+        private long decodeErrors = 0;
+
+        /**
+         * Create a decoder for the given target types
+         * @param targetMask A combination of the target type flags (e.g. {@link #kFiducialTargets})
+         */
+        public LimelightResultsDecoder(int targetMask) {
+            this.targetMask = targetMask;
+
+            fiducialArrays[0] = new LimelightTarget_Fiducial[0];
+            retroArrays[0] = new LimelightTarget_Retro[0];
+            detectorArrays[0] = new LimelightTarget_Detector[0];
+            classifierArrays[0] = new LimelightTarget_Classifier[0];
+            barcodeArrays[0] = new LimelightTarget_Barcode[0];
+
+            clear(results.targetingResults);
+        }
+
+        /**
+         * Decode a JSON dump into the pooled results
+         * @param json
+         * @return The pooled results (overwritten by the next call)
+         */
+        public LimelightResults decode(String json) {
+            long start = System.nanoTime();
+
+            int length = json.length();
+            if (jsonBuffer.length < length) jsonBuffer = new char[Math.max(length, jsonBuffer.length * 2)];
+            json.getChars(0, length, jsonBuffer, 0);
+
+            Results targetingResults = results.targetingResults;
+            clear(targetingResults);
+
+            try (JsonParser parser = factory.createParser(jsonBuffer, 0, length)) {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        parser.nextToken();
+                        if ("Results".equals(field)) readResults(parser, targetingResults);
+                        else parser.skipChildren();
+                    }
+                }
+            } catch (IOException e) {
+                // Same behaviour as the databind path: a bad dump decodes to empty results
+                clear(targetingResults);
+                decodeErrors++;
+            }
+
+            double millis = (System.nanoTime() - start) * .000001;
+            targetingResults.latency_jsonParse = millis;
+            lastDecodeMs = millis;
+            if (millis > maxDecodeMs) maxDecodeMs = millis;
+            decodeCount++;
+
+            return results;
+        }
+
+        /**
+         * Get the time taken by the last decode
+         * @return
+         */
+        public double getLastDecodeMs() {
+            return lastDecodeMs;
+        }
+
+        /**
+         * Get the longest time taken by a decode
+         * @return
+         */
+        public double getMaxDecodeMs() {
+            return maxDecodeMs;
+        }
+
+        /**
+         * Get the number of dumps decoded
+         * @return
+         */
+        public long getDecodeCount() {
+            return decodeCount;
+        }
+
+        /**
+         * Get the number of dumps that could not be decoded
+         * @return
+         */
+        public long getDecodeErrors() {
+            return decodeErrors;
+        }
+
+        private void clear(Results r) {
+            r.pipelineID = 0;
+            r.latency_pipeline = 0;
+            r.latency_capture = 0;
+            r.latency_jsonParse = 0;
+            r.timestamp_LIMELIGHT_publish = 0;
+            r.timestamp_RIOFPGA_capture = 0;
+            r.valid = false;
+            Arrays.fill(r.botpose, 0);
+            Arrays.fill(r.botpose_wpired, 0);
+            Arrays.fill(r.botpose_wpiblue, 0);
+            Arrays.fill(r.camerapose_robotspace, 0);
+            r.targets_Fiducials = fiducialArrays[0];
+            r.targets_Retro = retroArrays[0];
+            r.targets_Detector = detectorArrays[0];
+            r.targets_Classifier = classifierArrays[0];
+            r.targets_Barcode = barcodeArrays[0];
+        }
+
+        private void readResults(JsonParser p, Results r) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                return;
+            }
+
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "pID": r.pipelineID = p.getValueAsDouble(); break;
+                    case "tl": r.latency_pipeline = p.getValueAsDouble(); break;
+                    case "cl": r.latency_capture = p.getValueAsDouble(); break;
+                    case "ts": r.timestamp_LIMELIGHT_publish = p.getValueAsDouble(); break;
+                    case "ts_rio": r.timestamp_RIOFPGA_capture = p.getValueAsDouble(); break;
+                    case "v": r.valid = p.getValueAsDouble() != 0; break;
+                    case "botpose": r.botpose = readDoubles(p, r.botpose); break;
+                    case "botpose_wpired": r.botpose_wpired = readDoubles(p, r.botpose_wpired); break;
+                    case "botpose_wpiblue": r.botpose_wpiblue = readDoubles(p, r.botpose_wpiblue); break;
+                    case "t6c_rs": r.camerapose_robotspace = readDoubles(p, r.camerapose_robotspace); break;
+                    case "Fiducial": r.targets_Fiducials = readFiducials(p); break;
+                    case "Retro": r.targets_Retro = readRetros(p); break;
+                    case "Detector": r.targets_Detector = readDetectors(p); break;
+                    case "Classifier": r.targets_Classifier = readClassifiers(p); break;
+                    case "Barcode": r.targets_Barcode = readBarcodes(p); break;
+                    default: p.skipChildren(); break;
+                }
+            }
+        }
+
+        private LimelightTarget_Fiducial[] readFiducials(JsonParser p) throws IOException {
+            if ((targetMask & kFiducialTargets) == 0 || p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                return fiducialArrays[0];
+            }
+
+            int count = 0;
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                if (count == fiducialPool.size()) fiducialPool.add(new LimelightTarget_Fiducial());
+                LimelightTarget_Fiducial t = fiducialPool.get(count++);
+                t.fiducialID = 0;
+                t.ta = t.tx = t.tx_pixels = t.ty = t.ty_pixels = t.ts = 0;
+
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    p.nextToken();
+                    switch (field) {
+                        case "fID": t.fiducialID = p.getValueAsDouble(); break;
+                        case "fam": t.fiducialFamily = readString(p, t.fiducialFamily); break;
+                        case "t6c_ts": t.cameraPose_TargetSpace = readDoubles(p, t.cameraPose_TargetSpace); break;
+                        case "t6r_fs": t.robotPose_FieldSpace = readDoubles(p, t.robotPose_FieldSpace); break;
+                        case "t6r_ts": t.robotPose_TargetSpace = readDoubles(p, t.robotPose_TargetSpace); break;
+                        case "t6t_cs": t.targetPose_CameraSpace = readDoubles(p, t.targetPose_CameraSpace); break;
+                        case "t6t_rs": t.targetPose_RobotSpace = readDoubles(p, t.targetPose_RobotSpace); break;
+                        case "ta": t.ta = p.getValueAsDouble(); break;
+                        case "tx": t.tx = p.getValueAsDouble(); break;
+                        case "txp": t.tx_pixels = p.getValueAsDouble(); break;
+                        case "ty": t.ty = p.getValueAsDouble(); break;
+                        case "typ": t.ty_pixels = p.getValueAsDouble(); break;
+                        case "ts": t.ts = p.getValueAsDouble(); break;
+                        default: p.skipChildren(); break;
+                    }
+                }
+            }
+
+            if (count > kMaxCachedTargets) return fiducialPool.subList(0, count).toArray(new LimelightTarget_Fiducial[count]);
+            if (fiducialArrays[count] == null) fiducialArrays[count] = fiducialPool.subList(0, count).toArray(new LimelightTarget_Fiducial[count]);
+            return fiducialArrays[count];
+        }
+
+        private LimelightTarget_Retro[] readRetros(JsonParser p) throws IOException {
+            if ((targetMask & kRetroTargets) == 0 || p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                return retroArrays[0];
+            }
+
+            int count = 0;
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                if (count == retroPool.size()) retroPool.add(new LimelightTarget_Retro());
+                LimelightTarget_Retro t = retroPool.get(count++);
+                t.ta = t.tx = t.tx_pixels = t.ty = t.ty_pixels = t.ts = 0;
+
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    p.nextToken();
+                    switch (field) {
+                        case "t6c_ts": t.cameraPose_TargetSpace = readDoubles(p, t.cameraPose_TargetSpace); break;
+                        case "t6r_fs": t.robotPose_FieldSpace = readDoubles(p, t.robotPose_FieldSpace); break;
+                        case "t6r_ts": t.robotPose_TargetSpace = readDoubles(p, t.robotPose_TargetSpace); break;
+                        case "t6t_cs": t.targetPose_CameraSpace = readDoubles(p, t.targetPose_CameraSpace); break;
+                        case "t6t_rs": t.targetPose_RobotSpace = readDoubles(p, t.targetPose_RobotSpace); break;
+                        case "ta": t.ta = p.getValueAsDouble(); break;
+                        case "tx": t.tx = p.getValueAsDouble(); break;
+                        case "txp": t.tx_pixels = p.getValueAsDouble(); break;
+                        case "ty": t.ty = p.getValueAsDouble(); break;
+                        case "typ": t.ty_pixels = p.getValueAsDouble(); break;
+                        case "ts": t.ts = p.getValueAsDouble(); break;
+                        default: p.skipChildren(); break;
+                    }
+                }
+            }
+
+            if (count > kMaxCachedTargets) return retroPool.subList(0, count).toArray(new LimelightTarget_Retro[count]);
+            if (retroArrays[count] == null) retroArrays[count] = retroPool.subList(0, count).toArray(new LimelightTarget_Retro[count]);
+            return retroArrays[count];
+        }
+
+        private LimelightTarget_Detector[] readDetectors(JsonParser p) throws IOException {
+            if ((targetMask & kDetectorTargets) == 0 || p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                return detectorArrays[0];
+            }
+
+            int count = 0;
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                if (count == detectorPool.size()) detectorPool.add(new LimelightTarget_Detector());
+                LimelightTarget_Detector t = detectorPool.get(count++);
+                t.classID = t.confidence = 0;
+                t.ta = t.tx = t.tx_pixels = t.ty = t.ty_pixels = 0;
+
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    p.nextToken();
+                    switch (field) {
+                        case "class": t.className = readString(p, t.className); break;
+                        case "classID": t.classID = p.getValueAsDouble(); break;
+                        case "conf": t.confidence = p.getValueAsDouble(); break;
+                        case "ta": t.ta = p.getValueAsDouble(); break;
+                        case "tx": t.tx = p.getValueAsDouble(); break;
+                        case "txp": t.tx_pixels = p.getValueAsDouble(); break;
+                        case "ty": t.ty = p.getValueAsDouble(); break;
+                        case "typ": t.ty_pixels = p.getValueAsDouble(); break;
+                        default: p.skipChildren(); break;
+                    }
+                }
+            }
+
+            if (count > kMaxCachedTargets) return detectorPool.subList(0, count).toArray(new LimelightTarget_Detector[count]);
+            if (detectorArrays[count] == null) detectorArrays[count] = detectorPool.subList(0, count).toArray(new LimelightTarget_Detector[count]);
+            return detectorArrays[count];
+        }
+
+        private LimelightTarget_Classifier[] readClassifiers(JsonParser p) throws IOException {
+            if ((targetMask & kClassifierTargets) == 0 || p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                return classifierArrays[0];
+            }
+
+            int count = 0;
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                if (count == classifierPool.size()) classifierPool.add(new LimelightTarget_Classifier());
+                LimelightTarget_Classifier t = classifierPool.get(count++);
+                t.classID = t.confidence = t.zone = 0;
+                t.tx = t.tx_pixels = t.ty = t.ty_pixels = 0;
+
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    p.nextToken();
+                    switch (field) {
+                        case "class": t.className = readString(p, t.className); break;
+                        case "classID": t.classID = p.getValueAsDouble(); break;
+                        case "conf": t.confidence = p.getValueAsDouble(); break;
+                        case "zone": t.zone = p.getValueAsDouble(); break;
+                        case "tx": t.tx = p.getValueAsDouble(); break;
+                        case "txp": t.tx_pixels = p.getValueAsDouble(); break;
+                        case "ty": t.ty = p.getValueAsDouble(); break;
+                        case "typ": t.ty_pixels = p.getValueAsDouble(); break;
+                        default: p.skipChildren(); break;
+                    }
+                }
+            }
+
+            if (count > kMaxCachedTargets) return classifierPool.subList(0, count).toArray(new LimelightTarget_Classifier[count]);
+            if (classifierArrays[count] == null) classifierArrays[count] = classifierPool.subList(0, count).toArray(new LimelightTarget_Classifier[count]);
+            return classifierArrays[count];
+        }
+
+        private LimelightTarget_Barcode[] readBarcodes(JsonParser p) throws IOException {
+            if ((targetMask & kBarcodeTargets) == 0 || p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                return barcodeArrays[0];
+            }
+
+            int count = 0;
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                if (count == barcodePool.size()) barcodePool.add(new LimelightTarget_Barcode());
+                count++;
+                p.skipChildren();
+            }
+
+            if (count > kMaxCachedTargets) return barcodePool.subList(0, count).toArray(new LimelightTarget_Barcode[count]);
+            if (barcodeArrays[count] == null) barcodeArrays[count] = barcodePool.subList(0, count).toArray(new LimelightTarget_Barcode[count]);
+            return barcodeArrays[count];
+        }
+
+        /**
+         * Read a number array, reusing the given array if the length matches
+         */
+        private double[] readDoubles(JsonParser p, double[] reuse) throws IOException {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                return reuse;
+            }
+
+            int count = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (count == numberBuffer.length) numberBuffer = Arrays.copyOf(numberBuffer, count * 2);
+                numberBuffer[count++] = p.getValueAsDouble();
+            }
+
+            double[] out = reuse != null && reuse.length == count ? reuse : new double[count];
+            System.arraycopy(numberBuffer, 0, out, 0, count);
+            return out;
+        }
+
+        /**
+         * Read a string, only allocating if it differs from the current value
+         */
+        private static String readString(JsonParser p, String current) throws IOException {
+            if (current != null) {
+                char[] chars = p.getTextCharacters();
+                int offset = p.getTextOffset();
+                int length = p.getTextLength();
+                if (length == current.length()) {
+                    boolean equal = true;
+                    for (int i = 0; i < length; i++) {
+                        if (chars[offset + i] != current.charAt(i)) {
+                            equal = false;
+                            break;
+                        }
+                    }
+                    if (equal) return current;
+                }
+            }
+            return p.getText();
+        }
+    }
+
+    private static final Map<String, LimelightResultsDecoder> decoders = new ConcurrentHashMap<>();
+
+    /**
+     * Decode the results of a Limelight with the streaming decoder instead of the databind one.
+     * The results returned by {@link #getLatestResults(String)} for this camera are then pooled: they are overwritten by
+     * the next call, so only call it from one thread and do not keep the results between frames.
+     * @param limelightName
+     * @param targetMask The target types to decode (see {@link LimelightResultsDecoder#kAllTargets})
+     */
+    public static void enableStreamingDecoder(String limelightName, int targetMask) {
+        decoders.put(sanitizeName(limelightName), new LimelightResultsDecoder(targetMask));
+    }
+
+    /**
+     * Go back to decoding the results of a Limelight with the databind decoder
+     * @param limelightName
+     */
+    public static void disableStreamingDecoder(String limelightName) {
+        decoders.remove(sanitizeName(limelightName));
+    }
+
+    /**
+     * Get the streaming decoder of a Limelight
+     * @param limelightName
+     * @return The decoder, or null if the camera uses the databind decoder
+     */
+    public static LimelightResultsDecoder getStreamingDecoder(String limelightName) {
+        return decoders.get(sanitizeName(limelightName));
+    }
+
     private static ObjectMapper mapper;
 
     /**
@@ -448,23 +954,23 @@ public class LimelightHelpers {
     /////
 
     public static double getTX(String limelightName) {
-        return getLimelightNTDouble(limelightName, "tx");
+        return getHandle(limelightName).tx.get();
     }
 
     public static double getTY(String limelightName) {
-        return getLimelightNTDouble(limelightName, "ty");
+        return getHandle(limelightName).ty.get();
     }
 
     public static double getTA(String limelightName) {
-        return getLimelightNTDouble(limelightName, "ta");
+        return getHandle(limelightName).ta.get();
     }
 
     public static double getLatency_Pipeline(String limelightName) {
-        return getLimelightNTDouble(limelightName, "tl");
+        return getHandle(limelightName).tl.get();
     }
 
     public static double getLatency_Capture(String limelightName) {
-        return getLimelightNTDouble(limelightName, "cl");
+        return getHandle(limelightName).cl.get();
     }
 
     public static double getCurrentPipelineIndex(String limelightName) {
@@ -472,7 +978,7 @@ public class LimelightHelpers {
     }
 
     public static String getJSONDump(String limelightName) {
-        return getLimelightNTString(limelightName, "json");
+        return getHandle(limelightName).json.get();
     }
 
     /**
@@ -509,15 +1015,15 @@ public class LimelightHelpers {
     }
 
     public static double[] getBotPose(String limelightName) {
-        return getLimelightNTDoubleArray(limelightName, "botpose");
+        return getHandle(limelightName).botpose.get();
     }
 
     public static double[] getBotPose_wpiRed(String limelightName) {
-        return getLimelightNTDoubleArray(limelightName, "botpose_wpired");
+        return getHandle(limelightName).botpose_wpired.get();
     }
 
     public static double[] getBotPose_wpiBlue(String limelightName) {
-        return getLimelightNTDoubleArray(limelightName, "botpose_wpiblue");
+        return getHandle(limelightName).botpose_wpiblue.get();
     }
 
     public static double[] getBotPose_TargetSpace(String limelightName) {
@@ -633,7 +1139,7 @@ public class LimelightHelpers {
     }
 
     public static boolean getTV(String limelightName) {
-        return 1.0 == getLimelightNTDouble(limelightName, "tv");
+        return 1.0 == getHandle(limelightName).tv.get();
     }
 
     /////
@@ -756,6 +1262,15 @@ public class LimelightHelpers {
      */
     public static LimelightResults getLatestResults(String limelightName) {
 
+        LimelightResultsDecoder decoder = getStreamingDecoder(limelightName);
+        if (decoder != null) {
+            LimelightResults results = decoder.decode(getJSONDump(limelightName));
+            if (profileJSON) {
+                System.out.printf("lljson: %.2f\r\n", results.targetingResults.latency_jsonParse);
+            }
+            return results;
+        }
+
         long start = System.nanoTime();
         LimelightHelpers.LimelightResults results = new LimelightHelpers.LimelightResults();
         if (mapper == null) {
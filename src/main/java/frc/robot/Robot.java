@@ -1,30 +1,92 @@
 package frc.robot;
 
 import org.littletonrobotics.junction.LoggedRobot;
+import org.littletonrobotics.junction.LogFileUtil;
 import org.littletonrobotics.junction.Logger;
 import org.littletonrobotics.junction.networktables.NT4Publisher;
+import org.littletonrobotics.junction.wpilog.WPILOGReader;
+import org.littletonrobotics.junction.wpilog.WPILOGWriter;
 import org.littletonrobotics.urcl.URCL;
 import com.ctre.phoenix6.SignalLogger;
+import com.pathplanner.lib.pathfinding.Pathfinding;
+
+import java.io.File;
+
 import edu.wpi.first.net.PortForwarder;
 import edu.wpi.first.wpilibj.livewindow.LiveWindow;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import lib.team3526.control.CANBusManager;
+import lib.team3526.control.PhoenixSignalRegistry;
+import lib.team3526.control.SparkConfigCache;
+import lib.team3526.control.SparkOutputs;
+import lib.team3526.field.AprilTagFieldGeometry;
+import lib.team3526.logging.BufferedLogReceiver;
+import lib.team3526.logging.Telemetry;
+import lib.team3526.pathfinding.GridPathfinder;
+import lib.team3526.pathfinding.NavGrid;
+import lib.team3526.utils.BootTimeline;
+import lib.team3526.utils.LoopProfiler;
 
 public class Robot extends LoggedRobot {
   private Command m_autonomousCommand;
   private Command m_teleopInitCommand;
   private RobotContainer m_robotContainer;
+  private BufferedLogReceiver m_logWriter;
+  private GridPathfinder m_pathfinder;
+  private final LoopProfiler.Section m_schedulerProfiler = LoopProfiler.section("CommandScheduler");
+
+  // * First autonomous cycle (autonomousInit + the first scheduler run)
+  private long m_autonomousInitNanos = -1;
+  private boolean m_autonomousWarm = false;
 
   @Override
   public void robotInit() {
+    // * AprilTag layout (parsed on its own thread while everything else starts)
+    AprilTagFieldGeometry.loadAsync(Constants.Vision.kAprilTagField);
+
+    // * Pathfinding (set before the AutoBuilder is configured so PathPlanner never starts its own pathfinder)
+    if (Constants.SwerveDrive.Autonomous.kUseGridPathfinder) {
+      m_pathfinder = new GridPathfinder(NavGrid.getFile(), Constants.SwerveDrive.Autonomous.kPathfindingMaxExpansions);
+      Pathfinding.setPathfinder(m_pathfinder);
+    }
+
     // * RobotContainer
+    long robotContainerStart = System.nanoTime();
     m_robotContainer = new RobotContainer();
+    BootTimeline.record("RobotContainer", robotContainerStart);
+
+    // * Loop timing (after RobotContainer so every button binding is already made)
+    LoopProfiler.setEnabled(Constants.Logging.kProfileLoop);
+    LoopProfiler.bindScheduler(CommandScheduler.getInstance());
+
+    // * CAN bus load (the CTRE devices can be on a CANivore, measure it too)
+    if (isReal()) CANBusManager.monitorPhoenixBus(Constants.SwerveDrive.kGyroDevice.getCanbus());
+    SparkOutputs.setDeadbands(Constants.CAN.kDutyCycleDeadband, Constants.CAN.kVoltageDeadband);
+    SparkOutputs.setRefreshLoops(Constants.CAN.kOutputRefreshLoops);
 
     // * AdvantageKit Config
-    Logger.addDataReceiver(new NT4Publisher());
-    if (Constants.Logging.kDebug) Logger.registerURCL(URCL.startExternal());
+    if (!isReal() && Constants.Logging.kReplay) {
+      // Replay a log as fast as possible and write the recomputed outputs next to it
+      setUseTiming(false);
+      String logPath = LogFileUtil.findReplayLog();
+      Logger.setReplaySource(new WPILOGReader(logPath));
+      Logger.addDataReceiver(new WPILOGWriter(LogFileUtil.addPathSuffix(logPath, "_sim")));
+    } else {
+      Logger.addDataReceiver(new NT4Publisher());
+      if (isReal() && Constants.Logging.kWriteLogFile) {
+        // Disk writes happen on the writer thread, never on the main loop
+        String logDirectory = new File("/U").isDirectory() ? Constants.Logging.kUSBLogDirectory : Constants.Logging.kRioLogDirectory;
+        m_logWriter = new BufferedLogReceiver("WPILOG", new WPILOGWriter(logDirectory), Constants.Logging.kLogQueueCapacity);
+        Logger.addDataReceiver(m_logWriter);
+      }
+      if (Constants.Logging.kDebug) Logger.registerURCL(URCL.startExternal());
+    }
     Logger.start();
 
+    // * How much of the motor config had to be written this boot
+    SparkConfigCache.logStats();
+
     // * DISABLE LIVE WINDOW
     LiveWindow.disableAllTelemetry();
 
@@ -34,24 +96,64 @@ public class Robot extends LoggedRobot {
 
     // Limelight port forwarding over USB
     for (int port = 5800; port <= 5807; port++) PortForwarder.add(port, "limelight.local", port);
+
+    // * Boot timeline (how long each device took and when the code was ready)
+    BootTimeline.ready();
+    BootTimeline.log();
+  }
+
+  /**
+   * Get the robot container (created in robotInit)
+   * @return
+   */
+  public RobotContainer getRobotContainer() {
+    return m_robotContainer;
   }
 
   @Override
   public void robotPeriodic() {
+    // Refresh every Phoenix 6 signal at once before anything reads them
+    PhoenixSignalRegistry.refreshAll();
+
+    long schedulerStart = System.nanoTime();
+    m_schedulerProfiler.begin();
     CommandScheduler.getInstance().run();
+    m_schedulerProfiler.end();
+
+    if (m_autonomousInitNanos >= 0) {
+      double firstCycleMs = (m_autonomousInitNanos + System.nanoTime() - schedulerStart) / 1e6;
+      Logger.recordOutput("Auto/FirstCycle/Ms", firstCycleMs);
+      Logger.recordOutput("Auto/FirstCycle/WarmedUp", m_autonomousWarm);
+      m_autonomousInitNanos = -1;
+    }
+
+    // Every motor output set this loop goes out at once
+    SparkOutputs.flushAll();
+
+    Telemetry.periodic();
+    CANBusManager.periodic();
+    if (m_logWriter != null) m_logWriter.logStats();
+    if (m_pathfinder != null) m_pathfinder.periodic();
+    LoopProfiler.periodic();
   }
 
   @Override
   public void disabledInit() {}
 
   @Override
-  public void disabledPeriodic() {}
+  public void disabledPeriodic() {
+    // Build and warm up the selected auto so its first cycle is cheap
+    m_robotContainer.prewarmAutonomous();
+  }
 
   @Override
   public void autonomousInit() {
+    long start = System.nanoTime();
+    m_autonomousWarm = m_robotContainer.isAutonomousWarm();
     m_autonomousCommand = m_robotContainer.getAutonomousCommand();
     if (m_teleopInitCommand != null) m_teleopInitCommand.cancel();
     if (m_autonomousCommand != null) m_autonomousCommand.schedule();
+    m_autonomousInitNanos = System.nanoTime() - start;
   }
 
   @Override
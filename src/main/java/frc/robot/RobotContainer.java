@@ -1,9 +1,8 @@
 package frc.robot;
 
 import org.littletonrobotics.junction.Logger;
-import com.pathplanner.lib.auto.AutoBuilder;
+import org.littletonrobotics.junction.networktables.LoggedDashboardChooser;
 import com.pathplanner.lib.auto.NamedCommands;
-import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
@@ -22,26 +21,49 @@ import frc.robot.commands.SwerveDrive.DriveSwerve;
 import frc.robot.commands.SwerveDrive.ZeroHeading;
 import frc.robot.subsystems.LedsSubsystem;
 import frc.robot.subsystems.Climber.Climber;
+import frc.robot.subsystems.Climber.ClimberIO;
 import frc.robot.subsystems.Climber.ClimberIOReal;
 import frc.robot.subsystems.Climber.ClimberIOSim;
 import frc.robot.subsystems.Gyro.Gyro;
+import frc.robot.subsystems.Gyro.GyroIO;
 import frc.robot.subsystems.Gyro.GyroIOPigeon;
+import frc.robot.subsystems.Gyro.GyroIOSim;
 import frc.robot.subsystems.IntakeLifter.IntakeLifter;
+import frc.robot.subsystems.IntakeLifter.IntakeLifterIO;
 import frc.robot.subsystems.IntakeLifter.IntakeLifterIOReal;
 import frc.robot.subsystems.IntakeLifter.IntakeLifterIOSim;
 import frc.robot.subsystems.IntakeRollers.IntakeRollers;
+import frc.robot.subsystems.IntakeRollers.IntakeRollersIO;
 import frc.robot.subsystems.IntakeRollers.IntakeRollersIOReal;
 import frc.robot.subsystems.IntakeRollers.IntakeRollersIOSim;
 import frc.robot.subsystems.Shooter.Shooter;
+import frc.robot.subsystems.Shooter.ShooterIO;
 import frc.robot.subsystems.Shooter.ShooterIOReal;
 import frc.robot.subsystems.Shooter.ShooterIOSim;
 import frc.robot.subsystems.SwerveDrive.SwerveDrive;
 import frc.robot.subsystems.SwerveDrive.SwerveDriveIOReal;
+import frc.robot.subsystems.SwerveDrive.SwerveDriveIOReplay;
+import frc.robot.subsystems.SwerveDrive.SwerveDriveIOSim;
 import frc.robot.subsystems.SwerveModule.SwerveModule;
+import frc.robot.subsystems.Vision.Vision;
+import frc.robot.subsystems.Vision.VisionIO;
+import frc.robot.subsystems.Vision.VisionIOLimelight;
+import frc.robot.subsystems.Vision.VisionIOPhoton;
+import frc.robot.subsystems.Vision.VisionIOPhotonSim;
+import lib.team3526.auto.AutoPrewarmer;
+import lib.team3526.auto.CachedAutoBuilder;
 import lib.team3526.commands.RunForCommand;
+import lib.team3526.constants.CameraOptions;
 import lib.team3526.driveControl.CustomController;
+import lib.team3526.field.AprilTagFieldGeometry;
+import lib.team3526.utils.BootTimeline;
+import frc.robot.subsystems.SwerveModule.SwerveModuleIO;
 import frc.robot.subsystems.SwerveModule.SwerveModuleIOReal;
+import frc.robot.subsystems.SwerveModule.SwerveModuleIOSim;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+
+import static edu.wpi.first.units.Units.MetersPerSecond;
 
 public class RobotContainer {
   // * Controller
@@ -59,6 +81,9 @@ public class RobotContainer {
   // * Swerve Drive
   private final SwerveDrive m_swerveDrive;
 
+  // * Vision
+  private final Vision m_vision;
+
   // * Intake
   private final IntakeLifter m_intake;
   private final IntakeRollers m_rollers;
@@ -74,54 +99,143 @@ public class RobotContainer {
   private final LedsSubsystem m_leds;
 
   // * Autonomous Chooser
-  SendableChooser<Command> autonomousChooser;
+  LoggedDashboardChooser<String> autonomousChooser;
+  AutoPrewarmer autoPrewarmer;
 
   public RobotContainer() {
     // Create controller
     this.m_driverControllerCustom = new CustomController(0, CustomController.CustomControllerType.PS5, CustomController.CustomJoystickCurve.LINEAR);
 
     if (Robot.isReal()) {
+      // Build and configure every device IO at the same time (mostly waiting on CAN), subsystems are created below
+      CompletableFuture<SwerveModuleIO> frontLeftIO = BootTimeline.start("FrontLeftModule", () -> new SwerveModuleIOReal(Constants.SwerveDrive.SwerveModules.kFrontLeftOptions));
+      CompletableFuture<SwerveModuleIO> frontRightIO = BootTimeline.start("FrontRightModule", () -> new SwerveModuleIOReal(Constants.SwerveDrive.SwerveModules.kFrontRightOptions));
+      CompletableFuture<SwerveModuleIO> backLeftIO = BootTimeline.start("BackLeftModule", () -> new SwerveModuleIOReal(Constants.SwerveDrive.SwerveModules.kBackLeftOptions));
+      CompletableFuture<SwerveModuleIO> backRightIO = BootTimeline.start("BackRightModule", () -> new SwerveModuleIOReal(Constants.SwerveDrive.SwerveModules.kBackRightOptions));
+      CompletableFuture<GyroIO> gyroIO = BootTimeline.start("Gyro", () -> new GyroIOPigeon(Constants.SwerveDrive.kGyroDevice));
+
+      // PhotonVision cameras need the AprilTag layout (robotInit already started parsing it, this task waits for it to finish)
+      // Limelights compute their pose themselves and don't wait for it
+      boolean camerasNeedLayout = Constants.SwerveDrive.kUseVisionOdometry && Constants.Vision.kUsePhotonVision;
+      CompletableFuture<?>[] camerasDependencies = camerasNeedLayout
+        ? new CompletableFuture<?>[]{ BootTimeline.start("AprilTagLayout", () -> AprilTagFieldGeometry.get(Constants.Vision.kAprilTagField)) }
+        : new CompletableFuture<?>[0];
+      CompletableFuture<VisionIO[]> camerasIO = BootTimeline.start("Cameras", () -> {
+        VisionIO[] cameras = new VisionIO[Constants.SwerveDrive.kUseVisionOdometry ? Constants.Vision.kCameras.length : 0];
+        for (int i = 0; i < cameras.length; i++) {
+          if (Constants.Vision.kUsePhotonVision) cameras[i] = new VisionIOPhoton(Constants.Vision.kCameras[i]);
+          else cameras[i] = new VisionIOLimelight(Constants.Vision.kCameras[i]);
+        }
+        return cameras;
+      }, camerasDependencies);
+
+      CompletableFuture<IntakeLifterIO> intakeLifterIO = BootTimeline.start("IntakeLifter", IntakeLifterIOReal::new);
+      CompletableFuture<IntakeRollersIO> intakeRollersIO = BootTimeline.start("IntakeRollers", IntakeRollersIOReal::new);
+      CompletableFuture<ShooterIO> shooterIO = BootTimeline.start("Shooter", ShooterIOReal::new);
+      CompletableFuture<ClimberIO> leftClimberIO = BootTimeline.start("LeftClimber", () -> new ClimberIOReal(Constants.Climber.kLeftClimberMotorID, "LeftClimber"));
+      CompletableFuture<ClimberIO> rightClimberIO = BootTimeline.start("RightClimber", () -> new ClimberIOReal(Constants.Climber.kRightClimberMotorID, "RightClimber"));
+
+      // LEDs (a subsystem, created here while the IOs are being set up)
+      long ledsStart = System.nanoTime();
+      this.m_leds = new LedsSubsystem(Constants.CANdle.kCANdle);
+      this.m_leds.turnOff();
+      BootTimeline.record("LEDs", ledsStart);
+
       // Swerve Module creation
-      this.m_frontLeft = new SwerveModule(new SwerveModuleIOReal(Constants.SwerveDrive.SwerveModules.kFrontLeftOptions));
-      this.m_frontRight = new SwerveModule(new SwerveModuleIOReal(Constants.SwerveDrive.SwerveModules.kFrontRightOptions));
-      this.m_backLeft = new SwerveModule(new SwerveModuleIOReal(Constants.SwerveDrive.SwerveModules.kBackLeftOptions));
-      this.m_backRight = new SwerveModule(new SwerveModuleIOReal(Constants.SwerveDrive.SwerveModules.kBackRightOptions));
+      this.m_frontLeft = new SwerveModule(BootTimeline.await(frontLeftIO), Constants.SwerveDrive.SwerveModules.kFrontLeftOptions.name);
+      this.m_frontRight = new SwerveModule(BootTimeline.await(frontRightIO), Constants.SwerveDrive.SwerveModules.kFrontRightOptions.name);
+      this.m_backLeft = new SwerveModule(BootTimeline.await(backLeftIO), Constants.SwerveDrive.SwerveModules.kBackLeftOptions.name);
+      this.m_backRight = new SwerveModule(BootTimeline.await(backRightIO), Constants.SwerveDrive.SwerveModules.kBackRightOptions.name);
 
       // Gyroscope
-      this.m_gyro = new Gyro(new GyroIOPigeon(Constants.SwerveDrive.kGyroDevice));
+      this.m_gyro = new Gyro(BootTimeline.await(gyroIO));
 
-      // Swerve Drive
+      // Swerve Drive (needs the modules and the gyro)
+      long swerveDriveStart = System.nanoTime();
       this.m_swerveDrive = new SwerveDrive(new SwerveDriveIOReal(m_frontLeft, m_frontRight, m_backLeft, m_backRight, m_gyro));
+      BootTimeline.record("SwerveDrive", swerveDriveStart);
+
+      // Vision (one IO per camera)
+      this.m_vision = new Vision(m_swerveDrive::addVisionMeasurement, m_swerveDrive::getPose, BootTimeline.await(camerasIO));
+
+      // Intake
+      this.m_intake =  new IntakeLifter(BootTimeline.await(intakeLifterIO));
+      this.m_rollers = new IntakeRollers(BootTimeline.await(intakeRollersIO));
+
+      // Shooter
+      this.m_shooter = new Shooter(BootTimeline.await(shooterIO));
+
+      // Climbers
+      this.m_leftClimber = new Climber(BootTimeline.await(leftClimberIO), "LeftClimber");
+      this.m_rightClimber = new Climber(BootTimeline.await(rightClimberIO), "RightClimber");
+
+      // Metadata
+      Logger.recordMetadata("Robot", "Real");
+    } else if (Constants.Logging.kReplay) {
+      // Log replay: every IO is a no-op, the inputs come from the log
+      this.m_frontLeft = new SwerveModule(new SwerveModuleIO() {}, Constants.SwerveDrive.SwerveModules.kFrontLeftOptions.name);
+      this.m_frontRight = new SwerveModule(new SwerveModuleIO() {}, Constants.SwerveDrive.SwerveModules.kFrontRightOptions.name);
+      this.m_backLeft = new SwerveModule(new SwerveModuleIO() {}, Constants.SwerveDrive.SwerveModules.kBackLeftOptions.name);
+      this.m_backRight = new SwerveModule(new SwerveModuleIO() {}, Constants.SwerveDrive.SwerveModules.kBackRightOptions.name);
+
+      // Gyroscope
+      this.m_gyro = new Gyro(new GyroIO() {});
+
+      // Swerve Drive (same pose estimator, fed with the logged odometry samples)
+      this.m_swerveDrive = new SwerveDrive(new SwerveDriveIOReplay(m_frontLeft, m_frontRight, m_backLeft, m_backRight, m_gyro));
+
+      // Vision (the logged frames go through the same filters and fusion code)
+      VisionIO[] cameras = new VisionIO[Constants.SwerveDrive.kUseVisionOdometry ? Constants.Vision.kCameras.length : 0];
+      for (int i = 0; i < cameras.length; i++) {
+        CameraOptions options = Constants.Vision.kCameras[i];
+        cameras[i] = new VisionIO() {
+          public String getName() {
+            return options.name;
+          }
+
+          public double getStdDevScale() {
+            return options.stdDevScale;
+          }
+        };
+      }
+      this.m_vision = new Vision(m_swerveDrive::addVisionMeasurement, m_swerveDrive::getPose, cameras);
 
       // Intake
-      this.m_intake =  new IntakeLifter(new IntakeLifterIOReal());
-      this.m_rollers = new IntakeRollers(new IntakeRollersIOReal());
+      this.m_intake = new IntakeLifter(new IntakeLifterIO() {});
+      this.m_rollers = new IntakeRollers(new IntakeRollersIO() {});
 
       // Shooter
-      this.m_shooter = new Shooter(new ShooterIOReal());
+      this.m_shooter = new Shooter(new ShooterIO() {});
 
       // Climbers
-      this.m_leftClimber = new Climber(new ClimberIOReal(Constants.Climber.kLeftClimberMotorID, "LeftClimber"));
-      this.m_rightClimber = new Climber(new ClimberIOReal(Constants.Climber.kRightClimberMotorID, "RightClimber"));
+      this.m_leftClimber = new Climber(new ClimberIO() {}, "LeftClimber");
+      this.m_rightClimber = new Climber(new ClimberIO() {}, "RightClimber");
 
       // LEDs
       this.m_leds = new LedsSubsystem(Constants.CANdle.kCANdle);
       this.m_leds.turnOff();
 
       // Metadata
-      Logger.recordMetadata("Robot", "Real");
+      Logger.recordMetadata("Robot", "Replay");
     } else {
       // Swerve Module creation
-      this.m_frontLeft = null;
-      this.m_frontRight = null;
-      this.m_backLeft = null;
-      this.m_backRight = null;
+      this.m_frontLeft = new SwerveModule(new SwerveModuleIOSim(Constants.SwerveDrive.SwerveModules.kFrontLeftOptions), Constants.SwerveDrive.SwerveModules.kFrontLeftOptions.name);
+      this.m_frontRight = new SwerveModule(new SwerveModuleIOSim(Constants.SwerveDrive.SwerveModules.kFrontRightOptions), Constants.SwerveDrive.SwerveModules.kFrontRightOptions.name);
+      this.m_backLeft = new SwerveModule(new SwerveModuleIOSim(Constants.SwerveDrive.SwerveModules.kBackLeftOptions), Constants.SwerveDrive.SwerveModules.kBackLeftOptions.name);
+      this.m_backRight = new SwerveModule(new SwerveModuleIOSim(Constants.SwerveDrive.SwerveModules.kBackRightOptions), Constants.SwerveDrive.SwerveModules.kBackRightOptions.name);
 
       // Gyroscope
-      this.m_gyro = new Gyro(null);
+      GyroIOSim gyroSim = new GyroIOSim();
+      this.m_gyro = new Gyro(gyroSim);
 
       // Swerve Drive
-      this.m_swerveDrive = null;
+      SwerveDriveIOSim swerveDriveSim = new SwerveDriveIOSim(m_frontLeft, m_frontRight, m_backLeft, m_backRight, m_gyro, gyroSim);
+      this.m_swerveDrive = new SwerveDrive(swerveDriveSim);
+
+      // Vision (simulated PhotonVision cameras, rendered from the ground truth pose)
+      VisionIO[] cameras = new VisionIO[Constants.SwerveDrive.kUseVisionOdometry ? Constants.Vision.kCameras.length : 0];
+      for (int i = 0; i < cameras.length; i++) cameras[i] = new VisionIOPhotonSim(Constants.Vision.kCameras[i], swerveDriveSim::getGroundTruthPose);
+      this.m_vision = new Vision(m_swerveDrive::addVisionMeasurement, m_swerveDrive::getPose, cameras);
 
       // Intake
       this.m_intake = new IntakeLifter(new IntakeLifterIOSim());
@@ -131,11 +245,12 @@ public class RobotContainer {
       this.m_shooter = new Shooter(new ShooterIOSim());
 
       // Climbers
-      this.m_leftClimber = new Climber(new ClimberIOSim());
-      this.m_rightClimber = new Climber(new ClimberIOSim());
+      this.m_leftClimber = new Climber(new ClimberIOSim(), "LeftClimber");
+      this.m_rightClimber = new Climber(new ClimberIOSim(), "RightClimber");
 
       // LEDs
-      this.m_leds = null;
+      this.m_leds = new LedsSubsystem(Constants.CANdle.kCANdle);
+      this.m_leds.turnOff();
 
       // Metadata
       Logger.recordMetadata("Robot", "Sim");
@@ -157,11 +272,20 @@ public class RobotContainer {
     // Add commands to SmartDashboard
     SmartDashboard.putData("ZeroHeading", new InstantCommand(() -> m_swerveDrive.zeroHeading()));
     SmartDashboard.putData("ResetPose", new InstantCommand(() -> m_swerveDrive.resetPose()));
-    SmartDashboard.putData("SetVisionPose", new InstantCommand(() -> m_swerveDrive.setVisionPose()));
-
-    // Autonomous chooser
-    this.autonomousChooser = AutoBuilder.buildAutoChooser();
-    SmartDashboard.putData("Autonomous", this.autonomousChooser);
+    SmartDashboard.putData("SetVisionPose", new InstantCommand(() -> m_vision.getLatestPose().ifPresent(m_swerveDrive::setVisionPose)));
+
+    // Autonomous chooser (only the names, the selected auto is built when it runs and follows the cached trajectories)
+    // The selection is logged as an input, so a replayed log runs the same auto
+    this.autonomousChooser = new LoggedDashboardChooser<>("Autonomous");
+    this.autonomousChooser.addDefaultOption("None", "");
+    for (String autoName : CachedAutoBuilder.getAutoNames()) this.autonomousChooser.addOption(autoName, autoName);
+    this.autoPrewarmer = new AutoPrewarmer(
+      this.autonomousChooser::get,
+      Constants.SwerveDrive.PhysicalModel.kDriveKinematics,
+      Constants.SwerveDrive.PhysicalModel.kMaxSpeed.in(MetersPerSecond),
+      Constants.SwerveDrive.Autonomous.kPrewarmBudgetSeconds,
+      Constants.SwerveDrive.Autonomous.kPrewarmSamples
+    );
 
     // Configure the button bindings
     configureBindings();
@@ -196,11 +320,30 @@ public class RobotContainer {
     this.m_driverControllerCustom.povDown().whileTrue(new ClimbersDown(this.m_leftClimber, this.m_rightClimber));
   }
 
+  public SwerveDrive getSwerveDrive() {
+    return this.m_swerveDrive;
+  }
+
   public Command getAutonomousCommand() {
-    return this.autonomousChooser.getSelected();
+    return this.autoPrewarmer.getAuto(this.autonomousChooser.get());
   };
 
+  /**
+   * Build and warm up the selected auto (call while disabled)
+   */
+  public void prewarmAutonomous() {
+    if (Constants.SwerveDrive.Autonomous.kPrewarm) this.autoPrewarmer.periodic();
+  }
+
+  /**
+   * Check if the selected auto was warmed up
+   * @return
+   */
+  public boolean isAutonomousWarm() {
+    return this.autoPrewarmer.isWarm();
+  }
+
   public Command getTeleopInitCommand() {
-    return new InstantCommand(() -> m_swerveDrive.setVisionPose());
+    return new InstantCommand(() -> m_vision.getLatestPose().ifPresent(m_swerveDrive::setVisionPose));
   }
 }
@@ -0,0 +1,199 @@
+package frc.robot.simulation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.pathplanner.lib.util.PathPlannerLogging;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants;
+import frc.robot.Robot;
+import frc.robot.RobotContainer;
+import lib.team3526.auto.CachedAutoBuilder;
+
+/**
+ * Runs autonomous routines in simulation without a GUI or driver station, as fast as the CPU allows.
+ * <p>
+ * The HAL clock is paused and stepped manually one loop period at a time, so simulated time is independent of wall time.
+ * The robot is started with {@link Robot#robotInit()} and every cycle runs {@link Robot#robotPeriodic()}, so the loop CPU time
+ * covers the same work as a cycle on the robot. Each auto is built through {@link CachedAutoBuilder} (like on the robot) with the named commands registered by {@link RobotContainer},
+ * and a JSON summary (completion time, path tracking error, loop CPU time) is printed to stdout.
+ * <p>
+ * Usage: {@code ./gradlew simulateAutos -Pautos=Speaker.3Note,Left.2Note} (every auto when no names are given)
+ */
+public final class AutoSimRunner {
+    // * Autos that take longer than the autonomous period are reported as not completed
+    private static final double kTimeoutSeconds = 15;
+    private static final double kLoopPeriodSeconds = Constants.SwerveDrive.Simulation.kLoopPeriodSeconds;
+    private static final int kMaxCycles = (int) Math.ceil(kTimeoutSeconds / kLoopPeriodSeconds);
+
+    // * Latest target pose of the path follower
+    private static volatile Pose2d targetPose = null;
+
+    private AutoSimRunner() {}
+
+    public static void main(String... args) {
+        if (!HAL.initialize(500, 0)) throw new IllegalStateException("Failed to initialize the HAL");
+
+        // Time only moves when we step it
+        SimHooks.pauseTiming();
+
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+        DriverStationSim.setAutonomous(true);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+
+        Robot robot = new Robot();
+        robot.robotInit();
+        PathPlannerLogging.setLogTargetPoseCallback(pose -> targetPose = pose);
+
+        List<String> autos = args.length > 0 ? Arrays.asList(args) : CachedAutoBuilder.getAutoNames();
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"loopPeriodSeconds\":").append(format(kLoopPeriodSeconds)).append(",\"autos\":[");
+
+        boolean allCompleted = true;
+        for (int i = 0; i < autos.size(); i++) {
+            if (i > 0) json.append(',');
+            allCompleted &= run(robot, autos.get(i), json);
+        }
+
+        json.append("]}");
+        System.out.println(json);
+        System.out.flush();
+
+        // The vision and odometry notifiers would keep the process alive
+        System.exit(allCompleted ? 0 : 1);
+    }
+
+    /**
+     * Run a single auto and append its summary to the JSON output
+     * @return True if the auto finished before the timeout
+     */
+    private static boolean run(Robot robot, String autoName, StringBuilder json) {
+        RobotContainer robotContainer = robot.getRobotContainer();
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        scheduler.cancelAll();
+        targetPose = null;
+
+        Command auto = CachedAutoBuilder.buildAuto(autoName);
+
+        setEnabled(true);
+        auto.schedule();
+
+        double[] cycleMs = new double[kMaxCycles];
+        double startTimestamp = now();
+        double errorSum = 0;
+        double errorSquaredSum = 0;
+        double maxError = 0;
+        int errorSamples = 0;
+
+        long wallStart = System.nanoTime();
+        int cycles = 0;
+        while (cycles < kMaxCycles && auto.isScheduled()) {
+            SimHooks.stepTiming(kLoopPeriodSeconds);
+
+            long cycleStart = System.nanoTime();
+            DriverStationSim.notifyNewData();
+            DriverStation.refreshData();
+            robot.robotPeriodic();
+            cycleMs[cycles] = (System.nanoTime() - cycleStart) / 1e6;
+            cycles++;
+
+            Pose2d target = targetPose;
+            if (target != null && auto.isScheduled()) {
+                double error = robotContainer.getSwerveDrive().getPose().getTranslation().getDistance(target.getTranslation());
+                errorSum += error;
+                errorSquaredSum += error * error;
+                maxError = Math.max(maxError, error);
+                errorSamples++;
+            }
+        }
+        double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+
+        boolean completed = !auto.isScheduled();
+        double autoSeconds = now() - startTimestamp;
+
+        scheduler.cancelAll();
+        setEnabled(false);
+        robot.robotPeriodic();
+
+        double[] sorted = Arrays.copyOf(cycleMs, cycles);
+        Arrays.sort(sorted);
+        double cpuSum = 0;
+        for (double ms : sorted) cpuSum += ms;
+
+        json.append('{')
+            .append("\"name\":").append(quote(autoName)).append(',')
+            .append("\"completed\":").append(completed).append(',')
+            .append("\"autoTimeSeconds\":").append(format(autoSeconds)).append(',')
+            .append("\"wallTimeSeconds\":").append(format(wallSeconds)).append(',')
+            .append("\"cycles\":").append(cycles).append(',')
+            .append("\"trackingErrorMeters\":{")
+                .append("\"mean\":").append(format(errorSamples > 0 ? errorSum / errorSamples : 0)).append(',')
+                .append("\"rms\":").append(format(errorSamples > 0 ? Math.sqrt(errorSquaredSum / errorSamples) : 0)).append(',')
+                .append("\"max\":").append(format(maxError)).append(',')
+                .append("\"samples\":").append(errorSamples)
+            .append("},")
+            .append("\"loopCpuMs\":{")
+                .append("\"mean\":").append(format(cycles > 0 ? cpuSum / cycles : 0)).append(',')
+                .append("\"p50\":").append(format(percentile(sorted, 0.50))).append(',')
+                .append("\"p99\":").append(format(percentile(sorted, 0.99))).append(',')
+                .append("\"max\":").append(format(cycles > 0 ? sorted[cycles - 1] : 0))
+            .append('}')
+        .append('}');
+
+        return completed;
+    }
+
+    private static void setEnabled(boolean enabled) {
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+    }
+
+    private static double now() {
+        return Timer.getFPGATimestamp();
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    /**
+     * Quote a string for the JSON output
+     */
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': quoted.append("\\\""); break;
+                case '\\': quoted.append("\\\\"); break;
+                case '\n': quoted.append("\\n"); break;
+                case '\r': quoted.append("\\r"); break;
+                case '\t': quoted.append("\\t"); break;
+                default:
+                    if (c < 0x20) quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    else quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
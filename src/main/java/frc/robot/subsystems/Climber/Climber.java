@@ -1,15 +1,29 @@
 package frc.robot.subsystems.Climber;
 
+import static edu.wpi.first.units.Units.Centimeters;
+
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.units.Distance;
 import edu.wpi.first.units.Measure;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import lib.team3526.utils.LoopProfiler;
 
 public class Climber extends SubsystemBase {
+  private final LoopProfiler.Section loopProfiler;
   ClimberIO io;
   ClimberIOInputsAutoLogged inputs = new ClimberIOInputsAutoLogged();
+  String inputsKey;
 
-  public Climber(ClimberIO io) {
+  /**
+   * Create a climber
+   * @param io
+   * @param name Name of the climber in the log (e.g. "LeftClimber")
+   */
+  public Climber(ClimberIO io, String name) {
     this.io = io;
+    this.inputsKey = name;
+    this.loopProfiler = LoopProfiler.subsystem(name);
   }
 
   /**
@@ -46,7 +60,7 @@ public class Climber extends SubsystemBase {
    * @return
    */
   public Measure<Distance> getExtension() {
-    return io.getExtension();
+    return Centimeters.of(inputs.extensionCentimeters);
   }
 
   /**
@@ -54,7 +68,7 @@ public class Climber extends SubsystemBase {
    * @return
    */
   public double getCurrent() {
-    return io.getCurrent();
+    return inputs.current;
   }
 
   /**
@@ -74,7 +88,11 @@ public class Climber extends SubsystemBase {
 
   @Override
   public void periodic() {
+    loopProfiler.begin();
     io.periodic();
     io.updateInputs(inputs);
+    Logger.processInputs(inputsKey, inputs);
+
+    loopProfiler.end();
   }
 }
@@ -2,29 +2,25 @@ package frc.robot.subsystems.Climber;
 
 import org.littletonrobotics.junction.AutoLog;
 
-import edu.wpi.first.units.Distance;
-import edu.wpi.first.units.Measure;
-
 public interface ClimberIO {
     @AutoLog
     class ClimberIOInputs {
         double speed;
         double current;
+        double extensionCentimeters;
     }
 
-    Measure<Distance> getExtension();
-    double getCurrent();
-    void resetEncoder();
+    default void resetEncoder() {};
 
-    void set(double speed);
+    default void set(double speed) {};
 
-    void setClimberUp();
-    void setClimberDown();
+    default void setClimberUp() {};
+    default void setClimberDown() {};
 
-    void setClimberHold();
+    default void setClimberHold() {};
 
-    void stop();
+    default void stop() {};
 
-    void updateInputs(ClimberIOInputs inputs);
+    default void updateInputs(ClimberIOInputs inputs) {};
     public default void periodic() {};
 }
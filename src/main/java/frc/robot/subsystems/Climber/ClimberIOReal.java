@@ -1,14 +1,10 @@
 package frc.robot.subsystems.Climber;
 
-import static edu.wpi.first.units.Units.Centimeters;
-
 import org.littletonrobotics.junction.Logger;
 
 import com.revrobotics.RelativeEncoder;
 import com.revrobotics.CANSparkLowLevel.MotorType;
 
-import edu.wpi.first.units.Distance;
-import edu.wpi.first.units.Measure;
 import frc.robot.Constants;
 import lib.team3526.control.LazyCANSparkMax;
 
@@ -19,7 +15,7 @@ public class ClimberIOReal implements ClimberIO {
 
     public ClimberIOReal(int motorID, String name) {
         this.name = name;
-        this.climberMotor = new LazyCANSparkMax(motorID, MotorType.kBrushless);
+        this.climberMotor = new LazyCANSparkMax(motorID, MotorType.kBrushless, Constants.CAN.kClimberRole);
         this.climberEncoder = this.climberMotor.getEncoder();
         //this.climberEncoder.setPositionConversionFactor(Constants.Climber.kClimber_RotationToCentimeters);
         //this.climberEncoder.setInverted(true);
@@ -45,10 +41,6 @@ public class ClimberIOReal implements ClimberIO {
         climberMotor.set(0);
     }
 
-    public Measure<Distance> getExtension() {
-        return Centimeters.of(this.climberEncoder.getPosition());
-    }
-
     public void resetEncoder() {
         climberEncoder.setPosition(0);
     }
@@ -56,9 +48,6 @@ public class ClimberIOReal implements ClimberIO {
     public void updateInputs(ClimberIOInputs inputs) {
         inputs.speed = climberMotor.get();
         inputs.current = climberMotor.getOutputCurrent();
-    }
-
-    public double getCurrent() {
-        return climberMotor.getOutputCurrent();
+        inputs.extensionCentimeters = climberEncoder.getPosition();
     }
 }
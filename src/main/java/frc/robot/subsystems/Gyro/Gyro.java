@@ -8,11 +8,17 @@ import org.littletonrobotics.junction.Logger;
 
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import lib.team3526.utils.LoopProfiler;
 
 public class Gyro extends SubsystemBase implements GyroIO {
+  private final LoopProfiler.Section loopProfiler = LoopProfiler.subsystem("Gyro");
   GyroIO io;
   GyroIOInputsAutoLogged inputs = new GyroIOInputsAutoLogged();
 
+  // * Heading from the inputs (only allocated when the yaw changes)
+  Rotation2d heading = new Rotation2d();
+  double headingYaw = 0;
+
   /**
    * Creates a new Gyro. 
    **/
@@ -25,7 +31,7 @@ public class Gyro extends SubsystemBase implements GyroIO {
    * @return
    */
   public double getPitch() {
-    return io.getPitch();
+    return inputs.pitch;
   }
 
   /**
@@ -33,7 +39,7 @@ public class Gyro extends SubsystemBase implements GyroIO {
    * @return
    */
   public double getYaw() {
-    return io.getYaw();
+    return inputs.yaw;
   }
 
   /**
@@ -41,7 +47,7 @@ public class Gyro extends SubsystemBase implements GyroIO {
    * @return
    */
   public double getRoll() {
-    return io.getRoll();
+    return inputs.roll;
   }
 
   /**
@@ -49,7 +55,7 @@ public class Gyro extends SubsystemBase implements GyroIO {
    * @return
    */ 
   public double getPitchVelocity() {
-    return io.getPitchVelocity();
+    return inputs.pitchVelocity;
   }
 
   /**
@@ -57,7 +63,7 @@ public class Gyro extends SubsystemBase implements GyroIO {
    * @return
    */
   public double getYawVelocity() {
-    return io.getYawVelocity();
+    return inputs.yawVelocity;
   }
 
   /**
@@ -65,7 +71,7 @@ public class Gyro extends SubsystemBase implements GyroIO {
    * @return
    */
   public double getRollVelocity() {
-    return io.getRollVelocity();
+    return inputs.rollVelocity;
   }
 
   /**
@@ -73,7 +79,7 @@ public class Gyro extends SubsystemBase implements GyroIO {
    * @return
    */
   public double getAccelerationX() {
-    return io.getAccelerationX();
+    return inputs.accelerationX;
   }
 
   /**
@@ -81,7 +87,7 @@ public class Gyro extends SubsystemBase implements GyroIO {
    * @return
    */
   public double getAccelerationY() {
-    return io.getAccelerationY();
+    return inputs.accelerationY;
   }
 
   /**
@@ -89,11 +95,27 @@ public class Gyro extends SubsystemBase implements GyroIO {
    * @return
    */
   public double getAccelerationZ() {
-    return io.getAccelerationZ();
+    return inputs.accelerationZ;
+  }
+
+  /**
+   * Gets the yaw of the gyro for the odometry thread.
+   * @return
+   */
+  public double getOdometryYaw() {
+    return io.getOdometryYaw();
   }
 
+  /**
+   * Gets the heading of the robot (counter-clockwise positive).
+   * @return
+   */
   public Rotation2d getHeading() {
-    return io.getHeading();
+    if (inputs.yaw != headingYaw) {
+      heading = Rotation2d.fromDegrees(inputs.yaw);
+      headingYaw = inputs.yaw;
+    }
+    return heading;
   }
 
   /**
@@ -101,19 +123,26 @@ public class Gyro extends SubsystemBase implements GyroIO {
    */
   public void reset() {
     io.reset();
+    // Don't wait for the next loop to see the new yaw
+    inputs.yaw = 0;
   }
 
   public void setYaw(double yawDeg) {
     io.setYaw(yawDeg);
+    inputs.yaw = yawDeg;
   }
 
   @Override
   public void periodic() {
+    loopProfiler.begin();
     io.periodic();
     io.updateInputs(inputs);
+    Logger.processInputs("Gyro", inputs);
 
     Logger.recordOutput("Gyro/Pitch", getPitch());
     Logger.recordOutput("Gyro/Yaw", getYaw());
     Logger.recordOutput("Gyro/Roll", getRoll());
+
+    loopProfiler.end();
   }
 }
@@ -18,29 +18,53 @@ public interface GyroIO {
         double accelerationX;
         double accelerationY;
         double accelerationZ;
+    }
 
-        double velocityX;
-        double velocityY;
-        double velocityZ;
+    default double getPitch() {
+        return 0;
+    }
+    default double getYaw() {
+        return 0;
+    }
+    default double getRoll() {
+        return 0;
     }
 
-    double getPitch();
-    double getYaw();
-    double getRoll();
+    default double getPitchVelocity() {
+        return 0;
+    }
+    default double getYawVelocity() {
+        return 0;
+    }
+    default double getRollVelocity() {
+        return 0;
+    }
 
-    double getPitchVelocity();
-    double getYawVelocity();
-    double getRollVelocity();
+    default double getAccelerationX() {
+        return 0;
+    }
+    default double getAccelerationY() {
+        return 0;
+    }
+    default double getAccelerationZ() {
+        return 0;
+    }
 
-    double getAccelerationX();
-    double getAccelerationY();
-    double getAccelerationZ();
+    default Rotation2d getHeading() {
+        return Rotation2d.fromDegrees(getYaw());
+    }
 
-    Rotation2d getHeading();
+    /**
+     * Get the yaw for the odometry thread (called from outside the main loop).
+     * Implementations must be safe to call concurrently with the other getters.
+     */
+    default double getOdometryYaw() {
+        return getYaw();
+    }
 
-    void reset();
+    default void reset() {};
     
-    void setYaw(double yawDeg);
+    default void setYaw(double yawDeg) {};
 
     default void updateInputs(GyroIOInputs inputs) {};
 
@@ -1,51 +1,88 @@
 package frc.robot.subsystems.Gyro;
 
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.hardware.Pigeon2;
 
 import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.Constants;
 import lib.team3526.constants.CTRECANDevice;
+import lib.team3526.control.PhoenixSignalRegistry;
 
 public class GyroIOPigeon implements GyroIO {
     public Pigeon2 gyro;
 
+    // * Status signals (refreshed by the PhoenixSignalRegistry once per loop)
+    private final StatusSignal<Double> yaw;
+    private final StatusSignal<Double> pitch;
+    private final StatusSignal<Double> roll;
+    private final StatusSignal<Double> angularVelocityX;
+    private final StatusSignal<Double> angularVelocityZ;
+    private final StatusSignal<Double> accelerationX;
+    private final StatusSignal<Double> accelerationY;
+    private final StatusSignal<Double> accelerationZ;
+
+    // * Yaw signal owned by the odometry thread (StatusSignal objects are not thread safe)
+    private final StatusSignal<Double> odometryYaw;
+
     public GyroIOPigeon(CTRECANDevice device) {
         gyro = new Pigeon2(device.getDeviceID(), device.getCanbus());
+
+        yaw = gyro.getYaw();
+        pitch = gyro.getPitch();
+        roll = gyro.getRoll();
+        angularVelocityX = gyro.getAngularVelocityXWorld();
+        angularVelocityZ = gyro.getAngularVelocityZWorld();
+        accelerationX = gyro.getAccelerationX();
+        accelerationY = gyro.getAccelerationY();
+        accelerationZ = gyro.getAccelerationZ();
+
+        odometryYaw = gyro.getYaw().clone();
+
+        PhoenixSignalRegistry.register(Constants.SwerveDrive.Odometry.kFrequencyHz, yaw);
+        PhoenixSignalRegistry.register(Constants.CAN.kStatusSignalFrequencyHz, pitch, roll, angularVelocityX, angularVelocityZ, accelerationX, accelerationY, accelerationZ);
+
+        // Stop every signal that was not registered
+        gyro.optimizeBusUtilization();
     }
 
     public double getPitch() {
-        return gyro.getPitch().refresh().getValue();
+        return pitch.getValue();
     }
 
     public double getYaw() {
-        return -gyro.getAngle();
+        return yaw.getValue();
+    }
+
+    public double getOdometryYaw() {
+        return odometryYaw.refresh().getValue();
     }
 
     public double getRoll() {
-        return gyro.getRoll().refresh().getValue();
+        return roll.getValue();
     }
 
     public double getPitchVelocity() {
-        return gyro.getAngularVelocityXWorld().refresh().getValue();
+        return angularVelocityX.getValue();
     }
 
     public double getYawVelocity() {
-        return gyro.getRate();
+        return -angularVelocityZ.getValue();
     }
 
     public double getRollVelocity() {
-        return gyro.getAngularVelocityZWorld().refresh().getValue();
+        return angularVelocityZ.getValue();
     }
 
     public double getAccelerationX() {
-        return gyro.getAccelerationX().refresh().getValue();
+        return accelerationX.getValue();
     }
 
     public double getAccelerationY() {
-        return gyro.getAccelerationY().refresh().getValue();
+        return accelerationY.getValue();
     }
 
     public double getAccelerationZ() {
-        return gyro.getAccelerationZ().refresh().getValue();
+        return accelerationZ.getValue();
     }
 
     public Rotation2d getHeading() {
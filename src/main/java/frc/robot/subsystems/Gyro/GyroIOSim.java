@@ -0,0 +1,75 @@
+package frc.robot.subsystems.Gyro;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Simulated gyro, the yaw is integrated by the simulated drivetrain from the module kinematics
+ */
+public class GyroIOSim implements GyroIO {
+    // * Written by the main loop, read by the odometry thread
+    private volatile double yaw = 0;
+    private volatile double yawVelocity = 0;
+
+    /**
+     * Advance the simulated yaw
+     * @param yawVelocityDegPerSec Counter-clockwise positive
+     * @param dtSeconds
+     */
+    public void integrate(double yawVelocityDegPerSec, double dtSeconds) {
+        this.yawVelocity = yawVelocityDegPerSec;
+        this.yaw = this.yaw + yawVelocityDegPerSec * dtSeconds;
+    }
+
+    public double getPitch() {
+        return 0;
+    }
+
+    public double getYaw() {
+        return yaw;
+    }
+
+    public double getRoll() {
+        return 0;
+    }
+
+    public double getPitchVelocity() {
+        return 0;
+    }
+
+    public double getYawVelocity() {
+        return yawVelocity;
+    }
+
+    public double getRollVelocity() {
+        return 0;
+    }
+
+    public double getAccelerationX() {
+        return 0;
+    }
+
+    public double getAccelerationY() {
+        return 0;
+    }
+
+    public double getAccelerationZ() {
+        return 0;
+    }
+
+    public Rotation2d getHeading() {
+        return Rotation2d.fromDegrees(getYaw());
+    }
+
+    public void reset() {
+        this.yaw = 0;
+    }
+
+    public void setYaw(double yawDeg) {
+        this.yaw = yawDeg;
+    }
+
+    public void updateInputs(GyroIOInputs inputs) {
+        inputs.yaw = getYaw();
+        inputs.yawVelocity = getYawVelocity();
+    }
+}
@@ -1,10 +1,14 @@
 package frc.robot.subsystems.IntakeLifter;
 
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.units.Angle;
 import edu.wpi.first.units.Measure;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import lib.team3526.utils.LoopProfiler;
 
 public class IntakeLifter extends SubsystemBase {
+  private final LoopProfiler.Section loopProfiler = LoopProfiler.subsystem("IntakeLifter");
   private final IntakeLifterIO io;
   private final IntakeLifterIOInputsAutoLogged inputs = new IntakeLifterIOInputsAutoLogged();
 
@@ -25,7 +29,7 @@ public class IntakeLifter extends SubsystemBase {
    * @return the angle of the lifter
    */
   public double getLifterAngleRadians() {
-    return io.getLifterAngleRadians();
+    return inputs.lifterAngle;
   }
 
   /**
@@ -37,7 +41,11 @@ public class IntakeLifter extends SubsystemBase {
 
   @Override
   public void periodic() {
+    loopProfiler.begin();
     io.periodic();
     io.updateInputs(inputs);
+    Logger.processInputs("IntakeLifter", inputs);
+
+    loopProfiler.end();
   }
 }
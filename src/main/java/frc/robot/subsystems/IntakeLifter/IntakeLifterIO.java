@@ -9,13 +9,13 @@ public interface IntakeLifterIO {
     @AutoLog
     class IntakeLifterIOInputs {
         double lifterAngle;
-        Measure<Angle> desiredAngle;
+        double desiredAngle;
+        double appliedOutput;
     }
 
-    public void setLifterAngle(Measure<Angle> angleDeg);
-    public double getLifterAngleRadians();
-    public void stopLifter();
+    public default void setLifterAngle(Measure<Angle> angleDeg) {}
+    public default void stopLifter() {}
 
-    public void updateInputs(IntakeLifterIOInputs inputs);
+    public default void updateInputs(IntakeLifterIOInputs inputs) {}
     public default void periodic() {};
 }
@@ -13,7 +13,9 @@ import edu.wpi.first.units.Measure;
 import edu.wpi.first.wpilibj.DutyCycleEncoder;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.Constants;
+import lib.team3526.constants.SparkConfig;
 import lib.team3526.control.LazyCANSparkMax;
+import lib.team3526.control.SparkConfigCache;
 
 public class IntakeLifterIOReal implements IntakeLifterIO {
     private final LazyCANSparkMax lifterMotor;
@@ -23,8 +25,8 @@ public class IntakeLifterIOReal implements IntakeLifterIO {
     private Measure<Angle> desiredAngle = Degrees.of(0.0);
 
     public IntakeLifterIOReal() {
-        this.lifterMotor = new LazyCANSparkMax(Constants.Intake.kLifterMotorID, MotorType.kBrushless);
-        this.lifterMotor.setInverted(true);
+        this.lifterMotor = new LazyCANSparkMax(Constants.Intake.kLifterMotorID, MotorType.kBrushless, Constants.CAN.kLifterRole);
+        SparkConfigCache.apply(this.lifterMotor, new SparkConfig().setInverted(true));
         this.lifterMotorPID = Constants.Intake.kLifterPIDController;
         this.lifterEncoder = new DutyCycleEncoder(Constants.Intake.kLifterEncoderPort);
     }
@@ -59,5 +61,7 @@ public class IntakeLifterIOReal implements IntakeLifterIO {
 
     public void updateInputs(IntakeLifterIOInputs inputs) {
         inputs.lifterAngle = this.getLifterAngleRadians();
+        inputs.desiredAngle = this.desiredAngle.in(Radians);
+        inputs.appliedOutput = this.lifterMotor.getAppliedOutput();
     }
 }
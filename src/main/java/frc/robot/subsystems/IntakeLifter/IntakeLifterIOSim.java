@@ -1,14 +1,20 @@
 package frc.robot.subsystems.IntakeLifter;
 
+import static edu.wpi.first.units.Units.Radians;
+
 import edu.wpi.first.units.Angle;
 import edu.wpi.first.units.Measure;
 
 public class IntakeLifterIOSim implements IntakeLifterIO {
-    public void setLifterSpeed(double speed) {}
-    public void setLifterAngle(Measure<Angle> angleDeg) {}
-    public double getLifterAngleRadians() { return 0; }
-    public void stopLifter() {}
+    // * The simulated lifter reaches its target instantly
+    double desiredAngle = 0;
+
+    public void setLifterAngle(Measure<Angle> angleDeg) {
+        this.desiredAngle = angleDeg.in(Radians);
+    }
 
-    public void updateInputs(IntakeLifterIOInputs inputs) {}
-    public void periodic() {}
+    public void updateInputs(IntakeLifterIOInputs inputs) {
+        inputs.lifterAngle = this.desiredAngle;
+        inputs.desiredAngle = this.desiredAngle;
+    }
 }
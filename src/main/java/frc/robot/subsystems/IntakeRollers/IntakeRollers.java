@@ -1,11 +1,15 @@
 package frc.robot.subsystems.IntakeRollers;
 
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.units.Angle;
 import edu.wpi.first.units.Measure;
 import edu.wpi.first.units.Velocity;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import lib.team3526.utils.LoopProfiler;
 
 public class IntakeRollers extends SubsystemBase {
+  private final LoopProfiler.Section loopProfiler = LoopProfiler.subsystem("IntakeRollers");
   public final IntakeRollersIO io;
   public final IntakeRollersIOInputsAutoLogged inputs = new IntakeRollersIOInputsAutoLogged();
 
@@ -50,16 +54,20 @@ public class IntakeRollers extends SubsystemBase {
   }
 
   public double getRollersSpeed() {
-    return io.getRollersSpeed();
+    return inputs.rollersRpm;
   }
 
   public boolean hasPiece() {
-    return io.hasPiece();
+    return inputs.hasPiece;
   }
 
   @Override
   public void periodic() {
+    loopProfiler.begin();
     io.periodic();
     io.updateInputs(inputs);
+    Logger.processInputs("IntakeRollers", inputs);
+
+    loopProfiler.end();
   }
 }
@@ -9,26 +9,28 @@ import edu.wpi.first.units.Velocity;
 public interface IntakeRollersIO {
     @AutoLog
     class IntakeRollersIOInputs {
+        double rollersRpm;
+        double targetRpm;
+        double appliedOutput;
+        double current;
 
+        boolean isIntaking;
+        boolean hasPiece;
     }
 
-    public void setRollersOut();
-    public void setRollersIn();
-    public void giveToShooter();
+    public default void setRollersOut() {}
+    public default void setRollersIn() {}
+    public default void giveToShooter() {}
 
-    public void setRollersSpeed(double speed);
-    public void setRollersSpeedRpm(Measure<Velocity<Angle>> rpm);
+    public default void setRollersSpeed(double speed) {}
+    public default void setRollersSpeedRpm(Measure<Velocity<Angle>> rpm) {}
 
-    public void setRollersHold();
-    public void stop();
+    public default void setRollersHold() {}
+    public default void stop() {}
 
-    public void setRollersCoast();
-    public void setRollersBrake();
+    public default void setRollersCoast() {}
+    public default void setRollersBrake() {}
 
-    public double getRollersSpeed();
-
-    public boolean hasPiece();
-
-    public void updateInputs(IntakeRollersIOInputs inputs);
+    public default void updateInputs(IntakeRollersIOInputs inputs) {}
     default public void periodic() {};
 }
@@ -8,19 +8,20 @@ import com.revrobotics.CANSparkBase.ControlType;
 import com.revrobotics.CANSparkBase.IdleMode;
 import com.revrobotics.CANSparkLowLevel.MotorType;
 import com.revrobotics.RelativeEncoder;
-import com.revrobotics.SparkPIDController;
 
 import edu.wpi.first.units.Angle;
 import edu.wpi.first.units.Measure;
 import edu.wpi.first.units.Velocity;
 import edu.wpi.first.wpilibj.DigitalInput;
 import frc.robot.Constants;
-import lib.team3526.constants.PIDFConstants;
+import lib.team3526.constants.SparkConfig;
 import lib.team3526.control.LazyCANSparkMax;
+import lib.team3526.control.LazySparkPID;
+import lib.team3526.control.SparkConfigCache;
 
 public class IntakeRollersIOReal implements IntakeRollersIO {
     private final LazyCANSparkMax rollersMotor;
-    private final SparkPIDController rollersMotorPID;
+    private final LazySparkPID rollersMotorPID;
     private final RelativeEncoder rollersMotorEncoder;
 
     private final DigitalInput limitSwitch;
@@ -30,9 +31,9 @@ public class IntakeRollersIOReal implements IntakeRollersIO {
     private double setRollerSpeed = 0.0;
 
     public IntakeRollersIOReal() {
-        this.rollersMotor = new LazyCANSparkMax(Constants.Intake.kintakeMotorID, MotorType.kBrushless);
-        this.rollersMotorPID = this.rollersMotor.getPIDController();
-        PIDFConstants.applyToSparkPIDController(rollersMotorPID, Constants.Intake.kIntakePIDConstants);
+        this.rollersMotor = new LazyCANSparkMax(Constants.Intake.kintakeMotorID, MotorType.kBrushless, Constants.CAN.kRollerRole);
+        this.rollersMotorPID = new LazySparkPID(this.rollersMotor);
+        SparkConfigCache.apply(this.rollersMotor, new SparkConfig().setPID(Constants.Intake.kIntakePIDConstants));
         this.rollersMotorEncoder = this.rollersMotor.getEncoder();
 
         this.limitSwitch = new DigitalInput(Constants.Intake.kLimitSwitchPort);
@@ -81,15 +82,13 @@ public class IntakeRollersIOReal implements IntakeRollersIO {
         this.rollersMotor.setIdleMode(IdleMode.kBrake);
     }
 
-    public double getRollersSpeed() {
-        return this.rollersMotorEncoder.getVelocity();
-    }
-
-    public boolean hasPiece() {
-        return !this.limitSwitch.get();
-    }
-
     public void updateInputs(IntakeRollersIOInputs inputs) {
-        
+        inputs.rollersRpm = this.rollersMotorEncoder.getVelocity();
+        inputs.targetRpm = this.setRollerSpeed;
+        inputs.appliedOutput = this.rollersMotor.getAppliedOutput();
+        inputs.current = this.rollersMotor.getOutputCurrent();
+
+        inputs.isIntaking = this.isIntaking;
+        inputs.hasPiece = !this.limitSwitch.get();
     }
 }
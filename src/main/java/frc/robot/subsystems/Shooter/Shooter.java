@@ -1,8 +1,12 @@
 package frc.robot.subsystems.Shooter;
 
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import lib.team3526.utils.LoopProfiler;
 
 public class Shooter extends SubsystemBase {
+  private final LoopProfiler.Section loopProfiler = LoopProfiler.subsystem("Shooter");
   ShooterIOInputsAutoLogged inputs = new ShooterIOInputsAutoLogged();
   ShooterIO io;
 
@@ -31,19 +35,19 @@ public class Shooter extends SubsystemBase {
   }
 
   public double getLeftMotorRpm() {
-    return io.getLeftMotorRpm();
+    return inputs.leftRpm;
   }
 
   public double getRightMotorRpm() {
-    return io.getRightMotorRpm();
+    return inputs.rightRpm;
   }
 
   public double getLeftMotorPercentage() {
-    return io.getLeftMotorPercentage();
+    return inputs.leftPercentage;
   }
 
   public double getRightMotorPercentage() {
-    return io.getRightMotorPercentage();
+    return inputs.rightPercentage;
   }
 
   public void stop() {
@@ -52,7 +56,11 @@ public class Shooter extends SubsystemBase {
 
   @Override
   public void periodic() {
+    loopProfiler.begin();
     io.periodic();
     io.updateInputs(inputs);
+    Logger.processInputs("Shooter", inputs);
+
+    loopProfiler.end();
   }
 }
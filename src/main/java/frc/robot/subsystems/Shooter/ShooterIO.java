@@ -7,28 +7,24 @@ public interface ShooterIO {
     class ShooterIOInputs {
         double leftRpm;
         double leftPercentage;
-        double leftTargetRpm;
+        double leftCurrent;
         
         double rightRpm;
         double rightPercentage;
-        double rightTargetRpm;
-    }
-
-    public void setLeftMotor(double speed);
-    public void setRightMotor(double speed);
-    public void set(double leftSpeed, double rightSpeed);
-    public void set(double speed);
+        double rightCurrent;
 
-    public void shootSpeaker();
+        boolean isShooting;
+    }
 
-    public void stop();
+    public default void setLeftMotor(double speed) {}
+    public default void setRightMotor(double speed) {}
+    public default void set(double leftSpeed, double rightSpeed) {}
+    public default void set(double speed) {}
 
-    public double getLeftMotorRpm();
-    public double getRightMotorRpm();
+    public default void shootSpeaker() {}
 
-    public double getLeftMotorPercentage();
-    public double getRightMotorPercentage();
+    public default void stop() {}
 
-    public void updateInputs(ShooterIOInputs inputs);
+    public default void updateInputs(ShooterIOInputs inputs) {}
     public default void periodic() {};
 }
@@ -1,11 +1,11 @@
 package frc.robot.subsystems.Shooter;
 
-import org.littletonrobotics.junction.Logger;
-
 import com.revrobotics.RelativeEncoder;
 import com.revrobotics.CANSparkLowLevel.MotorType;
 import frc.robot.Constants;
+import lib.team3526.constants.SparkConfig;
 import lib.team3526.control.LazyCANSparkMax;
+import lib.team3526.control.SparkConfigCache;
 
 public class ShooterIOReal implements ShooterIO {
     LazyCANSparkMax leftMotor;
@@ -18,9 +18,9 @@ public class ShooterIOReal implements ShooterIO {
     boolean state;
 
     public ShooterIOReal() {
-        this.leftMotor = new LazyCANSparkMax(Constants.Shooter.kLeftShooterMotorID, MotorType.kBrushless);
-        this.rightMotor = new LazyCANSparkMax(Constants.Shooter.kRightShooterMotorID, MotorType.kBrushless);
-            this.rightMotor.setInverted(true);
+        this.leftMotor = new LazyCANSparkMax(Constants.Shooter.kLeftShooterMotorID, MotorType.kBrushless, Constants.CAN.kFlywheelRole);
+        this.rightMotor = new LazyCANSparkMax(Constants.Shooter.kRightShooterMotorID, MotorType.kBrushless, Constants.CAN.kFlywheelRole);
+        SparkConfigCache.apply(this.rightMotor, new SparkConfig().setInverted(true));
 
         this.leftEncoder = leftMotor.getEncoder();
         this.rightEncoder = rightMotor.getEncoder();
@@ -48,35 +48,20 @@ public class ShooterIOReal implements ShooterIO {
         this.set(Constants.Shooter.kShooterSpeakerSpeed);
     }
 
-    public double getLeftMotorRpm() {
-        return leftEncoder.getVelocity();
-    }
-
-    public double getRightMotorRpm() {
-        return rightEncoder.getVelocity();
-    }
-
-    public double getLeftMotorPercentage() {
-        return leftMotor.getAppliedOutput();
-    }
-
-    public double getRightMotorPercentage() {
-        return rightMotor.getAppliedOutput();
-    }
-
     public void stop() {
         this.state = false;
         set(0);
     }
 
     public void updateInputs(ShooterIOInputs inputs) {
-        inputs.leftPercentage = getLeftMotorPercentage();
-        inputs.leftRpm = getLeftMotorRpm();
-        inputs.rightPercentage = getRightMotorPercentage();
-        inputs.rightRpm = getRightMotorRpm();
-    }
+        inputs.leftRpm = leftEncoder.getVelocity();
+        inputs.leftPercentage = leftMotor.getAppliedOutput();
+        inputs.leftCurrent = leftMotor.getOutputCurrent();
+
+        inputs.rightRpm = rightEncoder.getVelocity();
+        inputs.rightPercentage = rightMotor.getAppliedOutput();
+        inputs.rightCurrent = rightMotor.getOutputCurrent();
 
-    public void periodic() {
-        Logger.recordOutput("Shooter/IsShooting", state);
+        inputs.isShooting = state;
     }
 }
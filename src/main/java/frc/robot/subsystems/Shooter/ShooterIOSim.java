@@ -1,21 +1,21 @@
 package frc.robot.subsystems.Shooter;
 
 public class ShooterIOSim implements ShooterIO {
-    public void setLeftMotor(double speed) {}
-    public void setRightMotor(double speed) {}
-    public void set(double leftSpeed, double rightSpeed) {}
-    public void set(double speed) {}
+    boolean state = false;
 
-    public void shootSpeaker() {}
+    public void set(double leftSpeed, double rightSpeed) {
+        this.state = true;
+    }
 
-    public void stop() {}
+    public void set(double speed) {
+        set(speed, speed);
+    }
 
-    public double getLeftMotorRpm() {return 0;}
-    public double getRightMotorRpm() {return 0;}
+    public void stop() {
+        this.state = false;
+    }
 
-    public double getLeftMotorPercentage() {return 0;}
-    public double getRightMotorPercentage() {return 0;}
-
-    public void updateInputs(ShooterIOInputs inputs) {}
-    public void periodic() {}
+    public void updateInputs(ShooterIOInputs inputs) {
+        inputs.isShooting = state;
+    }
 }
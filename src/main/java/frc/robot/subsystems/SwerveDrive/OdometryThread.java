@@ -0,0 +1,211 @@
+package frc.robot.subsystems.SwerveDrive;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Samples the odometry signals (module encoders and gyro yaw) at a higher rate than the main robot loop.
+ * <p>
+ * Samples are timestamped and stored in a bounded ring buffer, the main loop drains them every cycle.
+ * If the buffer fills up the oldest sample is overwritten and counted as dropped.
+ */
+public class OdometryThread {
+    /**
+     * Consumes a single odometry sample
+     */
+    @FunctionalInterface
+    public interface SampleConsumer {
+        /**
+         * @param timestamp FPGA timestamp of the sample (seconds)
+         * @param values The sampled values, in the order the signals were registered (the array is reused between calls)
+         */
+        void accept(double timestamp, double[] values);
+    }
+
+    // * A sample is late if it arrives this many periods after the previous one
+    private static final double kLateSampleFactor = 1.5;
+
+    // * Signals
+    private final DoubleSupplier[] signals;
+    private final double[] scratch;
+
+    // * Ring buffer (guarded by the lock)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int capacity;
+    private final double[] timestamps;
+    private final double[][] samples;
+    private int head = 0;
+    private int size = 0;
+
+    // * Drain buffers (main loop only)
+    private final double[] drainTimestamps;
+    private final double[][] drainSamples;
+    private final double[] drainValues;
+
+    // * Notifier
+    private final Notifier notifier;
+    private final double periodSeconds;
+
+    // * Stats
+    private volatile long sampleCount = 0;
+    private volatile long droppedSamples = 0;
+    private volatile long lateSamples = 0;
+    private double lastSampleTimestamp = 0;
+    private int lastDrainCount = 0;
+
+    /**
+     * Create a new odometry thread (call {@link #start()} to begin sampling)
+     * @param frequencyHz The sample rate
+     * @param capacity The maximum number of samples buffered between drains
+     * @param signals The signals to sample
+     */
+    public OdometryThread(double frequencyHz, int capacity, DoubleSupplier... signals) {
+        this.signals = signals;
+        this.scratch = new double[signals.length];
+
+        this.capacity = capacity;
+        this.timestamps = new double[capacity];
+        this.samples = new double[capacity][signals.length];
+
+        this.drainTimestamps = new double[capacity];
+        this.drainSamples = new double[capacity][signals.length];
+        this.drainValues = new double[signals.length];
+
+        this.periodSeconds = 1.0 / frequencyHz;
+        this.notifier = new Notifier(this::sample);
+        this.notifier.setName("OdometryThread");
+    }
+
+    /**
+     * Start sampling
+     */
+    public void start() {
+        this.notifier.startPeriodic(this.periodSeconds);
+    }
+
+    /**
+     * Stop sampling
+     */
+    public void stop() {
+        this.notifier.stop();
+    }
+
+    /**
+     * Take a sample of every signal (runs on the notifier thread)
+     */
+    private void sample() {
+        double timestamp = Timer.getFPGATimestamp();
+        for (int i = 0; i < signals.length; i++) scratch[i] = signals[i].getAsDouble();
+
+        if (lastSampleTimestamp != 0 && timestamp - lastSampleTimestamp > periodSeconds * kLateSampleFactor) lateSamples++;
+        lastSampleTimestamp = timestamp;
+        sampleCount++;
+
+        lock.lock();
+        try {
+            int index;
+            if (size == capacity) {
+                // Overwrite the oldest sample
+                index = head;
+                head = (head + 1) % capacity;
+                droppedSamples++;
+            } else {
+                index = (head + size) % capacity;
+                size++;
+            }
+
+            timestamps[index] = timestamp;
+            System.arraycopy(scratch, 0, samples[index], 0, scratch.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pass every buffered sample (oldest first) to the consumer and clear the buffer
+     * @param consumer
+     * @return The number of samples drained
+     */
+    public int drain(SampleConsumer consumer) {
+        int count;
+
+        // Copy out while holding the lock, process without it
+        lock.lock();
+        try {
+            count = size;
+            for (int i = 0; i < count; i++) {
+                int index = (head + i) % capacity;
+                drainTimestamps[i] = timestamps[index];
+                System.arraycopy(samples[index], 0, drainSamples[i], 0, drainValues.length);
+            }
+            head = 0;
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(drainSamples[i], 0, drainValues, 0, drainValues.length);
+            consumer.accept(drainTimestamps[i], drainValues);
+        }
+
+        lastDrainCount = count;
+        return count;
+    }
+
+    /**
+     * Discard every buffered sample
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            head = 0;
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the sample rate
+     * @return
+     */
+    public double getFrequencyHz() {
+        return 1.0 / this.periodSeconds;
+    }
+
+    /**
+     * Get the total number of samples taken
+     * @return
+     */
+    public long getSampleCount() {
+        return this.sampleCount;
+    }
+
+    /**
+     * Get the number of samples overwritten before the main loop could drain them
+     * @return
+     */
+    public long getDroppedSamples() {
+        return this.droppedSamples;
+    }
+
+    /**
+     * Get the number of samples that arrived later than expected
+     * @return
+     */
+    public long getLateSamples() {
+        return this.lateSamples;
+    }
+
+    /**
+     * Get the number of samples drained in the last call to {@link #drain(SampleConsumer)}
+     * @return
+     */
+    public int getLastDrainCount() {
+        return this.lastDrainCount;
+    }
+}
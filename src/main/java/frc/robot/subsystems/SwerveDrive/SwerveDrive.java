@@ -4,14 +4,21 @@
 
 package frc.robot.subsystems.SwerveDrive;
 
+import java.util.Optional;
+
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.subsystems.Vision.VisionMeasurement;
+import lib.team3526.utils.LoopProfiler;
 
 public class SwerveDrive extends SubsystemBase {
+  private final LoopProfiler.Section loopProfiler = LoopProfiler.subsystem("SwerveDrive");
   SwerveDriveIO io;
   SwerveDriveIOInputsAutoLogged inputs = new SwerveDriveIOInputsAutoLogged();
 
@@ -40,6 +47,24 @@ public class SwerveDrive extends SubsystemBase {
   public Pose2d getPose(){
     return io.getPose();
   }
+
+  /**
+   * Get the estimated pose of the robot at a past instant (e.g. a camera capture time).
+   * @param timestamp FPGA timestamp in seconds, clamped to the last ~2 seconds.
+   * @return The interpolated pose, empty if there is no history yet.
+   */
+  public Optional<Pose2d> getPoseAt(double timestamp) {
+    return io.getPoseAt(timestamp);
+  }
+
+  /**
+   * Get the field relative velocity of the robot at a past instant.
+   * @param timestamp FPGA timestamp in seconds, clamped to the last ~2 seconds.
+   * @return The velocity, empty if there is not enough history yet.
+   */
+  public Optional<ChassisSpeeds> getFieldVelocityAt(double timestamp) {
+    return io.getFieldVelocityAt(timestamp);
+  }
   public void resetOdometry(Pose2d pose){
     io.resetOdometry(pose);
   }
@@ -153,12 +178,29 @@ public class SwerveDrive extends SubsystemBase {
     io.resetEncoders();
   }
 
-  public void setVisionPose() {
-    io.setVisionPose();
+  /**
+   * Reset the odometry to a pose seen by the cameras.
+   * @param visionPose
+   */
+  public void setVisionPose(Pose2d visionPose) {
+    io.setVisionPose(visionPose);
+  }
+
+  /**
+   * Fuse a vision measurement into the pose estimator.
+   * @param measurement
+   */
+  public void addVisionMeasurement(VisionMeasurement measurement) {
+    io.addVisionMeasurement(measurement);
   }
   @Override
   public void periodic() {
-    io.periodic();
+    loopProfiler.begin();
     io.updateInputs(inputs);
+    Logger.processInputs("SwerveDrive", inputs);
+    io.updateOdometry(inputs);
+    io.periodic();
+
+    loopProfiler.end();
   }
 }
@@ -1,5 +1,7 @@
 package frc.robot.subsystems.SwerveDrive;
 
+import java.util.Optional;
+
 import org.littletonrobotics.junction.AutoLog;
 
 import edu.wpi.first.math.geometry.Pose2d;
@@ -7,15 +9,24 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.subsystems.Vision.VisionMeasurement;
 
 public interface SwerveDriveIO {
     @AutoLog
     class SwerveDriveIOInputs {
+        // Gyro heading (rad)
         double heading;
 
+        // Measured robot relative speeds (m/s, rad/s)
         double xSpeed;
         double ySpeed;
         double rotSpeed;
+
+        // Odometry thread samples taken since the last cycle (oldest first, four modules per sample)
+        double[] odometryTimestamps = new double[0];
+        double[] odometryYaws = new double[0];
+        double[] odometryDrivePositions = new double[0];
+        double[] odometryTurnAngles = new double[0];
     }
 
     public void configureAutoBuilder(SwerveDrive swerveDrive);
@@ -25,6 +36,8 @@ public interface SwerveDriveIO {
 
     public void resetPose();
     public Pose2d getPose();
+    public Optional<Pose2d> getPoseAt(double timestamp);
+    public Optional<ChassisSpeeds> getFieldVelocityAt(double timestamp);
     public void resetOdometry(Pose2d pose);
 
     public ChassisSpeeds getRobotRelativeChassisSpeeds();
@@ -51,8 +64,10 @@ public interface SwerveDriveIO {
     public  void resetDriveEncoders();
     public void resetEncoders();
 
-    public void setVisionPose();
+    public void setVisionPose(Pose2d visionPose);
+    public void addVisionMeasurement(VisionMeasurement measurement);
 
     public default void updateInputs(SwerveDriveIOInputs inputs) {};
+    public default void updateOdometry(SwerveDriveIOInputs inputs) {}
     public default void periodic() {}
 }
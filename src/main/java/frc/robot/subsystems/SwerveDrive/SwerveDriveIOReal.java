@@ -13,18 +13,22 @@ import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import frc.robot.Constants;
-import frc.robot.LimelightHelpers;
-import frc.robot.LimelightHelpers.LimelightResults;
 import frc.robot.subsystems.Gyro.Gyro;
 import frc.robot.subsystems.SwerveModule.SwerveModule;
+import frc.robot.subsystems.Vision.VisionMeasurement;
+import lib.team3526.auto.CachedAutoBuilder;
+import lib.team3526.logging.LogRate;
+import lib.team3526.logging.Telemetry;
+import lib.team3526.math.PoseHistory;
 import lib.team3526.math.RotationalInertiaAccumulator;
 import static edu.wpi.first.units.Units.Meters;
 import static edu.wpi.first.units.Units.MetersPerSecond;
 
-import org.littletonrobotics.junction.Logger;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
 
 public class SwerveDriveIOReal implements SwerveDriveIO {
     // * Swerve Modules
@@ -39,6 +43,34 @@ public class SwerveDriveIOReal implements SwerveDriveIO {
     // * Odometry
     SwerveDrivePoseEstimator odometry;
 
+    // * Odometry thread
+    // Signal layout: [drive position (m), angle (rad)] for each module, then gyro yaw (deg)
+    private static final int kYawSignal = 8;
+    OdometryThread odometryThread;
+    final SwerveModulePosition[] odometryPositions = new SwerveModulePosition[]{
+        new SwerveModulePosition(),
+        new SwerveModulePosition(),
+        new SwerveModulePosition(),
+        new SwerveModulePosition()
+    };
+    final double[] odometryAngles = new double[4];
+
+    // * Odometry samples drained this cycle (copied into the inputs so they can be replayed)
+    final double[] drainedTimestamps = new double[Constants.SwerveDrive.Odometry.kBufferSize];
+    final double[] drainedYaws = new double[Constants.SwerveDrive.Odometry.kBufferSize];
+    final double[] drainedDrivePositions = new double[Constants.SwerveDrive.Odometry.kBufferSize * 4];
+    final double[] drainedTurnAngles = new double[Constants.SwerveDrive.Odometry.kBufferSize * 4];
+    int drainedCount = 0;
+    final OdometryThread.SampleConsumer odometrySampleConsumer = this::collectOdometrySample;
+
+    // * Pose history (filled with the estimated pose of every odometry sample)
+    final PoseHistory poseHistory = new PoseHistory(Constants.SwerveDrive.Odometry.kHistorySize);
+
+    // * Reused module state arrays (avoid allocating every loop)
+    final SwerveModuleState[] moduleRealStates = new SwerveModuleState[4];
+    final SwerveModuleState[] moduleTargetStates = new SwerveModuleState[4];
+    final SwerveModulePosition[] modulePositions = new SwerveModulePosition[4];
+
     // * Speed stats
     boolean drivingRobotRelative = false;
     ChassisSpeeds speeds = new ChassisSpeeds();
@@ -46,7 +78,29 @@ public class SwerveDriveIOReal implements SwerveDriveIO {
     // * Rotational Inertia Accumulator
     RotationalInertiaAccumulator rotationalInertiaAccumulator = new RotationalInertiaAccumulator(Constants.SwerveDrive.PhysicalModel.kRobotMassKg);
 
+    // * Telemetry (keys are built once)
+    final Telemetry telemetry = new Telemetry("SwerveDrive");
+    final Telemetry.DoubleSignal headingRadSignal = telemetry.doubleSignal("RobotHeadingRad", LogRate.kEveryLoop);
+    final Telemetry.DoubleSignal headingDegSignal = telemetry.doubleSignal("RobotHeadingDeg", LogRate.kEveryLoop);
+    final Telemetry.DoubleSignal rotationalInertiaSignal = telemetry.doubleSignal("RobotRotationalInertia", LogRate.everyNLoops(5));
+    final Telemetry.StructSignal<Pose2d> poseSignal = telemetry.structSignal("RobotPose", Pose2d.struct, LogRate.kEveryLoop);
+    final Telemetry.LongSignal samplesPerCycleSignal = telemetry.longSignal("Odometry/SamplesPerCycle", LogRate.kEveryLoop);
+    final Telemetry.LongSignal sampleCountSignal = telemetry.longSignal("Odometry/SampleCount", LogRate.everyNLoops(50));
+    final Telemetry.LongSignal droppedSamplesSignal = telemetry.longSignal("Odometry/DroppedSamples", LogRate.kOnChange);
+    final Telemetry.LongSignal lateSamplesSignal = telemetry.longSignal("Odometry/LateSamples", LogRate.kOnChange);
+    final Telemetry.BooleanSignal robotRelativeSignal = telemetry.booleanSignal("RobotRelative", LogRate.kOnChange);
+    final Telemetry.StructSignal<ChassisSpeeds> robotSpeedsSignal = telemetry.structSignal("RobotSpeeds", ChassisSpeeds.struct, LogRate.kEveryLoop);
+    final Telemetry.StructArraySignal<SwerveModuleState> moduleRealStatesSignal = telemetry.structArraySignal("ModuleRealStates", SwerveModuleState.struct, 4, LogRate.kEveryLoop);
+    final Telemetry.StructArraySignal<SwerveModuleState> moduleTargetStatesSignal = telemetry.structArraySignal("ModuleTargetStates", SwerveModuleState.struct, 4, LogRate.kOnChange);
+
     public SwerveDriveIOReal(SwerveModule frontLeft, SwerveModule frontRight, SwerveModule backLeft, SwerveModule backRight, Gyro gyro) {
+        this(frontLeft, frontRight, backLeft, backRight, gyro, true);
+    }
+
+    /**
+     * @param useOdometryThread False when the odometry samples come from somewhere else (log replay)
+     */
+    protected SwerveDriveIOReal(SwerveModule frontLeft, SwerveModule frontRight, SwerveModule backLeft, SwerveModule backRight, Gyro gyro, boolean useOdometryThread) {
         // Swerve Modules
         this.frontLeft = frontLeft;
         this.frontRight = frontRight;
@@ -73,28 +127,59 @@ public class SwerveDriveIOReal implements SwerveDriveIO {
         
         // Reset gyro
         this.gyro.reset();
+
+        // Odometry thread
+        if (!useOdometryThread) return;
+        this.odometryThread = new OdometryThread(
+            Constants.SwerveDrive.Odometry.kFrequencyHz,
+            Constants.SwerveDrive.Odometry.kBufferSize,
+            frontLeft::getOdometryDrivePosition,
+            frontLeft::getOdometryAngleRadians,
+            frontRight::getOdometryDrivePosition,
+            frontRight::getOdometryAngleRadians,
+            backLeft::getOdometryDrivePosition,
+            backLeft::getOdometryAngleRadians,
+            backRight::getOdometryDrivePosition,
+            backRight::getOdometryAngleRadians,
+            gyro::getOdometryYaw
+        );
+        this.odometryThread.start();
     }
 
     /**
      * Configure the auto builder for PathPlanner
      */
     public void configureAutoBuilder(SwerveDrive swerveDrive) {
+        HolonomicPathFollowerConfig config = new HolonomicPathFollowerConfig(
+            Constants.SwerveDrive.Autonomous.kTranslatePIDConstants,
+            Constants.SwerveDrive.Autonomous.kRotatePIDConstants,
+            Constants.SwerveDrive.Autonomous.kMaxSpeedMetersPerSecond.in(MetersPerSecond),
+            Constants.SwerveDrive.PhysicalModel.kWheelBase.in(Meters) / 2,
+            new ReplanningConfig(true, true)
+        );
+        BooleanSupplier shouldFlipPath = () -> {
+            if (DriverStation.getAlliance().isPresent()) return DriverStation.getAlliance().get() == Alliance.Red;
+            return false;
+        };
+
         AutoBuilder.configureHolonomic(
             this::getPose,
             this::resetOdometry,
             this::getRobotRelativeChassisSpeeds,
             this::driveRobotRelative,
-            new HolonomicPathFollowerConfig(
-                Constants.SwerveDrive.Autonomous.kTranslatePIDConstants,
-                Constants.SwerveDrive.Autonomous.kRotatePIDConstants,
-                Constants.SwerveDrive.Autonomous.kMaxSpeedMetersPerSecond.in(MetersPerSecond),
-                Constants.SwerveDrive.PhysicalModel.kWheelBase.in(Meters) / 2,
-                new ReplanningConfig(true, true)
-            ),
-            () -> {
-                if (DriverStation.getAlliance().isPresent()) return DriverStation.getAlliance().get() == Alliance.Red;
-                return false;
-            },
+            config,
+            shouldFlipPath,
+            swerveDrive
+        );
+
+        // Autos follow the pre-generated trajectories (AutoBuilder is still used when a path has to be generated)
+        CachedAutoBuilder.configure(
+            this::getPose,
+            this::resetOdometry,
+            this::getRobotRelativeChassisSpeeds,
+            this::driveRobotRelative,
+            config,
+            shouldFlipPath,
             swerveDrive
         );
     }
@@ -121,8 +206,30 @@ public class SwerveDriveIOReal implements SwerveDriveIO {
         return odometry.getEstimatedPosition();
     }
 
-    public void setVisionPose() {
-        odometry.resetPosition(getHeading(), getModulePositions(), LimelightHelpers.getBotPose2d_wpiBlue(Constants.Vision.kLimelightName));
+    /**
+     * Get the estimated pose of the robot at a past timestamp (interpolated from the pose history)
+     * @param timestamp FPGA timestamp (seconds)
+     * @return
+     */
+    public Optional<Pose2d> getPoseAt(double timestamp) {
+        return poseHistory.getPoseAt(timestamp);
+    }
+
+    /**
+     * Get the field relative velocity of the robot at a past timestamp (from the pose history)
+     * @param timestamp FPGA timestamp (seconds)
+     * @return
+     */
+    public Optional<ChassisSpeeds> getFieldVelocityAt(double timestamp) {
+        return poseHistory.getVelocityAt(timestamp);
+    }
+
+    /**
+     * Reset the pose of the robot to a pose seen by the cameras
+     * @param visionPose
+     */
+    public void setVisionPose(Pose2d visionPose) {
+        resetOdometry(visionPose);
     }
 
     /**
@@ -137,7 +244,9 @@ public class SwerveDriveIOReal implements SwerveDriveIO {
      * @param pose
      */
     public void resetOdometry(Pose2d pose) {
+        this.discardOdometrySamples();
         odometry.resetPosition(this.getHeading(), getModulePositions(), pose);
+        this.poseHistory.clear();
     }
 
     public ChassisSpeeds getRobotRelativeChassisSpeeds() {
@@ -146,43 +255,39 @@ public class SwerveDriveIOReal implements SwerveDriveIO {
     }
 
     /**
-     * Get the target module states
+     * Get the target module states (the returned array is reused between calls)
      * @return
      */
     public SwerveModuleState[] getModuleTargetStates() {
-        return new SwerveModuleState[]{
-            frontLeft.getTargetState(),
-            frontRight.getTargetState(),
-            backLeft.getTargetState(),
-            backRight.getTargetState()
-        };
+        moduleTargetStates[0] = frontLeft.getTargetState();
+        moduleTargetStates[1] = frontRight.getTargetState();
+        moduleTargetStates[2] = backLeft.getTargetState();
+        moduleTargetStates[3] = backRight.getTargetState();
+        return moduleTargetStates;
     }
 
     /**
-     * Get the real module states
+     * Get the real module states (the returned array is reused between calls)
      * @return
      */
     public SwerveModuleState[] getModuleRealStates() {
-        return new SwerveModuleState[]{
-            frontLeft.getRealState(),
-            frontRight.getRealState(),
-            backLeft.getRealState(),
-            backRight.getRealState()
-        };
+        moduleRealStates[0] = frontLeft.getRealState();
+        moduleRealStates[1] = frontRight.getRealState();
+        moduleRealStates[2] = backLeft.getRealState();
+        moduleRealStates[3] = backRight.getRealState();
+        return moduleRealStates;
     }
 
     /**
-     * Get the current module positions
+     * Get the current module positions (the returned array is reused between calls)
      * @return
      */
     public SwerveModulePosition[] getModulePositions() {
-        return new SwerveModulePosition[]{
-            frontLeft.getPosition(),
-            frontRight.getPosition(),
-
-            backLeft.getPosition(),
-            backRight.getPosition(),
-        };
+        modulePositions[0] = frontLeft.getPosition();
+        modulePositions[1] = frontRight.getPosition();
+        modulePositions[2] = backLeft.getPosition();
+        modulePositions[3] = backRight.getPosition();
+        return modulePositions;
     }
 
    /**
@@ -298,60 +403,102 @@ public class SwerveDriveIOReal implements SwerveDriveIO {
     }
 
     /**
-     * Update the odometry with the latest vision measurements
+     * Fuse a single vision measurement into the pose estimator
+     * @param measurement
+     */
+    public void addVisionMeasurement(VisionMeasurement measurement) {
+        this.odometry.setVisionMeasurementStdDevs(VecBuilder.fill(measurement.xyStdDev, measurement.xyStdDev, measurement.rotStdDev));
+        this.odometry.addVisionMeasurement(measurement.getPose(), measurement.captureTimestamp);
+    }
+
+    /**
+     * Store a single sample from the odometry thread until it is copied into the inputs
+     * @param timestamp
+     * @param values
+     */
+    private void collectOdometrySample(double timestamp, double[] values) {
+        int sample = drainedCount++;
+        drainedTimestamps[sample] = timestamp;
+        drainedYaws[sample] = values[kYawSignal];
+        for (int i = 0; i < 4; i++) {
+            drainedDrivePositions[sample * 4 + i] = values[i * 2];
+            drainedTurnAngles[sample * 4 + i] = values[i * 2 + 1];
+        }
+    }
+
+    /**
+     * Discard the samples taken before a pose reset (they would be applied on top of the new pose)
+     */
+    private void discardOdometrySamples() {
+        if (this.odometryThread != null) this.odometryThread.clear();
+    }
+
+    /**
+     * Drain the odometry thread's samples into the inputs (new arrays every cycle, the logger keeps a reference)
+     */
+    public void updateInputs(SwerveDriveIOInputs inputs) {
+        inputs.heading = this.getHeading().getRadians();
+
+        ChassisSpeeds measuredSpeeds = Constants.SwerveDrive.PhysicalModel.kDriveKinematics.toChassisSpeeds(this.getModuleRealStates());
+        inputs.xSpeed = measuredSpeeds.vxMetersPerSecond;
+        inputs.ySpeed = measuredSpeeds.vyMetersPerSecond;
+        inputs.rotSpeed = measuredSpeeds.omegaRadiansPerSecond;
+
+        if (this.odometryThread == null) return;
+
+        drainedCount = 0;
+        this.odometryThread.drain(odometrySampleConsumer);
+        inputs.odometryTimestamps = Arrays.copyOf(drainedTimestamps, drainedCount);
+        inputs.odometryYaws = Arrays.copyOf(drainedYaws, drainedCount);
+        inputs.odometryDrivePositions = Arrays.copyOf(drainedDrivePositions, drainedCount * 4);
+        inputs.odometryTurnAngles = Arrays.copyOf(drainedTurnAngles, drainedCount * 4);
+    }
+
+    /**
+     * Apply the odometry samples from the inputs to the pose estimator
      */
-    public void visionUpdate() {
-        LimelightResults visionResults = LimelightHelpers.getLatestResults(Constants.Vision.kLimelightName);
-        Pose2d visionBotPose = LimelightHelpers.getBotPose2d_wpiBlue(Constants.Vision.kLimelightName);
-        double visionLatency = (visionResults.targetingResults.latency_capture / 1000) + (visionResults.targetingResults.latency_pipeline / 1000) + (visionResults.targetingResults.latency_jsonParse / 1000);
-        double captureTimestamp = Timer.getFPGATimestamp() - visionLatency;
-        double mainTargetArea = LimelightHelpers.getTA(Constants.Vision.kLimelightName);
-
-        if (visionResults.targetingResults.valid) {
-            double poseDifference = odometry.getEstimatedPosition().getTranslation().getDistance(visionBotPose.getTranslation());
-            if (poseDifference > Constants.Vision.kMaxPoseDifferenceMeters) System.out.println("Vision pose difference too large: " + poseDifference + "m");
-
-            double xyStdDev;
-            double rotStdDev;
-
-            if (visionResults.targetingResults.targets_Fiducials.length >= 2) {
-                xyStdDev = 0.5;
-                rotStdDev = 6;
-            } else if (mainTargetArea > 0.8 && poseDifference < 0.5) {
-                xyStdDev = 1;
-                rotStdDev = 12;
-            } else if (mainTargetArea > 0.1 && poseDifference < 0.3) {
-                xyStdDev = 2;
-                rotStdDev = 30;
-            } else return;
-
-            odometry.setVisionMeasurementStdDevs(VecBuilder.fill(xyStdDev, xyStdDev, Math.toRadians(rotStdDev)));
-            this.odometry.addVisionMeasurement(visionBotPose, captureTimestamp);
+    public void updateOdometry(SwerveDriveIOInputs inputs) {
+        for (int sample = 0; sample < inputs.odometryTimestamps.length; sample++) {
+            for (int i = 0; i < odometryPositions.length; i++) {
+                odometryPositions[i].distanceMeters = inputs.odometryDrivePositions[sample * 4 + i];
+
+                // Only allocate a new rotation when the angle changed
+                double angle = inputs.odometryTurnAngles[sample * 4 + i];
+                if (angle != odometryAngles[i] || odometryPositions[i].angle == null) {
+                    odometryPositions[i].angle = Rotation2d.fromRadians(angle);
+                    odometryAngles[i] = angle;
+                }
+            }
+            double timestamp = inputs.odometryTimestamps[sample];
+            Pose2d pose = this.odometry.updateWithTime(timestamp, Rotation2d.fromDegrees(inputs.odometryYaws[sample]), odometryPositions);
+            this.poseHistory.add(timestamp, pose);
         }
+        this.samplesPerCycleSignal.set(inputs.odometryTimestamps.length);
     }
 
     public void periodic() {
         // Update inertia acculumator
         rotationalInertiaAccumulator.update(this.getHeading().getRadians());
 
-        // Update odometry
-        this.odometry.update(getHeading(), getModulePositions());
-        
-        // Update vision measurements if cofigured
-        if (Constants.SwerveDrive.kUseVisionOdometry) this.visionUpdate();
-
         // Log data
-        Logger.recordOutput("SwerveDrive/RobotHeadingRad", this.getHeading().getRadians());
-        Logger.recordOutput("SwerveDrive/RobotHeadingDeg", this.getHeading().getDegrees());
+        Rotation2d heading = this.getHeading();
+        this.headingRadSignal.set(heading.getRadians());
+        this.headingDegSignal.set(heading.getDegrees());
 
-        Logger.recordOutput("SwerveDrive/RobotRotationalInertia", rotationalInertiaAccumulator.getTotalRotationalInertia());
-        
-        Logger.recordOutput("SwerveDrive/RobotPose", this.getPose());
+        this.rotationalInertiaSignal.set(rotationalInertiaAccumulator.getTotalRotationalInertia());
 
-        Logger.recordOutput("SwerveDrive/RobotRelative", this.drivingRobotRelative);
-        Logger.recordOutput("SwerveDrive/RobotSpeeds", this.getRobotRelativeChassisSpeeds());
-        
-        Logger.recordOutput("SwerveDrive/ModuleRealStates", this.getModuleRealStates());
-        Logger.recordOutput("SwerveDrive/ModuleTargetStates", this.getModuleTargetStates());
+        this.poseSignal.set(this.getPose());
+
+        if (this.odometryThread != null) {
+            this.sampleCountSignal.set(this.odometryThread.getSampleCount());
+            this.droppedSamplesSignal.set(this.odometryThread.getDroppedSamples());
+            this.lateSamplesSignal.set(this.odometryThread.getLateSamples());
+        }
+
+        this.robotRelativeSignal.set(this.drivingRobotRelative);
+        this.robotSpeedsSignal.set(this.getRobotRelativeChassisSpeeds());
+
+        this.moduleRealStatesSignal.set(this.getModuleRealStates());
+        this.moduleTargetStatesSignal.set(this.getModuleTargetStates());
     }
 }
@@ -0,0 +1,14 @@
+package frc.robot.subsystems.SwerveDrive;
+
+import frc.robot.subsystems.Gyro.Gyro;
+import frc.robot.subsystems.SwerveModule.SwerveModule;
+
+/**
+ * Drivetrain used when replaying a log. There is no odometry thread, the samples come from the logged inputs
+ * and go through the same pose estimator as on the robot.
+ */
+public class SwerveDriveIOReplay extends SwerveDriveIOReal {
+    public SwerveDriveIOReplay(SwerveModule frontLeft, SwerveModule frontRight, SwerveModule backLeft, SwerveModule backRight, Gyro gyro) {
+        super(frontLeft, frontRight, backLeft, backRight, gyro, false);
+    }
+}
@@ -0,0 +1,73 @@
+package frc.robot.subsystems.SwerveDrive;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Twist2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import frc.robot.Constants;
+import frc.robot.subsystems.Gyro.Gyro;
+import frc.robot.subsystems.Gyro.GyroIOSim;
+import frc.robot.subsystems.SwerveModule.SwerveModule;
+import lib.team3526.logging.LogRate;
+import lib.team3526.logging.Telemetry;
+
+/**
+ * Simulated drivetrain. Runs the same odometry and control code as the real one, integrates the gyro yaw
+ * from the module kinematics and keeps track of the ground truth robot pose.
+ */
+public class SwerveDriveIOSim extends SwerveDriveIOReal {
+    // * Simulated gyro
+    GyroIOSim gyroSim;
+
+    // * Ground truth pose (where the simulated robot really is)
+    volatile Pose2d groundTruthPose = Constants.Field.kInitialPoseMeters;
+    final Telemetry.StructSignal<Pose2d> groundTruthPoseSignal = new Telemetry("SwerveDrive/Simulation").structSignal("GroundTruthPose", Pose2d.struct, LogRate.kEveryLoop);
+
+    public SwerveDriveIOSim(SwerveModule frontLeft, SwerveModule frontRight, SwerveModule backLeft, SwerveModule backRight, Gyro gyro, GyroIOSim gyroSim) {
+        super(frontLeft, frontRight, backLeft, backRight, gyro);
+        this.gyroSim = gyroSim;
+    }
+
+    /**
+     * Get the ground truth pose of the simulated robot (safe to call from any thread)
+     * @return
+     */
+    public Pose2d getGroundTruthPose() {
+        return this.groundTruthPose;
+    }
+
+    /**
+     * Reset the estimated pose and teleport the simulated robot to it
+     * @param pose
+     */
+    @Override
+    public void resetOdometry(Pose2d pose) {
+        super.resetOdometry(pose);
+        this.groundTruthPose = pose;
+    }
+
+    /**
+     * Reset the estimated pose to the ground truth instead of the simulated camera's pose
+     */
+    @Override
+    public void setVisionPose(Pose2d visionPose) {
+        super.resetOdometry(this.groundTruthPose);
+    }
+
+    @Override
+    public void periodic() {
+        // Integrate the chassis motion from the simulated module states
+        double dt = Constants.SwerveDrive.Simulation.kLoopPeriodSeconds;
+        ChassisSpeeds moduleSpeeds = Constants.SwerveDrive.PhysicalModel.kDriveKinematics.toChassisSpeeds(this.getModuleRealStates());
+
+        this.gyroSim.integrate(Math.toDegrees(moduleSpeeds.omegaRadiansPerSecond), dt);
+        this.groundTruthPose = this.groundTruthPose.exp(new Twist2d(
+            moduleSpeeds.vxMetersPerSecond * dt,
+            moduleSpeeds.vyMetersPerSecond * dt,
+            moduleSpeeds.omegaRadiansPerSecond * dt
+        ));
+
+        this.groundTruthPoseSignal.set(this.groundTruthPose);
+
+        super.periodic();
+    }
+}
@@ -1,33 +1,52 @@
 package frc.robot.subsystems.SwerveModule;
 
+import static edu.wpi.first.units.Units.Radians;
+
 import org.littletonrobotics.junction.Logger;
 
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.units.Angle;
 import edu.wpi.first.units.Measure;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import lib.team3526.utils.LoopProfiler;
 
 public class SwerveModule extends SubsystemBase {
+  private final LoopProfiler.Section loopProfiler;
   private SwerveModuleIOInputsAutoLogged inputs = new SwerveModuleIOInputsAutoLogged();
   private SwerveModuleIO io;
+  private final String inputsKey;
+
+  // * Reused states and position built from the inputs (avoid allocating every loop)
+  private final SwerveModuleState realState = new SwerveModuleState();
+  private final SwerveModuleState targetState = new SwerveModuleState();
+  private final SwerveModulePosition position = new SwerveModulePosition();
+  private Rotation2d angle = new Rotation2d();
+  private double angleRadians = 0;
+  private Rotation2d targetAngle = new Rotation2d();
+  private double targetAngleRadians = 0;
 
   /**
    * Creates a new SwerveModule with the provided IO.
    * @param io SwerveModuleIO implementation
+   * @param name Name of the module in the log (e.g. "FrontLeft")
    */
-  public SwerveModule(SwerveModuleIO io) {
+  public SwerveModule(SwerveModuleIO io, String name) {
     this.io = io;
+    this.inputsKey = "SwerveDrive/" + name;
+    this.loopProfiler = LoopProfiler.subsystem("SwerveModule/" + name);
   }
 
   public Measure<Angle> getAbsoluteEncoderPosition() {
-    return io.getAbsoluteEncoderPosition();
+    return Radians.of(inputs.absoluteAngle);
   }
   /**
    * Resets the turn encoder (APPLIES ABSOLUTE ENCODER POSITION)
    */
   public void resetTurningEncoder() {
     io.resetTurningEncoder();
+    inputs.angle = inputs.absoluteAngle;
   }
 
   /**
@@ -35,6 +54,7 @@ public class SwerveModule extends SubsystemBase {
    */
   public void resetDriveEncoder() {
     io.resetDriveEncoder();
+    inputs.distance = 0;
   }
 
   /**
@@ -42,10 +62,52 @@ public class SwerveModule extends SubsystemBase {
    */
   public void resetEncoders() {
     io.resetEncoders();
+    inputs.angle = inputs.absoluteAngle;
+    inputs.distance = 0;
   }
 
   public Measure<Angle> getAngle() {
-    return io.getAngle();
+    return Radians.of(inputs.angle);
+  }
+
+  /**
+   * Gets the angle of the swerve module without allocating.
+   * @return double angle in radians
+   */
+  public double getAngleRadians() {
+    return inputs.angle;
+  }
+
+  /**
+   * Gets the velocity of the drive wheel without allocating.
+   * @return double velocity in meters per second
+   */
+  public double getDriveVelocity() {
+    return inputs.speed;
+  }
+
+  /**
+   * Gets the distance travelled by the drive wheel without allocating.
+   * @return double distance in meters
+   */
+  public double getDrivePosition() {
+    return inputs.distance;
+  }
+
+  /**
+   * Reads the angle straight from the hardware, for the odometry thread.
+   * @return double angle in radians
+   */
+  public double getOdometryAngleRadians() {
+    return io.getAngleRadians();
+  }
+
+  /**
+   * Reads the drive distance straight from the hardware, for the odometry thread.
+   * @return double distance in meters
+   */
+  public double getOdometryDrivePosition() {
+    return io.getDrivePosition();
   }
 
   /**
@@ -72,32 +134,62 @@ public class SwerveModule extends SubsystemBase {
   public void stop() {
     io.stop();
   }
+
+  /**
+   * Get the current angle as a Rotation2d (only allocates when the angle changes)
+   * @return
+   */
+  private Rotation2d getAngleRotation() {
+    if (inputs.angle != angleRadians) {
+      angle = Rotation2d.fromRadians(inputs.angle);
+      angleRadians = inputs.angle;
+    }
+    return angle;
+  }
+
   /**
    * Gets the **REAL** state of the swerve module (real Speed and angle).
+   * The returned object is reused between calls, do not hold on to it.
    * @return SwerveModuleState real state
    */
   public SwerveModuleState getRealState() {
-    return io.getRealState();
+    realState.speedMetersPerSecond = inputs.speed;
+    realState.angle = getAngleRotation();
+    return realState;
   }
 
   /**
    * Gets the target state of the swerve module (Speed and angle).
+   * The returned object is reused between calls, do not hold on to it.
    * @return SwerveModuleState target state 
    */
   public SwerveModuleState getTargetState() {
-    return io.getTargetState();
+    if (inputs.targetAngle != targetAngleRadians) {
+      targetAngle = Rotation2d.fromRadians(inputs.targetAngle);
+      targetAngleRadians = inputs.targetAngle;
+    }
+    targetState.speedMetersPerSecond = inputs.targetSpeed;
+    targetState.angle = targetAngle;
+    return targetState;
   }
   /**
    * Gets the position of the swerve module on the field.
+   * The returned object is reused between calls, do not hold on to it.
    * @return SwerveModulePosition position
    */
   public SwerveModulePosition getPosition() {
-    return io.getPosition();
+    position.distanceMeters = inputs.distance;
+    position.angle = getAngleRotation();
+    return position;
   }
   
   @Override
   public void periodic() {
+    loopProfiler.begin();
     io.periodic();
     io.updateInputs(inputs);
+    Logger.processInputs(inputsKey, inputs);
+
+    loopProfiler.end();
   }
 }
@@ -2,16 +2,14 @@ package frc.robot.subsystems.SwerveModule;
 
 import org.littletonrobotics.junction.AutoLog;
 
-import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import edu.wpi.first.units.Angle;
-import edu.wpi.first.units.Measure;
 
 public interface SwerveModuleIO {
     @AutoLog
     class SwerveModuleIOInputs {
         public double speed;
         public double angle;
+        public double absoluteAngle;
 
         public double targetSpeed;
         public double targetAngle;
@@ -20,20 +18,21 @@ public interface SwerveModuleIO {
     }
     
     
-    Measure<Angle> getAbsoluteEncoderPosition();
     default void resetDriveEncoder() {};
     default void resetTurningEncoder() {};
     default void resetEncoders() {};
-    
-    Measure<Angle> getAngle();
 
-    void setTargetState(SwerveModuleState state, boolean force);
-    void setTargetState(SwerveModuleState state);
-    void stop();
-    
-    SwerveModuleState getTargetState();
-    SwerveModuleState getRealState();
-    SwerveModulePosition getPosition();
+    // * Primitive fast path for the odometry thread (no allocation, safe to call from another thread)
+    default double getAngleRadians() {
+        return 0;
+    }
+    default double getDrivePosition() {
+        return 0;
+    }
+
+    default void setTargetState(SwerveModuleState state, boolean force) {};
+    default void setTargetState(SwerveModuleState state) {};
+    default void stop() {};
 
     default void updateInputs(SwerveModuleIOInputs inputs) {};
     default void periodic() {};
@@ -1,5 +1,6 @@
 package frc.robot.subsystems.SwerveModule;
 
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.hardware.CANcoder;
 import com.revrobotics.RelativeEncoder;
 import com.revrobotics.CANSparkBase.ControlType;
@@ -10,12 +11,15 @@ import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.units.Angle;
 import edu.wpi.first.units.Measure;
 import frc.robot.Constants;
-import lib.team3526.constants.PIDFConstants;
+import lib.team3526.constants.SparkConfig;
 import lib.team3526.constants.SwerveModuleOptions;
+import lib.team3526.logging.LogRate;
+import lib.team3526.logging.Telemetry;
 import lib.team3526.control.LazyCANSparkMax;
 import lib.team3526.control.LazySparkPID;
+import lib.team3526.control.PhoenixSignalRegistry;
+import lib.team3526.control.SparkConfigCache;
 import static edu.wpi.first.units.Units.*;
-import org.littletonrobotics.junction.Logger;
 
 public class SwerveModuleIOReal implements SwerveModuleIO {
     // * Options for the module
@@ -34,10 +38,23 @@ public class SwerveModuleIOReal implements SwerveModuleIO {
 
     // * Absolute encoder
     private final CANcoder absoluteEncoder;
+    private final StatusSignal<Double> absoluteEncoderPosition;
 
     // * Target state
     private SwerveModuleState targetState = new SwerveModuleState();
 
+    // * Telemetry (keys are built once)
+    private final Telemetry.DoubleSignal motEncoderDegSignal;
+    private final Telemetry.DoubleSignal absEncoderDegSignal;
+    private final Telemetry.StructSignal<SwerveModuleState> realStateSignal;
+    private final Telemetry.StructSignal<SwerveModuleState> targetStateSignal;
+
+    // * Reused state and position (avoid allocating every loop)
+    private final SwerveModuleState realState = new SwerveModuleState();
+    private final SwerveModulePosition position = new SwerveModulePosition();
+    private Rotation2d angleRotation = new Rotation2d();
+    private double angleRotationRadians = 0;
+
     // * Name of the module
     private final String name;
 
@@ -49,30 +66,44 @@ public class SwerveModuleIOReal implements SwerveModuleIO {
         // Store the options
         this.options = options;
 
+        // Telemetry
+        Telemetry telemetry = new Telemetry("SwerveDrive/" + options.name);
+        this.motEncoderDegSignal = telemetry.doubleSignal("MotEncoderDeg", LogRate.kEveryLoop);
+        this.absEncoderDegSignal = telemetry.doubleSignal("AbsEncoderDeg", LogRate.everyNLoops(5));
+        this.realStateSignal = telemetry.structSignal("RealState", SwerveModuleState.struct, LogRate.kEveryLoop);
+        this.targetStateSignal = telemetry.structSignal("TargetState", SwerveModuleState.struct, LogRate.kOnChange);
+
         // Create the motors
-        this.driveMotor = new LazyCANSparkMax(options.driveMotorID, MotorType.kBrushless);
-        this.turningMotor = new LazyCANSparkMax(options.turningMotorID, MotorType.kBrushless);
+        this.driveMotor = new LazyCANSparkMax(options.driveMotorID, MotorType.kBrushless, Constants.CAN.kDriveRole);
+        this.turningMotor = new LazyCANSparkMax(options.turningMotorID, MotorType.kBrushless, Constants.CAN.kSteerRole);
 
-        this.turningMotor.setInverted(options.turningMotorInverted);
+        // Configure the motors (only written and flashed when the config changed)
+        SparkConfigCache.apply(this.driveMotor, new SparkConfig()
+            .setInverted(options.driveMotorInverted)
+            .setConversionFactors(Constants.SwerveDrive.PhysicalModel.kDriveEncoder_RotationToMeter, Constants.SwerveDrive.PhysicalModel.kDriveEncoder_RPMToMeterPerSecond)
+        );
+        SparkConfigCache.apply(this.turningMotor, new SparkConfig()
+            .setInverted(options.turningMotorInverted)
+            .setConversionFactors(Constants.SwerveDrive.PhysicalModel.kTurningEncoder_RotationToRadian, Constants.SwerveDrive.PhysicalModel.kTurningEncoder_RPMToRadianPerSecond)
+            .setPID(Constants.SwerveDrive.SwerveModules.kTurningPIDConstants)
+            .setPositionWrapping(0, 2 * Math.PI)
+        );
 
-        // Get and configure the encoders
+        // Get the encoders
         this.driveEncoder = this.driveMotor.getEncoder();
-        this.driveEncoder.setPositionConversionFactor(Constants.SwerveDrive.PhysicalModel.kDriveEncoder_RotationToMeter); 
-        this.driveEncoder.setVelocityConversionFactor(Constants.SwerveDrive.PhysicalModel.kDriveEncoder_RPMToMeterPerSecond);
-        this.driveMotor.setInverted(options.driveMotorInverted);
-
         this.turningEncoder = this.turningMotor.getEncoder();
-        this.turningEncoder.setPositionConversionFactor(Constants.SwerveDrive.PhysicalModel.kTurningEncoder_RotationToRadian); 
-        this.turningEncoder.setVelocityConversionFactor(Constants.SwerveDrive.PhysicalModel.kTurningEncoder_RPMToRadianPerSecond);
 
-        this.turningPID = new LazySparkPID(this.turningMotor.getPIDController());
-        PIDFConstants.applyToSparkPIDController(this.turningPID.controller, Constants.SwerveDrive.SwerveModules.kTurningPIDConstants);
-        this.turningPID.controller.setPositionPIDWrappingMinInput(0);
-        this.turningPID.controller.setPositionPIDWrappingMaxInput(2 * Math.PI);
-        this.turningPID.controller.setPositionPIDWrappingEnabled(true);
+        this.turningPID = new LazySparkPID(this.turningMotor);
+        this.turningMotor.setClosedLoopDeadband(Constants.SwerveDrive.SwerveModules.kTurningReferenceDeadband);
 
         // Configure the absolute encoder
         this.absoluteEncoder = new CANcoder(options.absoluteEncoderDevice.getDeviceID(), options.absoluteEncoderDevice.getCanbus());
+        this.absoluteEncoderPosition = this.absoluteEncoder.getAbsolutePosition();
+        PhoenixSignalRegistry.register(Constants.CAN.kStatusSignalFrequencyHz, this.absoluteEncoderPosition);
+        this.absoluteEncoder.optimizeBusUtilization();
+
+        // Wait for a fresh absolute position before seeding the turning encoder
+        this.absoluteEncoderPosition.waitForUpdate(0.25);
 
         this.name = options.name;
 
@@ -86,7 +117,15 @@ public class SwerveModuleIOReal implements SwerveModuleIO {
      * @return
      */
     public Measure<Angle> getAbsoluteEncoderPosition() {
-        return Radians.of((absoluteEncoder.getAbsolutePosition().refresh().getValue() * 2 * Math.PI) * (this.options.absoluteEncoderInverted ? -1.0 : 1.0));
+        return Radians.of(getAbsoluteEncoderRadians());
+    }
+
+    /**
+     * Get the absolute encoder turn position in radians (cached, refreshed once per loop)
+     * @return
+     */
+    private double getAbsoluteEncoderRadians() {
+        return (absoluteEncoderPosition.getValue() * 2 * Math.PI) * (this.options.absoluteEncoderInverted ? -1.0 : 1.0);
     }
 
     /**
@@ -100,7 +139,8 @@ public class SwerveModuleIOReal implements SwerveModuleIO {
      * Reset the turning encoder (set the position to the absolute encoder's position)
      */
     public void resetTurningEncoder() {
-        this.turningEncoder.setPosition(getAbsoluteEncoderPosition().in(Radians));
+        this.absoluteEncoderPosition.refresh();
+        this.turningEncoder.setPosition(getAbsoluteEncoderRadians());
     }
     
     /**
@@ -116,7 +156,44 @@ public class SwerveModuleIOReal implements SwerveModuleIO {
      * @return
      */
     public Measure<Angle> getAngle() {
-        return Radians.of(this.turningEncoder.getPosition() % (2 * Math.PI));
+        return Radians.of(getAngleRadians());
+    }
+
+    /**
+     * Get the current angle of the module in radians
+     * @return
+     */
+    public double getAngleRadians() {
+        return this.turningEncoder.getPosition() % (2 * Math.PI);
+    }
+
+    /**
+     * Get the current angle of the module as a Rotation2d (only allocates when the angle changes)
+     * @return
+     */
+    private Rotation2d getAngleRotation() {
+        double angle = getAngleRadians();
+        if (angle != this.angleRotationRadians) {
+            this.angleRotation = Rotation2d.fromRadians(angle);
+            this.angleRotationRadians = angle;
+        }
+        return this.angleRotation;
+    }
+
+    /**
+     * Get the velocity of the drive wheel in meters per second
+     * @return
+     */
+    public double getDriveVelocity() {
+        return this.driveEncoder.getVelocity();
+    }
+
+    /**
+     * Get the distance travelled by the drive wheel in meters
+     * @return
+     */
+    public double getDrivePosition() {
+        return this.driveEncoder.getPosition();
     }
 
     /**
@@ -138,7 +215,7 @@ public class SwerveModuleIOReal implements SwerveModuleIO {
             return;
         }
 
-        state = SwerveModuleState.optimize(state, Rotation2d.fromRadians(getAngle().in(Radians)));
+        state = SwerveModuleState.optimize(state, getAngleRotation());
 
         this.targetState = state;
 
@@ -163,31 +240,40 @@ public class SwerveModuleIOReal implements SwerveModuleIO {
     }
 
     /**
-     * Get the real state of the module
+     * Get the real state of the module (the returned object is reused between calls)
      * @return
      */
     public SwerveModuleState getRealState() {
-        return new SwerveModuleState(
-            this.driveEncoder.getVelocity(),
-            Rotation2d.fromRadians(this.getAngle().in(Radians))
-        );
+        this.realState.speedMetersPerSecond = this.getDriveVelocity();
+        this.realState.angle = this.getAngleRotation();
+        return this.realState;
     }
 
     /**
-     * Get the position of the module
+     * Get the position of the module (the returned object is reused between calls)
      * @return
      */
     public SwerveModulePosition getPosition() {
-        return new SwerveModulePosition(
-            this.driveEncoder.getPosition(),
-            Rotation2d.fromRadians(this.getAngle().in(Radians))
-        );
+        this.position.distanceMeters = this.getDrivePosition();
+        this.position.angle = this.getAngleRotation();
+        return this.position;
     }
     
+    public void updateInputs(SwerveModuleIOInputs inputs) {
+        inputs.speed = this.getDriveVelocity();
+        inputs.angle = this.getAngleRadians();
+        inputs.absoluteAngle = this.getAbsoluteEncoderRadians();
+
+        inputs.targetSpeed = this.targetState.speedMetersPerSecond;
+        inputs.targetAngle = this.targetState.angle.getRadians();
+
+        inputs.distance = this.getDrivePosition();
+    }
+
     public void periodic() {
-        Logger.recordOutput("SwerveDrive/" + this.options.name + "/MotEncoderDeg", this.getAngle().in(Degrees));
-        Logger.recordOutput("SwerveDrive/" + this.options.name + "/AbsEncoderDeg", this.getAbsoluteEncoderPosition().in(Degrees));
-        Logger.recordOutput("SwerveDrive/" + this.options.name + "/RealState", this.getRealState());
-        Logger.recordOutput("SwerveDrive/" + this.options.name + "/TargetState", this.getTargetState());
+        this.motEncoderDegSignal.set(Math.toDegrees(this.getAngleRadians()));
+        this.absEncoderDegSignal.set(Math.toDegrees(this.getAbsoluteEncoderRadians()));
+        this.realStateSignal.set(this.getRealState());
+        this.targetStateSignal.set(this.getTargetState());
     }
 }
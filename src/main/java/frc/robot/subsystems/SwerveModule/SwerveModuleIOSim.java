@@ -0,0 +1,187 @@
+package frc.robot.subsystems.SwerveModule;
+
+import static edu.wpi.first.units.Units.*;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.units.Angle;
+import edu.wpi.first.units.Measure;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.Constants;
+import lib.team3526.constants.SwerveModuleOptions;
+import lib.team3526.logging.LogRate;
+import lib.team3526.logging.Telemetry;
+
+public class SwerveModuleIOSim implements SwerveModuleIO {
+    private static final double kNominalVoltage = 12;
+
+    // * Options for the module
+    public final SwerveModuleOptions options;
+
+    // * Motors
+    private final DCMotorSim driveSim;
+    private final DCMotorSim turningSim;
+    private final PIDController turningPID;
+
+    // * Applied drive voltage and turning setpoint (the turning PID runs every step, like the Spark's)
+    private double driveVoltage = 0;
+    private boolean turningEnabled = false;
+    private double turningSetpoint = 0;
+
+    // * Simulated sensors (written by the main loop, read by the odometry thread)
+    private volatile double drivePosition = 0;
+    private volatile double driveVelocity = 0;
+    private volatile double angleRadians = 0;
+    private double drivePositionOffset = 0;
+
+    // * Target state
+    private SwerveModuleState targetState = new SwerveModuleState();
+
+    // * Telemetry (keys are built once)
+    private final Telemetry.DoubleSignal motEncoderDegSignal;
+    private final Telemetry.StructSignal<SwerveModuleState> realStateSignal;
+    private final Telemetry.StructSignal<SwerveModuleState> targetStateSignal;
+
+    // * Reused state and position (avoid allocating every loop)
+    private final SwerveModuleState realState = new SwerveModuleState();
+    private final SwerveModulePosition position = new SwerveModulePosition();
+    private Rotation2d angleRotation = new Rotation2d();
+    private double angleRotationRadians = 0;
+
+    /**
+     * Create a new simulated swerve module
+     * @param options
+     */
+    public SwerveModuleIOSim(SwerveModuleOptions options) {
+        this.options = options;
+
+        this.driveSim = new DCMotorSim(DCMotor.getNEO(1), 1.0 / Constants.SwerveDrive.PhysicalModel.kDriveMotorGearRatio, Constants.SwerveDrive.Simulation.kDriveMOI);
+        this.turningSim = new DCMotorSim(DCMotor.getNEO(1), 1.0 / Constants.SwerveDrive.PhysicalModel.kTurningMotorGearRatio, Constants.SwerveDrive.Simulation.kTurningMOI);
+
+        this.turningPID = new PIDController(Constants.SwerveDrive.Simulation.kTurningP, 0, 0);
+        this.turningPID.enableContinuousInput(-Math.PI, Math.PI);
+
+        // Telemetry
+        Telemetry telemetry = new Telemetry("SwerveDrive/" + options.name);
+        this.motEncoderDegSignal = telemetry.doubleSignal("MotEncoderDeg", LogRate.kEveryLoop);
+        this.realStateSignal = telemetry.structSignal("RealState", SwerveModuleState.struct, LogRate.kEveryLoop);
+        this.targetStateSignal = telemetry.structSignal("TargetState", SwerveModuleState.struct, LogRate.kOnChange);
+    }
+
+    public Measure<Angle> getAbsoluteEncoderPosition() {
+        return Radians.of(getAngleRadians());
+    }
+
+    public void resetDriveEncoder() {
+        this.drivePositionOffset = this.driveSim.getAngularPositionRad() * Constants.SwerveDrive.PhysicalModel.kWheelDiameter.in(Meters) / 2;
+        this.drivePosition = 0;
+    }
+
+    public void resetEncoders() {
+        resetDriveEncoder();
+        resetTurningEncoder();
+    }
+
+    public Measure<Angle> getAngle() {
+        return Radians.of(getAngleRadians());
+    }
+
+    public double getAngleRadians() {
+        return this.angleRadians;
+    }
+
+    public double getDriveVelocity() {
+        return this.driveVelocity;
+    }
+
+    public double getDrivePosition() {
+        return this.drivePosition;
+    }
+
+    /**
+     * Get the current angle of the module as a Rotation2d (only allocates when the angle changes)
+     * @return
+     */
+    private Rotation2d getAngleRotation() {
+        double angle = getAngleRadians();
+        if (angle != this.angleRotationRadians) {
+            this.angleRotation = Rotation2d.fromRadians(angle);
+            this.angleRotationRadians = angle;
+        }
+        return this.angleRotation;
+    }
+
+    public void setTargetState(SwerveModuleState state) {
+        setTargetState(state, false);
+    }
+
+    public void setTargetState(SwerveModuleState state, boolean force) {
+        if (Math.abs(state.speedMetersPerSecond) < 0.001 || force) {
+            stop();
+            return;
+        }
+
+        state = SwerveModuleState.optimize(state, getAngleRotation());
+
+        this.targetState = state;
+
+        // Same open loop drive as the real module
+        this.driveVoltage = state.speedMetersPerSecond / Constants.SwerveDrive.PhysicalModel.kMaxSpeed.in(MetersPerSecond) * kNominalVoltage;
+        this.turningSetpoint = state.angle.getRadians();
+        this.turningEnabled = true;
+    }
+
+    public void stop() {
+        this.driveVoltage = 0;
+        this.turningEnabled = false;
+    }
+
+    public SwerveModuleState getTargetState() {
+        return this.targetState;
+    }
+
+    public SwerveModuleState getRealState() {
+        this.realState.speedMetersPerSecond = this.getDriveVelocity();
+        this.realState.angle = this.getAngleRotation();
+        return this.realState;
+    }
+
+    public SwerveModulePosition getPosition() {
+        this.position.distanceMeters = this.getDrivePosition();
+        this.position.angle = this.getAngleRotation();
+        return this.position;
+    }
+
+    public void updateInputs(SwerveModuleIOInputs inputs) {
+        inputs.speed = this.getDriveVelocity();
+        inputs.angle = this.getAngleRadians();
+        inputs.absoluteAngle = this.getAngleRadians();
+
+        inputs.targetSpeed = this.targetState.speedMetersPerSecond;
+        inputs.targetAngle = this.targetState.angle.getRadians();
+
+        inputs.distance = this.getDrivePosition();
+    }
+
+    public void periodic() {
+        // Step the physics
+        double turningVoltage = this.turningEnabled ? MathUtil.clamp(turningPID.calculate(getAngleRadians(), this.turningSetpoint), -kNominalVoltage, kNominalVoltage) : 0;
+        this.driveSim.setInputVoltage(this.driveVoltage);
+        this.turningSim.setInputVoltage(turningVoltage);
+        this.driveSim.update(Constants.SwerveDrive.Simulation.kLoopPeriodSeconds);
+        this.turningSim.update(Constants.SwerveDrive.Simulation.kLoopPeriodSeconds);
+
+        double wheelRadius = Constants.SwerveDrive.PhysicalModel.kWheelDiameter.in(Meters) / 2;
+        this.drivePosition = this.driveSim.getAngularPositionRad() * wheelRadius - this.drivePositionOffset;
+        this.driveVelocity = this.driveSim.getAngularVelocityRadPerSec() * wheelRadius;
+        this.angleRadians = MathUtil.angleModulus(this.turningSim.getAngularPositionRad());
+
+        this.motEncoderDegSignal.set(Math.toDegrees(this.getAngleRadians()));
+        this.realStateSignal.set(this.getRealState());
+        this.targetStateSignal.set(this.getTargetState());
+    }
+}
@@ -0,0 +1,148 @@
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants;
+import frc.robot.LimelightHelpers;
+import frc.robot.LimelightHelpers.LimelightHandle;
+import frc.robot.LimelightHelpers.LimelightResults;
+import frc.robot.LimelightHelpers.LimelightResultsDecoder;
+import frc.robot.LimelightHelpers.Results;
+
+/**
+ * Fetches and parses the Limelight results outside of the main robot loop.
+ */
+public class LimelightVisionThread extends VisionThread {
+    // * Layout of the botpose arrays (pose, then latency and tag stats)
+    private static final int kBotPoseX = 0;
+    private static final int kBotPoseY = 1;
+    private static final int kBotPoseYaw = 5;
+    private static final int kBotPoseLatency = 6;
+    private static final int kBotPoseTagCount = 7;
+    private static final int kBotPoseAverageArea = 10;
+    private static final int kBotPoseLength = 11;
+
+    // * Camera
+    private final String limelightName;
+    private final LimelightHandle handle;
+
+    // * Frame tracking (vision thread only)
+    private long lastFrameChange = 0;
+    private long lastBotPoseTimestamp = 0;
+    private boolean botPoseHasStats = false;
+    private double lastFramePublishTimestamp = -1;
+
+    /**
+     * Create a new vision thread (call {@link #start()} to begin processing)
+     * @param limelightName The name of the Limelight
+     */
+    public LimelightVisionThread(String limelightName) {
+        super(limelightName);
+        this.limelightName = limelightName;
+        this.handle = LimelightHelpers.getHandle(limelightName);
+        if (Constants.Vision.kUseStreamingDecoder) LimelightHelpers.enableStreamingDecoder(limelightName, LimelightResultsDecoder.kFiducialTargets);
+    }
+
+    /**
+     * Fetch and parse every frame received since the last run (runs on the vision thread)
+     * <p>
+     * Every botpose sample published since the last run is read from the subscriber queue with its own timestamp,
+     * so no frame is lost when the camera publishes faster than this thread runs. Older firmware that does not
+     * publish the tag stats in the botpose array falls back to parsing the JSON dump.
+     * <p>
+     * Every camera frame is fused at most once: botpose samples are tracked by their timestamp, JSON frames by the
+     * time the entry last changed (checked before parsing) and by the Limelight's own publish timestamp (checked after parsing).
+     * Only frames re-published with the same Limelight timestamp count as duplicates.
+     */
+    @Override
+    protected void process() {
+        TimestampedDoubleArray[] samples = this.handle.readBotPoseQueue_wpiBlue();
+        if (samples.length > 0 && samples[samples.length - 1].value.length >= kBotPoseLength) this.botPoseHasStats = true;
+
+        if (this.botPoseHasStats) {
+            for (TimestampedDoubleArray sample : samples) processBotPose(sample);
+            return;
+        }
+
+        processJSON();
+    }
+
+    /**
+     * Queue a single botpose sample
+     * @param sample
+     */
+    private void processBotPose(TimestampedDoubleArray sample) {
+        if (sample.timestamp <= this.lastBotPoseTimestamp) {
+            this.duplicateFrames++;
+            return;
+        }
+        this.lastBotPoseTimestamp = sample.timestamp;
+        this.newFrames++;
+
+        double[] botPose = sample.value;
+        if (botPose.length < kBotPoseLength || botPose[kBotPoseTagCount] < 1) {
+            this.emptyFrames++;
+            return;
+        }
+
+        // The sample timestamp is when NetworkTables received the frame, in the FPGA time base (microseconds)
+        double captureTimestamp = (sample.timestamp / 1e6) - (botPose[kBotPoseLatency] / 1000);
+
+        // The botpose array has no tag IDs or ambiguity
+        publish(
+            botPose[kBotPoseX],
+            botPose[kBotPoseY],
+            Math.toRadians(botPose[kBotPoseYaw]),
+            captureTimestamp,
+            (int) botPose[kBotPoseTagCount],
+            -1,
+            botPose[kBotPoseAverageArea],
+            0
+        );
+    }
+
+    /**
+     * Fetch, parse and queue the latest JSON results
+     */
+    private void processJSON() {
+        // Skip the fetch and parse entirely if the camera has not published since the last frame (not a duplicate, just an idle poll)
+        long frameChange = this.handle.json.getLastChange();
+        if (frameChange == this.lastFrameChange) return;
+        this.lastFrameChange = frameChange;
+
+        double fetchTimestamp = Timer.getFPGATimestamp();
+
+        long parseStart = System.nanoTime();
+        LimelightResults visionResults = LimelightHelpers.getLatestResults(this.limelightName);
+        recordParseTime((System.nanoTime() - parseStart) / 1e6);
+
+        Results results = visionResults.targetingResults;
+        if (results.timestamp_LIMELIGHT_publish == this.lastFramePublishTimestamp) {
+            this.duplicateFrames++;
+            return;
+        }
+        this.lastFramePublishTimestamp = results.timestamp_LIMELIGHT_publish;
+        this.newFrames++;
+
+        if (!results.valid || results.targets_Fiducials.length == 0) {
+            this.emptyFrames++;
+            return;
+        }
+
+        Pose2d visionBotPose = results.getBotPose2d_wpiBlue();
+        double visionLatency = (results.latency_capture / 1000) + (results.latency_pipeline / 1000);
+
+        // MegaTag does not report which tag a single tag pose was solved from, or its ambiguity
+        publish(
+            visionBotPose.getX(),
+            visionBotPose.getY(),
+            visionBotPose.getRotation().getRadians(),
+            fetchTimestamp - visionLatency,
+            results.targets_Fiducials.length,
+            -1,
+            results.targets_Fiducials[0].ta,
+            0
+        );
+    }
+}
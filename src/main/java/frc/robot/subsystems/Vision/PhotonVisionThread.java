@@ -0,0 +1,83 @@
+package frc.robot.subsystems.Vision;
+
+import java.util.Optional;
+
+import org.photonvision.EstimatedRobotPose;
+import org.photonvision.PhotonCamera;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import frc.robot.Constants;
+import lib.team3526.field.AprilTagFieldGeometry;
+
+/**
+ * Estimates the robot pose from a PhotonVision camera outside of the main robot loop.
+ * <p>
+ * Uses multi-tag PnP (solved on the coprocessor) when at least two tags are visible, and the lowest ambiguity tag otherwise.
+ */
+public class PhotonVisionThread extends VisionThread {
+    // * Camera
+    private final PhotonCamera camera;
+    private final PhotonPoseEstimator estimator;
+
+    // * Frame tracking (vision thread only)
+    private double lastResultTimestamp = -1;
+
+    /**
+     * Create a new vision thread (call {@link #start()} to begin processing)
+     * @param camera The camera
+     * @param robotToCamera Transform from the robot center to the camera lens
+     */
+    public PhotonVisionThread(PhotonCamera camera, Transform3d robotToCamera) {
+        super(camera.getName());
+        this.camera = camera;
+        this.estimator = new PhotonPoseEstimator(AprilTagFieldGeometry.get(Constants.Vision.kAprilTagField).getLayout(), PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR, camera, robotToCamera);
+        this.estimator.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
+    }
+
+    @Override
+    protected void process() {
+        long parseStart = System.nanoTime();
+        PhotonPipelineResult result = this.camera.getLatestResult();
+
+        double resultTimestamp = result.getTimestampSeconds();
+        if (resultTimestamp == this.lastResultTimestamp) {
+            this.duplicateFrames++;
+            return;
+        }
+        this.lastResultTimestamp = resultTimestamp;
+        this.newFrames++;
+
+        if (!result.hasTargets()) {
+            this.emptyFrames++;
+            return;
+        }
+
+        Optional<EstimatedRobotPose> estimate = this.estimator.update(result);
+        recordParseTime((System.nanoTime() - parseStart) / 1e6);
+        if (estimate.isEmpty()) {
+            this.emptyFrames++;
+            return;
+        }
+
+        // Single tag estimates are solved from the tag the fallback strategy picked, not necessarily the best target
+        EstimatedRobotPose robotPose = estimate.get();
+        PhotonTrackedTarget mainTarget = robotPose.targetsUsed.get(0);
+        Pose2d pose = robotPose.estimatedPose.toPose2d();
+
+        publish(
+            pose.getX(),
+            pose.getY(),
+            pose.getRotation().getRadians(),
+            robotPose.timestampSeconds,
+            robotPose.targetsUsed.size(),
+            mainTarget.getFiducialId(),
+            mainTarget.getArea(),
+            mainTarget.getPoseAmbiguity()
+        );
+    }
+}
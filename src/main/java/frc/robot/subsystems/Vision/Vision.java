@@ -0,0 +1,209 @@
+package frc.robot.subsystems.Vision;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants;
+import lib.team3526.field.AprilTagFieldGeometry;
+import lib.team3526.utils.LoopProfiler;
+
+/**
+ * Filters the frames of every camera and merges them into the pose estimator, oldest first.
+ * <p>
+ * Each camera fetches and parses its frames on its own thread. The frames are logged as inputs before they are
+ * filtered here, on the main loop, so a replayed log goes through the same filters as the robot did.
+ */
+public class Vision extends SubsystemBase {
+  private final LoopProfiler.Section loopProfiler = LoopProfiler.subsystem("Vision");
+  VisionIO[] cameras;
+  VisionIOInputsAutoLogged[] inputs;
+  String[] inputKeys;
+  double[] stdDevScales;
+
+  // * Filter stats (per camera)
+  long[] rejectedFrames;
+  long[] farFrames;
+  String[] rejectedFramesKeys;
+  String[] farFramesKeys;
+
+  // * Pose estimator
+  Consumer<VisionMeasurement> measurementConsumer;
+  Supplier<Pose2d> robotPoseSupplier;
+
+  // * Field geometry (only loaded when a single tag frame has to be checked)
+  AprilTagFieldGeometry fieldGeometry;
+
+  // * Merge buffer (main loop only)
+  VisionMeasurement[] merged;
+  int mergedCount = 0;
+  long overflowMeasurements = 0;
+
+  // * Latest pose seen by any camera, gated or not (main loop only)
+  boolean hasLatestPose = false;
+  double latestPoseX;
+  double latestPoseY;
+  double latestPoseRotation;
+  double latestPoseTimestamp;
+
+  /**
+   * Create the vision subsystem
+   * @param measurementConsumer Fuses a measurement into the pose estimator (called from the main loop)
+   * @param robotPoseSupplier Supplies the estimated robot pose (called from the main loop)
+   * @param cameras
+   */
+  public Vision(Consumer<VisionMeasurement> measurementConsumer, Supplier<Pose2d> robotPoseSupplier, VisionIO... cameras) {
+    this.measurementConsumer = measurementConsumer;
+    this.robotPoseSupplier = robotPoseSupplier;
+    this.cameras = cameras;
+
+    this.inputs = new VisionIOInputsAutoLogged[cameras.length];
+    this.inputKeys = new String[cameras.length];
+    this.stdDevScales = new double[cameras.length];
+    this.rejectedFrames = new long[cameras.length];
+    this.farFrames = new long[cameras.length];
+    this.rejectedFramesKeys = new String[cameras.length];
+    this.farFramesKeys = new String[cameras.length];
+    for (int i = 0; i < cameras.length; i++) {
+      this.inputs[i] = new VisionIOInputsAutoLogged();
+      this.inputKeys[i] = "Vision/" + cameras[i].getName();
+      this.stdDevScales[i] = cameras[i].getStdDevScale();
+      this.rejectedFramesKeys[i] = "Vision/" + cameras[i].getName() + "/RejectedFrames";
+      this.farFramesKeys[i] = "Vision/" + cameras[i].getName() + "/FarFrames";
+    }
+
+    this.merged = new VisionMeasurement[Math.max(1, cameras.length * Constants.Vision.kQueueSize)];
+    for (int i = 0; i < merged.length; i++) this.merged[i] = new VisionMeasurement();
+  }
+
+  /**
+   * Get the latest pose seen by any camera, taken from the logged frames so it is the same when replaying a log
+   * @return Empty if no camera saw a tag recently
+   */
+  public Optional<Pose2d> getLatestPose() {
+    if (!hasLatestPose || Timer.getFPGATimestamp() - latestPoseTimestamp > Constants.Vision.kMaxLatestPoseAgeSeconds) return Optional.empty();
+    return Optional.of(new Pose2d(latestPoseX, latestPoseY, Rotation2d.fromRadians(latestPoseRotation)));
+  }
+
+  /**
+   * Pick the standard deviations of a frame, or reject it
+   * @param measurement The frame, its standard deviations are set if it is accepted
+   * @param camera Index of the camera
+   * @param robotPose The estimated robot pose
+   * @return True if the frame should be fused
+   */
+  private boolean filter(VisionMeasurement measurement, int camera, Pose2d robotPose) {
+    double poseDifference = Math.hypot(robotPose.getX() - measurement.x, robotPose.getY() - measurement.y);
+    if (poseDifference > Constants.Vision.kMaxPoseDifferenceMeters) farFrames[camera]++;
+
+    if (measurement.tagCount == 1) {
+      if (measurement.mainTagAmbiguity > Constants.Vision.kMaxSingleTagAmbiguity) return false;
+
+      // A single tag solved to a pose behind it is an ambiguity flip
+      if (measurement.mainTagId >= 0) {
+        if (fieldGeometry == null) fieldGeometry = AprilTagFieldGeometry.get(Constants.Vision.kAprilTagField);
+        if (!fieldGeometry.isInFrontOf(measurement.mainTagId, measurement.x, measurement.y)) return false;
+      }
+    }
+
+    double xyStdDev;
+    double rotStdDev;
+
+    if (measurement.tagCount >= 2) {
+      xyStdDev = 0.5;
+      rotStdDev = 6;
+    } else if (measurement.mainTagArea > 0.8 && poseDifference < 0.5) {
+      xyStdDev = 1;
+      rotStdDev = 12;
+    } else if (measurement.mainTagArea > 0.1 && poseDifference < 0.3) {
+      xyStdDev = 2;
+      rotStdDev = 30;
+    } else {
+      return false;
+    }
+
+    measurement.xyStdDev = xyStdDev * stdDevScales[camera];
+    measurement.rotStdDev = Math.toRadians(rotStdDev) * stdDevScales[camera];
+    return true;
+  }
+
+  /**
+   * Filter the frames of a camera's inputs into the merge buffer
+   * @param camera Index of the camera
+   * @param robotPose
+   */
+  private void merge(int camera, Pose2d robotPose) {
+    VisionIOInputsAutoLogged cameraInputs = inputs[camera];
+    for (int i = 0; i < cameraInputs.frameXs.length; i++) {
+      if (!hasLatestPose || cameraInputs.frameTimestamps[i] > latestPoseTimestamp) {
+        hasLatestPose = true;
+        latestPoseX = cameraInputs.frameXs[i];
+        latestPoseY = cameraInputs.frameYs[i];
+        latestPoseRotation = cameraInputs.frameRotations[i];
+        latestPoseTimestamp = cameraInputs.frameTimestamps[i];
+      }
+
+      if (mergedCount == merged.length) {
+        overflowMeasurements++;
+        continue;
+      }
+      VisionMeasurement measurement = merged[mergedCount];
+      measurement.setFrame(
+        cameraInputs.frameXs[i],
+        cameraInputs.frameYs[i],
+        cameraInputs.frameRotations[i],
+        cameraInputs.frameTimestamps[i],
+        cameraInputs.frameTagCounts[i],
+        cameraInputs.frameMainTagIds[i],
+        cameraInputs.frameMainTagAreas[i],
+        cameraInputs.frameMainTagAmbiguities[i]
+      );
+
+      if (filter(measurement, camera, robotPose)) mergedCount++;
+      else rejectedFrames[camera]++;
+    }
+  }
+
+  @Override
+  public void periodic() {
+    loopProfiler.begin();
+    Pose2d robotPose = robotPoseSupplier.get();
+
+    // Filter the frames of every camera (from the log when replaying)
+    mergedCount = 0;
+    for (int i = 0; i < cameras.length; i++) {
+      cameras[i].periodic();
+      cameras[i].updateInputs(inputs[i]);
+      Logger.processInputs(inputKeys[i], inputs[i]);
+      merge(i, robotPose);
+
+      Logger.recordOutput(rejectedFramesKeys[i], rejectedFrames[i]);
+      Logger.recordOutput(farFramesKeys[i], farFrames[i]);
+    }
+
+    // Sort by capture time (insertion sort, the buffer is small and mostly sorted already)
+    for (int i = 1; i < mergedCount; i++) {
+      VisionMeasurement current = merged[i];
+      int j = i - 1;
+      while (j >= 0 && merged[j].captureTimestamp > current.captureTimestamp) {
+        merged[j + 1] = merged[j];
+        j--;
+      }
+      merged[j + 1] = current;
+    }
+
+    // Fuse them oldest first
+    for (int i = 0; i < mergedCount; i++) measurementConsumer.accept(merged[i]);
+
+    Logger.recordOutput("Vision/MeasurementsPerCycle", mergedCount);
+    Logger.recordOutput("Vision/OverflowMeasurements", overflowMeasurements);
+
+    loopProfiler.end();
+  }
+}
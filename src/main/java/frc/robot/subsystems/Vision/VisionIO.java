@@ -0,0 +1,51 @@
+package frc.robot.subsystems.Vision;
+
+import org.littletonrobotics.junction.AutoLog;
+
+public interface VisionIO {
+    @AutoLog
+    class VisionIOInputs {
+        int measurementsPerCycle;
+        int queueDepth;
+        double handoffLatencyMs;
+
+        double parseMs;
+        double maxParseMs;
+
+        long newFrames;
+        long duplicateFrames;
+        long emptyFrames;
+        long droppedMeasurements;
+
+        // Frames received since the last cycle, oldest first, unfiltered (field relative, blue origin)
+        double[] frameXs = new double[0];
+        double[] frameYs = new double[0];
+        double[] frameRotations = new double[0];
+        double[] frameTimestamps = new double[0];
+        int[] frameTagCounts = new int[0];
+        int[] frameMainTagIds = new int[0];
+        double[] frameMainTagAreas = new double[0];
+        double[] frameMainTagAmbiguities = new double[0];
+    }
+
+    /**
+     * Get the name of the camera
+     * @return
+     */
+    public String getName();
+
+    /**
+     * Get the multiplier of the standard deviations of this camera's measurements (higher = trust the camera less)
+     * @return
+     */
+    public default double getStdDevScale() {
+        return 1;
+    }
+
+    /**
+     * Fill the inputs with the frames received since the last call and the camera stats
+     * @param inputs
+     */
+    public default void updateInputs(VisionIOInputs inputs) {}
+    public default void periodic() {}
+}
@@ -0,0 +1,30 @@
+package frc.robot.subsystems.Vision;
+
+import lib.team3526.constants.CameraOptions;
+
+/**
+ * A Limelight, processed on its own {@link LimelightVisionThread}
+ */
+public class VisionIOLimelight implements VisionIO {
+    LimelightVisionThread thread;
+    double stdDevScale;
+
+    public VisionIOLimelight(CameraOptions options) {
+        // The Limelight uses the mounting pose set in its web UI, options.robotToCamera is not pushed to it
+        this.thread = new LimelightVisionThread(options.name);
+        this.stdDevScale = options.stdDevScale;
+        this.thread.start();
+    }
+
+    public String getName() {
+        return thread.getName();
+    }
+
+    public double getStdDevScale() {
+        return stdDevScale;
+    }
+
+    public void updateInputs(VisionIOInputs inputs) {
+        thread.updateInputs(inputs);
+    }
+}
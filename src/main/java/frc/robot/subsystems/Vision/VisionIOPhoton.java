@@ -0,0 +1,33 @@
+package frc.robot.subsystems.Vision;
+
+import org.photonvision.PhotonCamera;
+
+import lib.team3526.constants.CameraOptions;
+
+/**
+ * A PhotonVision camera, processed on its own {@link PhotonVisionThread}
+ */
+public class VisionIOPhoton implements VisionIO {
+    PhotonCamera camera;
+    PhotonVisionThread thread;
+    double stdDevScale;
+
+    public VisionIOPhoton(CameraOptions options) {
+        this.camera = new PhotonCamera(options.name);
+        this.thread = new PhotonVisionThread(camera, options.robotToCamera);
+        this.stdDevScale = options.stdDevScale;
+        this.thread.start();
+    }
+
+    public String getName() {
+        return thread.getName();
+    }
+
+    public double getStdDevScale() {
+        return stdDevScale;
+    }
+
+    public void updateInputs(VisionIOInputs inputs) {
+        thread.updateInputs(inputs);
+    }
+}
@@ -0,0 +1,57 @@
+package frc.robot.subsystems.Vision;
+
+import java.util.function.Supplier;
+
+import org.photonvision.simulation.PhotonCameraSim;
+import org.photonvision.simulation.SimCameraProperties;
+import org.photonvision.simulation.VisionSystemSim;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.Constants;
+import lib.team3526.field.AprilTagFieldGeometry;
+import lib.team3526.constants.CameraOptions;
+
+/**
+ * A simulated PhotonVision camera. Renders the field tags from the ground truth robot pose, the frames then go
+ * through the same estimator and thread as a real camera.
+ */
+public class VisionIOPhotonSim extends VisionIOPhoton {
+    // * Shared by every simulated camera, updated once per loop by the first one
+    static VisionSystemSim visionSim;
+
+    PhotonCameraSim cameraSim;
+    Supplier<Pose2d> groundTruthPoseSupplier;
+    boolean updatesVisionSim = false;
+
+    /**
+     * Create a simulated camera
+     * @param options
+     * @param groundTruthPoseSupplier Supplies the simulated (real) robot pose, not the estimated one
+     */
+    public VisionIOPhotonSim(CameraOptions options, Supplier<Pose2d> groundTruthPoseSupplier) {
+        super(options);
+        this.groundTruthPoseSupplier = groundTruthPoseSupplier;
+
+        if (visionSim == null) {
+            visionSim = new VisionSystemSim("main");
+            visionSim.addAprilTags(AprilTagFieldGeometry.get(Constants.Vision.kAprilTagField).getLayout());
+            this.updatesVisionSim = true;
+        }
+
+        SimCameraProperties properties = new SimCameraProperties();
+        properties.setCalibration(Constants.Vision.Simulation.kResolutionWidth, Constants.Vision.Simulation.kResolutionHeight, Rotation2d.fromDegrees(Constants.Vision.Simulation.kFovDegrees));
+        properties.setCalibError(Constants.Vision.Simulation.kAvgErrorPx, Constants.Vision.Simulation.kErrorStdDevPx);
+        properties.setFPS(Constants.Vision.Simulation.kFps);
+        properties.setAvgLatencyMs(Constants.Vision.Simulation.kAvgLatencyMs);
+        properties.setLatencyStdDevMs(Constants.Vision.Simulation.kLatencyStdDevMs);
+
+        this.cameraSim = new PhotonCameraSim(camera, properties);
+        visionSim.addCamera(cameraSim, options.robotToCamera);
+    }
+
+    @Override
+    public void periodic() {
+        if (updatesVisionSim) visionSim.update(groundTruthPoseSupplier.get());
+    }
+}
@@ -0,0 +1,104 @@
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * A robot pose measured by a camera. The camera threads fill the frame, {@link Vision} picks the standard deviations
+ * before fusing it into the pose estimator.
+ * Instances are reused by the vision queues, copy the values out before releasing them.
+ */
+public class VisionMeasurement {
+    // * Robot pose (field relative, blue origin)
+    public double x;
+    public double y;
+    public double rotationRadians;
+
+    // * FPGA timestamp of the frame capture (seconds)
+    public double captureTimestamp;
+
+    // * Tags the pose was solved from (a single tag estimate is solved from the main tag)
+    public int tagCount;
+    public int mainTagId = -1;
+    public double mainTagArea;
+    public double mainTagAmbiguity;
+
+    // * FPGA timestamp at which the measurement was handed to the main loop (seconds)
+    public double publishTimestamp;
+
+    // * Standard deviations
+    public double xyStdDev;
+    public double rotStdDev;
+
+    /**
+     * Set every value of the measurement
+     * @param pose
+     * @param captureTimestamp
+     * @param xyStdDev
+     * @param rotStdDev
+     */
+    public void set(Pose2d pose, double captureTimestamp, double xyStdDev, double rotStdDev) {
+        set(pose.getX(), pose.getY(), pose.getRotation().getRadians(), captureTimestamp, xyStdDev, rotStdDev);
+    }
+
+    /**
+     * Set every value of the measurement
+     * @param x
+     * @param y
+     * @param rotationRadians
+     * @param captureTimestamp
+     * @param xyStdDev
+     * @param rotStdDev
+     */
+    public void set(double x, double y, double rotationRadians, double captureTimestamp, double xyStdDev, double rotStdDev) {
+        this.x = x;
+        this.y = y;
+        this.rotationRadians = rotationRadians;
+        this.captureTimestamp = captureTimestamp;
+        this.xyStdDev = xyStdDev;
+        this.rotStdDev = rotStdDev;
+    }
+
+    /**
+     * Set the values measured by the camera
+     * @param x
+     * @param y
+     * @param rotationRadians
+     * @param captureTimestamp
+     * @param tagCount
+     * @param mainTagId
+     * @param mainTagArea
+     * @param mainTagAmbiguity
+     */
+    public void setFrame(double x, double y, double rotationRadians, double captureTimestamp, int tagCount, int mainTagId, double mainTagArea, double mainTagAmbiguity) {
+        this.x = x;
+        this.y = y;
+        this.rotationRadians = rotationRadians;
+        this.captureTimestamp = captureTimestamp;
+        this.tagCount = tagCount;
+        this.mainTagId = mainTagId;
+        this.mainTagArea = mainTagArea;
+        this.mainTagAmbiguity = mainTagAmbiguity;
+    }
+
+    /**
+     * Copy every value from another measurement
+     * @param other
+     */
+    public void copyFrom(VisionMeasurement other) {
+        set(other.x, other.y, other.rotationRadians, other.captureTimestamp, other.xyStdDev, other.rotStdDev);
+        this.tagCount = other.tagCount;
+        this.mainTagId = other.mainTagId;
+        this.mainTagArea = other.mainTagArea;
+        this.mainTagAmbiguity = other.mainTagAmbiguity;
+        this.publishTimestamp = other.publishTimestamp;
+    }
+
+    /**
+     * Get the measured pose
+     * @return
+     */
+    public Pose2d getPose() {
+        return new Pose2d(x, y, Rotation2d.fromRadians(rotationRadians));
+    }
+}
@@ -0,0 +1,261 @@
+package frc.robot.subsystems.Vision;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants;
+import lib.team3526.concurrent.SPSCRingBuffer;
+
+/**
+ * Fetches and parses the frames of a single camera outside of the main robot loop.
+ * <p>
+ * Every frame with a pose is handed to the main loop through a lock-free single-producer/single-consumer queue,
+ * unfiltered. The frames are logged as inputs and filtered by {@link Vision}, so a replayed log goes through the same filters.
+ */
+public abstract class VisionThread {
+    // * Camera
+    private final String name;
+
+    // * Measurement queue (this thread produces, the main loop consumes)
+    private final SPSCRingBuffer<VisionMeasurement> queue;
+
+    // * Notifier
+    private final Notifier notifier;
+
+    // * Stats (written by this thread, read by the main loop)
+    private volatile double lastParseMs = 0;
+    private volatile double maxParseMs = 0;
+    private volatile long droppedMeasurements = 0;
+    protected volatile long newFrames = 0;
+    protected volatile long duplicateFrames = 0;
+    protected volatile long emptyFrames = 0;
+
+    // * Drain stats (main loop only)
+    private int lastQueueDepth = 0;
+    private int lastDrainCount = 0;
+    private double lastHandoffLatencyMs = 0;
+
+    // * Frames drained into the inputs (main loop only)
+    private final double[] drainedXs = new double[Constants.Vision.kQueueSize];
+    private final double[] drainedYs = new double[Constants.Vision.kQueueSize];
+    private final double[] drainedRotations = new double[Constants.Vision.kQueueSize];
+    private final double[] drainedTimestamps = new double[Constants.Vision.kQueueSize];
+    private final int[] drainedTagCounts = new int[Constants.Vision.kQueueSize];
+    private final int[] drainedMainTagIds = new int[Constants.Vision.kQueueSize];
+    private final double[] drainedMainTagAreas = new double[Constants.Vision.kQueueSize];
+    private final double[] drainedMainTagAmbiguities = new double[Constants.Vision.kQueueSize];
+    private int drainedCount = 0;
+    private long overflowMeasurements = 0;
+    private final Consumer<VisionMeasurement> inputCollector = this::collect;
+
+    /**
+     * Create a new vision thread (call {@link #start()} to begin processing)
+     * @param name The name of the camera
+     */
+    protected VisionThread(String name) {
+        this.name = name;
+        this.queue = new SPSCRingBuffer<>(Constants.Vision.kQueueSize, VisionMeasurement::new);
+
+        this.notifier = new Notifier(this::process);
+        this.notifier.setName("Vision " + name);
+    }
+
+    /**
+     * Start processing frames
+     */
+    public void start() {
+        this.notifier.startPeriodic(Constants.Vision.kThreadPeriodSeconds);
+    }
+
+    /**
+     * Stop processing frames
+     */
+    public void stop() {
+        this.notifier.stop();
+    }
+
+    /**
+     * Process every frame received since the last run (runs on the vision thread)
+     */
+    protected abstract void process();
+
+    /**
+     * Record the time taken to fetch and parse a frame
+     * @param parseMs
+     */
+    protected void recordParseTime(double parseMs) {
+        this.lastParseMs = parseMs;
+        if (parseMs > this.maxParseMs) this.maxParseMs = parseMs;
+    }
+
+    /**
+     * Queue a frame for the main loop
+     * @param x
+     * @param y
+     * @param rotationRadians
+     * @param captureTimestamp
+     * @param tagCount
+     * @param mainTagId The tag a single tag estimate was solved from (-1 if unknown)
+     * @param mainTagArea
+     * @param mainTagAmbiguity The pose ambiguity of the main tag (0 if unknown)
+     */
+    protected void publish(double x, double y, double rotationRadians, double captureTimestamp, int tagCount, int mainTagId, double mainTagArea, double mainTagAmbiguity) {
+        VisionMeasurement measurement = this.queue.claim();
+        if (measurement == null) {
+            this.droppedMeasurements++;
+            return;
+        }
+
+        measurement.setFrame(x, y, rotationRadians, captureTimestamp, tagCount, mainTagId, mainTagArea, mainTagAmbiguity);
+        measurement.publishTimestamp = Timer.getFPGATimestamp();
+        this.queue.publish();
+    }
+
+    /**
+     * Pass every queued measurement (oldest first) to the consumer (main loop only)
+     * @param consumer Receives each measurement, the object is reused after it returns
+     * @return The number of measurements drained
+     */
+    public int drain(Consumer<VisionMeasurement> consumer) {
+        this.lastQueueDepth = this.queue.size();
+
+        double now = Timer.getFPGATimestamp();
+        int count = 0;
+        VisionMeasurement measurement;
+        while ((measurement = this.queue.peek()) != null) {
+            this.lastHandoffLatencyMs = (now - measurement.publishTimestamp) * 1000;
+            consumer.accept(measurement);
+            this.queue.release();
+            count++;
+        }
+
+        this.lastDrainCount = count;
+        return count;
+    }
+
+    /**
+     * Copy a drained measurement into the input buffers
+     * @param measurement
+     */
+    private void collect(VisionMeasurement measurement) {
+        // The thread can publish while we drain, anything past the queue size waits for the next cycle's budget
+        if (this.drainedCount == this.drainedXs.length) {
+            this.overflowMeasurements++;
+            return;
+        }
+        int i = this.drainedCount++;
+        this.drainedXs[i] = measurement.x;
+        this.drainedYs[i] = measurement.y;
+        this.drainedRotations[i] = measurement.rotationRadians;
+        this.drainedTimestamps[i] = measurement.captureTimestamp;
+        this.drainedTagCounts[i] = measurement.tagCount;
+        this.drainedMainTagIds[i] = measurement.mainTagId;
+        this.drainedMainTagAreas[i] = measurement.mainTagArea;
+        this.drainedMainTagAmbiguities[i] = measurement.mainTagAmbiguity;
+    }
+
+    /**
+     * Drain the queued frames into the inputs and fill the stats of this thread (main loop only).
+     * The frame arrays are new every cycle, the logger keeps a reference to them.
+     * @param inputs
+     */
+    public void updateInputs(VisionIO.VisionIOInputs inputs) {
+        this.drainedCount = 0;
+        drain(this.inputCollector);
+
+        inputs.frameXs = Arrays.copyOf(this.drainedXs, this.drainedCount);
+        inputs.frameYs = Arrays.copyOf(this.drainedYs, this.drainedCount);
+        inputs.frameRotations = Arrays.copyOf(this.drainedRotations, this.drainedCount);
+        inputs.frameTimestamps = Arrays.copyOf(this.drainedTimestamps, this.drainedCount);
+        inputs.frameTagCounts = Arrays.copyOf(this.drainedTagCounts, this.drainedCount);
+        inputs.frameMainTagIds = Arrays.copyOf(this.drainedMainTagIds, this.drainedCount);
+        inputs.frameMainTagAreas = Arrays.copyOf(this.drainedMainTagAreas, this.drainedCount);
+        inputs.frameMainTagAmbiguities = Arrays.copyOf(this.drainedMainTagAmbiguities, this.drainedCount);
+
+        inputs.measurementsPerCycle = this.lastDrainCount;
+        inputs.queueDepth = this.lastQueueDepth;
+        inputs.handoffLatencyMs = this.lastHandoffLatencyMs;
+
+        inputs.parseMs = this.lastParseMs;
+        inputs.maxParseMs = this.maxParseMs;
+
+        inputs.newFrames = this.newFrames;
+        inputs.duplicateFrames = this.duplicateFrames;
+        inputs.emptyFrames = this.emptyFrames;
+        inputs.droppedMeasurements = this.droppedMeasurements + this.overflowMeasurements;
+    }
+
+    /**
+     * Get the name of the camera
+     * @return
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Get the time taken to fetch and parse the last frame
+     * @return
+     */
+    public double getLastParseMs() {
+        return this.lastParseMs;
+    }
+
+    /**
+     * Get the longest time taken to fetch and parse a frame
+     * @return
+     */
+    public double getMaxParseMs() {
+        return this.maxParseMs;
+    }
+
+    /**
+     * Get the number of distinct frames received from the camera
+     * @return
+     */
+    public long getNewFrames() {
+        return this.newFrames;
+    }
+
+    /**
+     * Get the number of frames ignored because they had already been processed
+     * @return
+     */
+    public long getDuplicateFrames() {
+        return this.duplicateFrames;
+    }
+
+    /**
+     * Get the number of new frames that had no pose (no targets or no estimate)
+     * @return
+     */
+    public long getEmptyFrames() {
+        return this.emptyFrames;
+    }
+
+    /**
+     * Get the number of measurements dropped because the queue was full
+     * @return
+     */
+    public long getDroppedMeasurements() {
+        return this.droppedMeasurements;
+    }
+
+    /**
+     * Get the number of measurements that were waiting in the queue on the last drain
+     * @return
+     */
+    public int getLastQueueDepth() {
+        return this.lastQueueDepth;
+    }
+
+    /**
+     * Get the time between the last drained measurement being published and consumed
+     * @return
+     */
+    public double getLastHandoffLatencyMs() {
+        return this.lastHandoffLatencyMs;
+    }
+}
@@ -0,0 +1,176 @@
+package lib.team3526.auto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+
+/**
+ * Gets the selected auto ready while the robot is disabled, so its first cycle does not pay for building and cold code.
+ * <p>
+ * When the selection changes the auto is built (auto and path files, named command wrappers, command groups). Then,
+ * a little every disabled loop, its paths are run through the follower, the kinematics and a scratch pose estimator
+ * with the outputs thrown away, until the JIT has compiled them. Nothing is sent to the mechanisms: the named commands
+ * are built but not run, since they drive the LEDs and leave setpoints behind.
+ */
+public class AutoPrewarmer {
+    // * Follower samples per warm-up step
+    private static final int kSamplesPerStep = 50;
+    private static final double kLoopPeriodSeconds = 0.02;
+
+    // * Config
+    private final Supplier<String> selectedAuto;
+    private final SwerveDriveKinematics kinematics;
+    private final double maxSpeedMetersPerSecond;
+    private final double budgetSeconds;
+    private final int warmUpSamples;
+
+    // * Prepared auto
+    private String preparedName = null;
+    private Command prepared = null;
+    private List<FollowCachedPath> paths = new ArrayList<>();
+    private Boolean preparedForRed = null;
+    private int samplesDone = 0;
+    private int nextPath = 0;
+
+    // * Scratch drive (kinematics and estimator outputs go nowhere)
+    private final SwerveModulePosition[] positions;
+    private final SwerveDrivePoseEstimator estimator;
+    private double heading = 0;
+    private double time = 0;
+
+    /**
+     * Create a prewarmer
+     * @param selectedAuto Name of the selected auto (empty or null for none)
+     * @param kinematics
+     * @param maxSpeedMetersPerSecond Max module speed
+     * @param budgetSeconds Time spent warming up every disabled loop
+     * @param warmUpSamples Follower samples to run per auto (and alliance) before it is considered warm
+     */
+    public AutoPrewarmer(Supplier<String> selectedAuto, SwerveDriveKinematics kinematics, double maxSpeedMetersPerSecond, double budgetSeconds, int warmUpSamples) {
+        this.selectedAuto = selectedAuto;
+        this.kinematics = kinematics;
+        this.maxSpeedMetersPerSecond = maxSpeedMetersPerSecond;
+        this.budgetSeconds = budgetSeconds;
+        this.warmUpSamples = warmUpSamples;
+
+        this.positions = new SwerveModulePosition[kinematics.toSwerveModuleStates(new ChassisSpeeds()).length];
+        for (int i = 0; i < this.positions.length; i++) this.positions[i] = new SwerveModulePosition();
+        this.estimator = new SwerveDrivePoseEstimator(kinematics, new Rotation2d(), this.positions, new Pose2d());
+    }
+
+    /**
+     * Build and warm up the selected auto (call every disabled loop)
+     */
+    public void periodic() {
+        String name = this.selectedAuto.get();
+        if (name == null) name = "";
+
+        if (!name.equals(this.preparedName)) {
+            long start = System.nanoTime();
+            this.paths = new ArrayList<>();
+            try {
+                this.prepared = name.isEmpty() ? Commands.none() : CachedAutoBuilder.buildAuto(name, this.paths);
+            } catch (RuntimeException e) {
+                DriverStation.reportError("Failed to build the auto " + name + ": " + e.getMessage(), false);
+                this.prepared = null;
+            }
+            this.preparedName = name;
+            this.preparedForRed = null;
+            Logger.recordOutput("Auto/Prewarm/Auto", name);
+            Logger.recordOutput("Auto/Prewarm/BuildMs", (System.nanoTime() - start) / 1e6);
+            return;
+        }
+
+        // The red paths are other trajectories, warm them up again when the alliance changes
+        boolean red = DriverStation.getAlliance().isPresent() && DriverStation.getAlliance().get() == DriverStation.Alliance.Red;
+        if (this.preparedForRed == null || this.preparedForRed != red) {
+            this.preparedForRed = red;
+            this.samplesDone = 0;
+            this.nextPath = 0;
+        }
+
+        if (isWarm()) return;
+
+        long start = System.nanoTime();
+        long budgetNanos = (long) (this.budgetSeconds * 1e9);
+        boolean anyCached = false;
+        int attempts = 0;
+        while (System.nanoTime() - start < budgetNanos && this.samplesDone < this.warmUpSamples && attempts < this.paths.size()) {
+            FollowCachedPath path = this.paths.get(this.nextPath);
+            this.nextPath = (this.nextPath + 1) % this.paths.size();
+            if (path.warmUp(kSamplesPerStep, this::drive)) {
+                this.samplesDone += kSamplesPerStep;
+                anyCached = true;
+                attempts = 0;
+            } else {
+                attempts++;
+            }
+        }
+        // Nothing to warm up (no paths or none cached)
+        if (!anyCached && attempts >= this.paths.size()) this.samplesDone = this.warmUpSamples;
+
+        Logger.recordOutput("Auto/Prewarm/Samples", this.samplesDone);
+        Logger.recordOutput("Auto/Prewarm/StepMs", (System.nanoTime() - start) / 1e6);
+        Logger.recordOutput("Auto/Prewarm/Warm", isWarm());
+    }
+
+    /**
+     * Check if the selected auto is built and warmed up
+     * @return
+     */
+    public boolean isWarm() {
+        String name = this.selectedAuto.get();
+        return this.prepared != null && (name == null ? "" : name).equals(this.preparedName) && this.samplesDone >= this.warmUpSamples;
+    }
+
+    /**
+     * Get the command of an auto, prepared if it is the one that was warmed up (built now otherwise)
+     * @param autoName
+     * @return
+     */
+    public Command getAuto(String autoName) {
+        if (autoName == null) autoName = "";
+        if (autoName.equals(this.preparedName) && this.prepared != null) return this.prepared;
+        if (autoName.isEmpty()) return Commands.none();
+
+        try {
+            return CachedAutoBuilder.buildAuto(autoName);
+        } catch (RuntimeException e) {
+            DriverStation.reportError("Failed to build the auto " + autoName + ": " + e.getMessage(), false);
+            return Commands.none();
+        }
+    }
+
+    /**
+     * What the drive would do with the follower output: module states, optimization and odometry (all discarded)
+     */
+    private void drive(ChassisSpeeds speeds) {
+        SwerveModuleState[] states = this.kinematics.toSwerveModuleStates(speeds);
+        SwerveDriveKinematics.desaturateWheelSpeeds(states, this.maxSpeedMetersPerSecond);
+
+        this.time += kLoopPeriodSeconds;
+        this.heading += speeds.omegaRadiansPerSecond * kLoopPeriodSeconds;
+        for (int i = 0; i < states.length; i++) {
+            SwerveModuleState optimized = SwerveModuleState.optimize(states[i], this.positions[i].angle);
+            this.positions[i].distanceMeters += optimized.speedMetersPerSecond * kLoopPeriodSeconds;
+            this.positions[i].angle = optimized.angle;
+        }
+
+        Rotation2d gyro = Rotation2d.fromRadians(this.heading);
+        Pose2d pose = this.estimator.updateWithTime(this.time, gyro, this.positions);
+        this.estimator.addVisionMeasurement(pose, this.time - kLoopPeriodSeconds);
+    }
+}
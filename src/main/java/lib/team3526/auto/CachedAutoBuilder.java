@@ -0,0 +1,226 @@
+package lib.team3526.auto;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.auto.NamedCommands;
+import com.pathplanner.lib.util.GeometryUtil;
+import com.pathplanner.lib.util.HolonomicPathFollowerConfig;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.FunctionalCommand;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+/**
+ * Builds PathPlanner autos whose paths follow the pre-generated {@link TrajectoryCache} ({@link FollowCachedPath}).
+ * <p>
+ * Nothing is read at startup: {@link #getAutoNames()} only lists the auto files and an auto (with its paths) is only
+ * parsed when it is built. Supports the same commands as PathPlanner (wait, named, path, sequential, parallel, race, deadline).
+ */
+public final class CachedAutoBuilder {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    // * Drive (same as the PathPlanner AutoBuilder config)
+    private static Supplier<Pose2d> poseSupplier;
+    private static Consumer<Pose2d> resetPose;
+    private static Supplier<ChassisSpeeds> robotRelativeSpeedsSupplier;
+    private static Consumer<ChassisSpeeds> robotRelativeOutput;
+    private static HolonomicPathFollowerConfig config;
+    private static BooleanSupplier shouldFlipPath;
+    private static Subsystem driveSubsystem;
+
+    private CachedAutoBuilder() {}
+
+    /**
+     * Configure the drive used by the autos (call next to AutoBuilder.configureHolonomic, with the same arguments)
+     */
+    public static synchronized void configure(
+        Supplier<Pose2d> poseSupplier,
+        Consumer<Pose2d> resetPose,
+        Supplier<ChassisSpeeds> robotRelativeSpeedsSupplier,
+        Consumer<ChassisSpeeds> robotRelativeOutput,
+        HolonomicPathFollowerConfig config,
+        BooleanSupplier shouldFlipPath,
+        Subsystem driveSubsystem
+    ) {
+        CachedAutoBuilder.poseSupplier = poseSupplier;
+        CachedAutoBuilder.resetPose = resetPose;
+        CachedAutoBuilder.robotRelativeSpeedsSupplier = robotRelativeSpeedsSupplier;
+        CachedAutoBuilder.robotRelativeOutput = robotRelativeOutput;
+        CachedAutoBuilder.config = config;
+        CachedAutoBuilder.shouldFlipPath = shouldFlipPath;
+        CachedAutoBuilder.driveSubsystem = driveSubsystem;
+    }
+
+    /**
+     * Get the names of every auto in the deploy directory (the files are not read)
+     * @return
+     */
+    public static List<String> getAutoNames() {
+        List<String> autos = new ArrayList<>();
+        File[] files = new File(Filesystem.getDeployDirectory(), "pathplanner/autos").listFiles();
+        if (files == null) return autos;
+
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(".auto")) autos.add(name.substring(0, name.length() - ".auto".length()));
+        }
+        autos.sort(null);
+        return autos;
+    }
+
+    /**
+     * Build an auto
+     * @param autoName Name of the .auto file
+     * @return
+     */
+    public static Command buildAuto(String autoName) {
+        return buildAuto(autoName, new ArrayList<>());
+    }
+
+    /**
+     * Build an auto and get the paths it follows
+     * @param autoName Name of the .auto file
+     * @param paths Receives every path command of the auto (e.g. to warm them up)
+     * @return
+     */
+    public static Command buildAuto(String autoName, List<FollowCachedPath> paths) {
+        JsonNode auto = readJson(new File(Filesystem.getDeployDirectory(), "pathplanner/autos/" + autoName + ".auto"));
+        Command command = buildCommand(auto.get("command"), paths);
+
+        JsonNode startingPose = auto.get("startingPose");
+        if (startingPose == null || startingPose.isNull()) return command.withName(autoName);
+
+        Consumer<Pose2d> reset;
+        BooleanSupplier flip;
+        synchronized (CachedAutoBuilder.class) {
+            reset = resetPose;
+            flip = shouldFlipPath;
+        }
+        if (reset == null) throw new IllegalStateException("CachedAutoBuilder was not configured");
+
+        Pose2d pose = new Pose2d(
+            startingPose.get("position").get("x").asDouble(),
+            startingPose.get("position").get("y").asDouble(),
+            Rotation2d.fromDegrees(startingPose.get("rotation").asDouble())
+        );
+        return Commands.sequence(
+            Commands.runOnce(() -> reset.accept(flip.getAsBoolean() ? GeometryUtil.flipFieldPose(pose) : pose)),
+            command
+        ).withName(autoName);
+    }
+
+    /**
+     * Build a command that follows the cached trajectory of a path
+     * @param pathName Name of the .path file
+     * @return
+     */
+    public static Command followPath(String pathName) {
+        return createPath(pathName);
+    }
+
+    private static synchronized FollowCachedPath createPath(String pathName) {
+        if (config == null) throw new IllegalStateException("CachedAutoBuilder was not configured");
+        return new FollowCachedPath(pathName, poseSupplier, robotRelativeSpeedsSupplier, robotRelativeOutput, config, shouldFlipPath, driveSubsystem);
+    }
+
+    /**
+     * Build a command from its PathPlanner JSON (autos and event markers)
+     * @param command
+     * @param paths Receives the path commands that are built
+     * @return
+     */
+    static Command buildCommand(JsonNode command, List<FollowCachedPath> paths) {
+        JsonNode data = command.get("data");
+        switch (command.get("type").asText()) {
+            case "wait":
+                return Commands.waitSeconds(data.get("waitTime").asDouble());
+            case "named":
+                return namedCommand(data.get("name").asText());
+            case "path":
+                FollowCachedPath path = createPath(data.get("pathName").asText());
+                paths.add(path);
+                return path;
+            case "sequential":
+                return Commands.sequence(buildCommands(data.get("commands"), paths));
+            case "parallel":
+                return Commands.parallel(buildCommands(data.get("commands"), paths));
+            case "race":
+                return Commands.race(buildCommands(data.get("commands"), paths));
+            case "deadline":
+                Command[] commands = buildCommands(data.get("commands"), paths);
+                if (commands.length == 0) return Commands.none();
+                Command[] others = new Command[commands.length - 1];
+                System.arraycopy(commands, 1, others, 0, others.length);
+                return Commands.deadline(commands[0], others);
+            default:
+                DriverStation.reportWarning("Unknown auto command type " + command.get("type").asText(), false);
+                return Commands.none();
+        }
+    }
+
+    /**
+     * Read a PathPlanner JSON file
+     * @param file
+     * @return
+     */
+    static JsonNode readJson(File file) {
+        try {
+            return mapper.readTree(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read " + file, e);
+        }
+    }
+
+    /**
+     * Read a PathPlanner JSON file from bytes that were already loaded
+     * @param bytes
+     * @param name For the error message
+     * @return
+     */
+    static JsonNode readJson(byte[] bytes, String name) {
+        try {
+            return mapper.readTree(bytes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to parse " + name, e);
+        }
+    }
+
+    private static Command[] buildCommands(JsonNode commands, List<FollowCachedPath> paths) {
+        Command[] built = new Command[commands.size()];
+        for (int i = 0; i < built.length; i++) built[i] = buildCommand(commands.get(i), paths);
+        return built;
+    }
+
+    /**
+     * Wrap a registered named command so the same one can be used in several places (and several autos)
+     */
+    private static Command namedCommand(String name) {
+        if (!NamedCommands.hasCommand(name)) {
+            DriverStation.reportWarning("Auto uses the unregistered named command " + name, false);
+            return Commands.none();
+        }
+
+        Command command = NamedCommands.getCommand(name);
+        return new FunctionalCommand(
+            command::initialize,
+            command::execute,
+            command::end,
+            command::isFinished,
+            command.getRequirements().toArray(new Subsystem[0])
+        ).withName(name);
+    }
+}
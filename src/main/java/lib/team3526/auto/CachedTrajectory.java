@@ -0,0 +1,211 @@
+package lib.team3526.auto;
+
+import java.nio.ByteBuffer;
+
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerTrajectory;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * A pre-generated PathPlanner trajectory, read straight from the memory mapped {@link TrajectoryCache} file.
+ * <p>
+ * Every state is a row of floats (see the field indices below), sampled the same way PathPlanner interpolates its states.
+ */
+public final class CachedTrajectory {
+    // * State layout
+    static final int kTime = 0;
+    static final int kX = 1;
+    static final int kY = 2;
+    static final int kHeading = 3;
+    static final int kVelocity = 4;
+    static final int kAcceleration = 5;
+    static final int kHeadingAngularVelocity = 6;
+    static final int kTargetRotation = 7;
+    static final int kCurvature = 8;
+    static final int kMaxVelocity = 9;
+    static final int kMaxAcceleration = 10;
+    static final int kMaxAngularVelocity = 11;
+    static final int kMaxAngularAcceleration = 12;
+    static final int kFields = 13;
+
+    private final ByteBuffer data;
+    private final int offset;
+    private final int stateCount;
+    private final long pathChecksum;
+
+    // * Built on the first sample (the same few objects are shared by every state)
+    private volatile PathConstraints[] constraints;
+
+    CachedTrajectory(ByteBuffer data, int offset, int stateCount, long pathChecksum) {
+        if (stateCount < 1) throw new IllegalArgumentException("A trajectory needs at least one state");
+        this.data = data;
+        this.offset = offset;
+        this.stateCount = stateCount;
+        this.pathChecksum = pathChecksum;
+    }
+
+    /**
+     * Pack the states of a generated trajectory into the cached layout
+     * @param trajectory
+     * @return
+     */
+    public static float[] pack(PathPlannerTrajectory trajectory) {
+        float[] packed = new float[trajectory.getStates().size() * kFields];
+        int row = 0;
+        for (PathPlannerTrajectory.State state : trajectory.getStates()) {
+            packed[row + kTime] = (float) state.timeSeconds;
+            packed[row + kX] = (float) state.positionMeters.getX();
+            packed[row + kY] = (float) state.positionMeters.getY();
+            packed[row + kHeading] = (float) state.heading.getRadians();
+            packed[row + kVelocity] = (float) state.velocityMps;
+            packed[row + kAcceleration] = (float) state.accelerationMpsSq;
+            packed[row + kHeadingAngularVelocity] = (float) state.headingAngularVelocityRps;
+            packed[row + kTargetRotation] = (float) state.targetHolonomicRotation.getRadians();
+            packed[row + kCurvature] = (float) state.curvatureRadPerMeter;
+            packed[row + kMaxVelocity] = (float) state.constraints.getMaxVelocityMps();
+            packed[row + kMaxAcceleration] = (float) state.constraints.getMaxAccelerationMpsSq();
+            packed[row + kMaxAngularVelocity] = (float) state.constraints.getMaxAngularVelocityRps();
+            packed[row + kMaxAngularAcceleration] = (float) state.constraints.getMaxAngularAccelerationRpsSq();
+            row += kFields;
+        }
+        return packed;
+    }
+
+    /**
+     * Get a field of a state
+     * @param state
+     * @param field
+     * @return
+     */
+    float get(int state, int field) {
+        return this.data.getFloat(this.offset + (state * kFields + field) * Float.BYTES);
+    }
+
+    public int getStateCount() {
+        return this.stateCount;
+    }
+
+    /**
+     * Get the checksum of the path file this trajectory was generated from
+     * @return
+     */
+    public long getPathChecksum() {
+        return this.pathChecksum;
+    }
+
+    public double getTotalTimeSeconds() {
+        return get(this.stateCount - 1, kTime);
+    }
+
+    public double getTimeSeconds(int state) {
+        return get(state, kTime);
+    }
+
+    public double getX(int state) {
+        return get(state, kX);
+    }
+
+    public double getY(int state) {
+        return get(state, kY);
+    }
+
+    public double getTargetRotationRadians(int state) {
+        return get(state, kTargetRotation);
+    }
+
+    public double getEndVelocity() {
+        return get(this.stateCount - 1, kVelocity);
+    }
+
+    /**
+     * Get the state closest to a point, looking only at the states after another one
+     * @param x
+     * @param y
+     * @param fromState First state to look at
+     * @return
+     */
+    public int getClosestState(double x, double y, int fromState) {
+        int closest = Math.min(Math.max(fromState, 0), this.stateCount - 1);
+        double closestDistance = Double.POSITIVE_INFINITY;
+        for (int i = closest; i < this.stateCount; i++) {
+            double distance = Math.hypot(get(i, kX) - x, get(i, kY) - y);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = i;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Get the target state at a time (interpolated between the two closest states)
+     * @param timeSeconds
+     * @return
+     */
+    public PathPlannerTrajectory.State sample(double timeSeconds) {
+        if (timeSeconds <= get(0, kTime)) return state(0, 0, 1, timeSeconds);
+        if (timeSeconds >= getTotalTimeSeconds()) return state(this.stateCount - 1, this.stateCount - 1, 1, timeSeconds);
+
+        // First state at or after the time
+        int low = 1;
+        int high = this.stateCount - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (get(mid, kTime) < timeSeconds) low = mid + 1;
+            else high = mid;
+        }
+
+        double previousTime = get(low - 1, kTime);
+        double span = get(low, kTime) - previousTime;
+        double t = span > 0 ? (timeSeconds - previousTime) / span : 1;
+        return state(low - 1, low, t, timeSeconds);
+    }
+
+    private PathPlannerTrajectory.State state(int from, int to, double t, double timeSeconds) {
+        PathPlannerTrajectory.State state = new PathPlannerTrajectory.State();
+        state.timeSeconds = timeSeconds;
+        state.velocityMps = lerp(from, to, kVelocity, t);
+        state.accelerationMpsSq = lerp(from, to, kAcceleration, t);
+        state.headingAngularVelocityRps = lerp(from, to, kHeadingAngularVelocity, t);
+        state.curvatureRadPerMeter = lerp(from, to, kCurvature, t);
+        state.positionMeters = new Translation2d(lerp(from, to, kX, t), lerp(from, to, kY, t));
+        state.heading = Rotation2d.fromRadians(lerpAngle(from, to, kHeading, t));
+        state.targetHolonomicRotation = Rotation2d.fromRadians(lerpAngle(from, to, kTargetRotation, t));
+        state.constraints = getConstraints()[from];
+        return state;
+    }
+
+    private double lerp(int from, int to, int field, double t) {
+        double start = get(from, field);
+        return start + (get(to, field) - start) * t;
+    }
+
+    private double lerpAngle(int from, int to, int field, double t) {
+        double start = get(from, field);
+        return start + MathUtil.angleModulus(get(to, field) - start) * t;
+    }
+
+    private PathConstraints[] getConstraints() {
+        PathConstraints[] built = this.constraints;
+        if (built != null) return built;
+
+        // Building it twice from two threads is harmless
+        built = new PathConstraints[this.stateCount];
+        for (int i = 0; i < this.stateCount; i++) {
+            if (i > 0
+                && get(i, kMaxVelocity) == get(i - 1, kMaxVelocity)
+                && get(i, kMaxAcceleration) == get(i - 1, kMaxAcceleration)
+                && get(i, kMaxAngularVelocity) == get(i - 1, kMaxAngularVelocity)
+                && get(i, kMaxAngularAcceleration) == get(i - 1, kMaxAngularAcceleration)) {
+                built[i] = built[i - 1];
+                continue;
+            }
+            built[i] = new PathConstraints(get(i, kMaxVelocity), get(i, kMaxAcceleration), get(i, kMaxAngularVelocity), get(i, kMaxAngularAcceleration));
+        }
+        this.constraints = built;
+        return built;
+    }
+}
@@ -0,0 +1,321 @@
+package lib.team3526.auto;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.path.PathPlannerTrajectory;
+import com.pathplanner.lib.util.GeometryUtil;
+import com.pathplanner.lib.util.HolonomicPathFollowerConfig;
+import com.pathplanner.lib.util.PathPlannerLogging;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+/**
+ * Follows a PathPlanner path using its trajectory from the {@link TrajectoryCache}, so nothing is generated when it starts.
+ * <p>
+ * The cached trajectories start from rest at the start of the path. When the robot is somewhere else (or moving), the
+ * cache is missing or the path changed since it was generated, PathPlanner's own follow command is used instead.
+ * Event markers are triggered when the trajectory reaches them (by time) and run alongside the path like in PathPlanner.
+ */
+public class FollowCachedPath extends Command {
+    // * Same limits as PathPlanner's initial replanning, past them the path is generated from where the robot is
+    private static final double kMaxStartErrorMeters = 0.25;
+    private static final double kMaxStartSpeedMetersPerSecond = 0.25;
+    private static final double kMaxStartRotationErrorRadians = Math.toRadians(10);
+
+    // * Path
+    private final String pathName;
+    private final CachedTrajectory blueTrajectory;
+    private final CachedTrajectory redTrajectory;
+    private final Marker[] markers;
+
+    // * Drive
+    private final Supplier<Pose2d> poseSupplier;
+    private final Supplier<ChassisSpeeds> robotRelativeSpeedsSupplier;
+    private final Consumer<ChassisSpeeds> robotRelativeOutput;
+    private final BooleanSupplier shouldFlipPath;
+    private final HolonomicPathFollowerConfig config;
+    private final PPHolonomicDriveController controller;
+    private PPHolonomicDriveController warmUpController;
+
+    // * Current run
+    private final Timer timer = new Timer();
+    private CachedTrajectory trajectory;
+    private boolean flipped;
+    private Command fallback;
+
+    private static final class Marker {
+        final double position;
+        final Command command;
+        double blueTimeSeconds = Double.POSITIVE_INFINITY;
+        double redTimeSeconds = Double.POSITIVE_INFINITY;
+        boolean triggered = false;
+        boolean running = false;
+
+        Marker(double position, Command command) {
+            this.position = position;
+            this.command = command;
+        }
+    }
+
+    /**
+     * Create a command that follows a cached path (see {@link CachedAutoBuilder#followPath(String)})
+     * @param pathName Name of the .path file
+     * @param poseSupplier
+     * @param robotRelativeSpeedsSupplier
+     * @param robotRelativeOutput
+     * @param config
+     * @param shouldFlipPath True to follow the red alliance version
+     * @param requirements
+     */
+    public FollowCachedPath(
+        String pathName,
+        Supplier<Pose2d> poseSupplier,
+        Supplier<ChassisSpeeds> robotRelativeSpeedsSupplier,
+        Consumer<ChassisSpeeds> robotRelativeOutput,
+        HolonomicPathFollowerConfig config,
+        BooleanSupplier shouldFlipPath,
+        Subsystem... requirements
+    ) {
+        this.pathName = pathName;
+        this.poseSupplier = poseSupplier;
+        this.robotRelativeSpeedsSupplier = robotRelativeSpeedsSupplier;
+        this.robotRelativeOutput = robotRelativeOutput;
+        this.shouldFlipPath = shouldFlipPath;
+        this.config = config;
+        this.controller = createController(config);
+
+        // Only the raw file is read: its checksum tells if the cached trajectories are still valid
+        byte[] pathFile;
+        try {
+            pathFile = Files.readAllBytes(new File(Filesystem.getDeployDirectory(), "pathplanner/paths/" + pathName + ".path").toPath());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read the path " + pathName, e);
+        }
+        long checksum = TrajectoryCache.checksum(pathFile);
+        this.blueTrajectory = validTrajectory(TrajectoryCache.get(pathName, false), checksum);
+        this.redTrajectory = validTrajectory(TrajectoryCache.get(pathName, true), checksum);
+
+        // Event markers run inside this command, so it needs their subsystems too
+        JsonNode path = CachedAutoBuilder.readJson(pathFile, pathName);
+        this.markers = buildMarkers(path);
+        addRequirements(requirements);
+        for (Marker marker : this.markers) addRequirements(marker.command.getRequirements().toArray(new Subsystem[0]));
+        if (this.blueTrajectory != null) findMarkerTimes(path, this.blueTrajectory, false);
+        if (this.redTrajectory != null) findMarkerTimes(path, this.redTrajectory, true);
+
+        setName("FollowCachedPath(" + pathName + ")");
+    }
+
+    /**
+     * Check if the path has a valid cached trajectory for both alliances
+     * @return
+     */
+    public boolean isCached() {
+        return this.blueTrajectory != null && this.redTrajectory != null;
+    }
+
+    /**
+     * Run the follower along the cached trajectory of the current alliance without driving (warms up the JIT while disabled)
+     * @param samples Number of evenly spaced points of the trajectory to run
+     * @param output Receives the speeds the follower would have sent
+     * @return False if the path is not cached
+     */
+    public boolean warmUp(int samples, Consumer<ChassisSpeeds> output) {
+        CachedTrajectory cached = this.shouldFlipPath.getAsBoolean() ? this.redTrajectory : this.blueTrajectory;
+        if (cached == null) return false;
+
+        // Its own controller, the PID state of the real one is left untouched
+        if (this.warmUpController == null) this.warmUpController = createController(this.config);
+
+        double step = cached.getTotalTimeSeconds() / Math.max(1, samples - 1);
+        for (int i = 0; i < samples; i++) {
+            PathPlannerTrajectory.State target = cached.sample(i * step);
+            Pose2d pose = new Pose2d(target.positionMeters, target.targetHolonomicRotation);
+            output.accept(this.warmUpController.calculateRobotRelativeSpeeds(pose, target));
+        }
+        return true;
+    }
+
+    @Override
+    public void initialize() {
+        Pose2d pose = this.poseSupplier.get();
+        ChassisSpeeds speeds = this.robotRelativeSpeedsSupplier.get();
+        this.flipped = this.shouldFlipPath.getAsBoolean();
+
+        CachedTrajectory cached = this.flipped ? this.redTrajectory : this.blueTrajectory;
+        this.trajectory = cached != null && startsFrom(cached, pose, speeds) ? cached : null;
+        Logger.recordOutput("Auto/ActivePath", this.pathName);
+        Logger.recordOutput("Auto/CachedTrajectory", this.trajectory != null);
+
+        if (this.trajectory == null) {
+            this.fallback = AutoBuilder.followPath(PathPlannerPath.fromPathFile(this.pathName));
+            this.fallback.initialize();
+            return;
+        }
+
+        this.fallback = null;
+        this.controller.reset(pose, speeds);
+        for (Marker marker : this.markers) {
+            marker.triggered = false;
+            marker.running = false;
+        }
+        this.timer.reset();
+        this.timer.start();
+    }
+
+    @Override
+    public void execute() {
+        if (this.fallback != null) {
+            this.fallback.execute();
+            return;
+        }
+
+        double time = this.timer.get();
+        PathPlannerTrajectory.State target = this.trajectory.sample(time);
+        Pose2d pose = this.poseSupplier.get();
+        this.robotRelativeOutput.accept(this.controller.calculateRobotRelativeSpeeds(pose, target));
+
+        PathPlannerLogging.logCurrentPose(pose);
+        PathPlannerLogging.logTargetPose(new Pose2d(target.positionMeters, target.targetHolonomicRotation));
+
+        for (Marker marker : this.markers) {
+            if (!marker.triggered && time >= (this.flipped ? marker.redTimeSeconds : marker.blueTimeSeconds)) {
+                marker.triggered = true;
+                // A new marker command interrupts the running ones that use the same subsystems
+                for (Marker other : this.markers) {
+                    if (other.running && !Collections.disjoint(other.command.getRequirements(), marker.command.getRequirements())) {
+                        other.command.end(true);
+                        other.running = false;
+                    }
+                }
+                marker.command.initialize();
+                marker.running = true;
+            }
+
+            if (marker.running) {
+                marker.command.execute();
+                if (marker.command.isFinished()) {
+                    marker.command.end(false);
+                    marker.running = false;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (this.fallback != null) return this.fallback.isFinished();
+        return this.timer.hasElapsed(this.trajectory.getTotalTimeSeconds());
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (this.fallback != null) {
+            this.fallback.end(interrupted);
+            this.fallback = null;
+            return;
+        }
+
+        this.timer.stop();
+        if (!interrupted && this.trajectory.getEndVelocity() < 0.1) this.robotRelativeOutput.accept(new ChassisSpeeds());
+
+        for (Marker marker : this.markers) {
+            if (!marker.running) continue;
+            marker.command.end(true);
+            marker.running = false;
+        }
+    }
+
+    /**
+     * Check if the robot is where (and how) the cached trajectory starts
+     */
+    private static boolean startsFrom(CachedTrajectory trajectory, Pose2d pose, ChassisSpeeds speeds) {
+        double positionError = Math.hypot(pose.getX() - trajectory.getX(0), pose.getY() - trajectory.getY(0));
+        double speed = Math.hypot(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond);
+        double rotationError = Math.abs(pose.getRotation().minus(Rotation2d.fromRadians(trajectory.getTargetRotationRadians(0))).getRadians());
+        return positionError <= kMaxStartErrorMeters && speed <= kMaxStartSpeedMetersPerSecond && rotationError <= kMaxStartRotationErrorRadians;
+    }
+
+    private static PPHolonomicDriveController createController(HolonomicPathFollowerConfig config) {
+        return new PPHolonomicDriveController(config.translationConstants, config.rotationConstants, config.period, config.maxModuleSpeed, config.driveBaseRadius);
+    }
+
+    private static CachedTrajectory validTrajectory(CachedTrajectory trajectory, long pathChecksum) {
+        if (trajectory == null || trajectory.getPathChecksum() != pathChecksum) return null;
+        return trajectory;
+    }
+
+    private static Marker[] buildMarkers(JsonNode path) {
+        List<Marker> markers = new ArrayList<>();
+        JsonNode eventMarkers = path.get("eventMarkers");
+        if (eventMarkers != null) {
+            for (JsonNode marker : eventMarkers) {
+                markers.add(new Marker(marker.get("waypointRelativePos").asDouble(), CachedAutoBuilder.buildCommand(marker.get("command"), new ArrayList<>())));
+            }
+        }
+        markers.sort((a, b) -> Double.compare(a.position, b.position));
+        return markers.toArray(new Marker[0]);
+    }
+
+    /**
+     * Find when the trajectory passes each marker (the state closest to it, in order along the path)
+     */
+    private void findMarkerTimes(JsonNode path, CachedTrajectory trajectory, boolean flipped) {
+        JsonNode waypoints = path.get("waypoints");
+        int state = 0;
+        for (Marker marker : this.markers) {
+            Translation2d position = pointOnPath(waypoints, marker.position);
+            if (flipped) position = GeometryUtil.flipFieldPosition(position);
+
+            state = trajectory.getClosestState(position.getX(), position.getY(), state);
+            if (flipped) marker.redTimeSeconds = trajectory.getTimeSeconds(state);
+            else marker.blueTimeSeconds = trajectory.getTimeSeconds(state);
+        }
+    }
+
+    /**
+     * Get a point on the path from its waypoint relative position (segment index + fraction of the bezier curve)
+     */
+    private static Translation2d pointOnPath(JsonNode waypoints, double waypointRelativePos) {
+        int segment = Math.max(0, Math.min((int) Math.floor(waypointRelativePos), waypoints.size() - 2));
+        double t = Math.max(0, Math.min(waypointRelativePos - segment, 1));
+
+        JsonNode start = waypoints.get(segment);
+        JsonNode end = waypoints.get(segment + 1);
+        Translation2d p0 = point(start.get("anchor"));
+        Translation2d p1 = point(start.get("nextControl"));
+        Translation2d p2 = point(end.get("prevControl"));
+        Translation2d p3 = point(end.get("anchor"));
+
+        double u = 1 - t;
+        return p0.times(u * u * u)
+            .plus(p1.times(3 * u * u * t))
+            .plus(p2.times(3 * u * t * t))
+            .plus(p3.times(t * t * t));
+    }
+
+    private static Translation2d point(JsonNode point) {
+        return new Translation2d(point.get("x").asDouble(), point.get("y").asDouble());
+    }
+}
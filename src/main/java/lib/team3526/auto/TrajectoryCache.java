@@ -0,0 +1,181 @@
+package lib.team3526.auto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Trajectories of every PathPlanner path, generated at build time ({@code ./gradlew generateTrajectoryCache}) and
+ * deployed as a single binary file next to the paths.
+ * <p>
+ * The file is memory mapped on first use and the trajectories are read from it directly, nothing is generated or
+ * copied on the robot. Each path is stored for both alliances along with a checksum of its .path file, so a path
+ * edited after the cache was generated is detected and generated on the fly instead.
+ * <p>
+ * Layout (big endian): magic, version, fields per state, entry count, index size, then the index
+ * (name, flipped, path checksum, state count, data offset) and the states as floats.
+ */
+public final class TrajectoryCache {
+    public static final String kFileName = "trajectories.bin";
+
+    private static final int kMagic = 0x50505443; // "PPTC"
+    private static final int kVersion = 1;
+    private static final int kHeaderBytes = 5 * Integer.BYTES;
+
+    private static Map<String, CachedTrajectory> trajectories = null;
+
+    private TrajectoryCache() {}
+
+    /**
+     * A trajectory to write to the cache
+     */
+    public static final class Entry {
+        final String pathName;
+        final boolean flipped;
+        final long pathChecksum;
+        final float[] states;
+
+        /**
+         * @param pathName
+         * @param flipped True for the red alliance version
+         * @param pathChecksum {@link #checksum(byte[])} of the .path file
+         * @param states States packed with {@link CachedTrajectory#pack}
+         */
+        public Entry(String pathName, boolean flipped, long pathChecksum, float[] states) {
+            this.pathName = pathName;
+            this.flipped = flipped;
+            this.pathChecksum = pathChecksum;
+            this.states = states;
+        }
+    }
+
+    /**
+     * Get the cache file in the deploy directory
+     * @return
+     */
+    public static File getFile() {
+        return new File(Filesystem.getDeployDirectory(), "pathplanner/" + kFileName);
+    }
+
+    /**
+     * Get the checksum of a path file (stored with its trajectories to detect stale entries)
+     * @param pathFile
+     * @return
+     */
+    public static long checksum(byte[] pathFile) {
+        CRC32 crc = new CRC32();
+        crc.update(pathFile);
+        return crc.getValue();
+    }
+
+    /**
+     * Get the cached trajectory of a path (the cache file is mapped on the first call)
+     * @param pathName
+     * @param flipped True for the red alliance version
+     * @return null if the path is not in the cache
+     */
+    public static synchronized CachedTrajectory get(String pathName, boolean flipped) {
+        if (trajectories == null) trajectories = load(getFile());
+        return trajectories.get(key(pathName, flipped));
+    }
+
+    /**
+     * Get the number of cached trajectories (maps the cache file if it was not yet)
+     * @return
+     */
+    public static synchronized int size() {
+        if (trajectories == null) trajectories = load(getFile());
+        return trajectories.size();
+    }
+
+    /**
+     * Write a cache file
+     * @param file
+     * @param entries
+     * @throws IOException
+     */
+    public static void write(File file, List<Entry> entries) throws IOException {
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        DataOutputStream index = new DataOutputStream(indexBytes);
+        int dataOffset = 0;
+        for (Entry entry : entries) {
+            if (entry.states.length % CachedTrajectory.kFields != 0) throw new IllegalArgumentException("Bad state layout for " + entry.pathName);
+            index.writeUTF(entry.pathName);
+            index.writeBoolean(entry.flipped);
+            index.writeLong(entry.pathChecksum);
+            index.writeInt(entry.states.length / CachedTrajectory.kFields);
+            index.writeInt(dataOffset);
+            dataOffset += entry.states.length * Float.BYTES;
+        }
+        index.flush();
+
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(kMagic);
+            out.writeInt(kVersion);
+            out.writeInt(CachedTrajectory.kFields);
+            out.writeInt(entries.size());
+            out.writeInt(indexBytes.size());
+            indexBytes.writeTo(out);
+            for (Entry entry : entries) {
+                for (float value : entry.states) out.writeFloat(value);
+            }
+        }
+    }
+
+    private static Map<String, CachedTrajectory> load(File file) {
+        if (!file.isFile()) {
+            DriverStation.reportWarning("No trajectory cache at " + file + ", paths will be generated when they start", false);
+            return Collections.emptyMap();
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.getInt(0) != kMagic || data.getInt(4) != kVersion || data.getInt(8) != CachedTrajectory.kFields) {
+                DriverStation.reportWarning("The trajectory cache was written by another version, regenerate it", false);
+                return Collections.emptyMap();
+            }
+
+            int count = data.getInt(12);
+            byte[] indexBytes = new byte[data.getInt(16)];
+            ByteBuffer indexSlice = data.duplicate();
+            indexSlice.position(kHeaderBytes);
+            indexSlice.get(indexBytes);
+            int dataStart = kHeaderBytes + indexBytes.length;
+
+            Map<String, CachedTrajectory> loaded = new HashMap<>();
+            DataInputStream index = new DataInputStream(new ByteArrayInputStream(indexBytes));
+            for (int i = 0; i < count; i++) {
+                String pathName = index.readUTF();
+                boolean flipped = index.readBoolean();
+                long pathChecksum = index.readLong();
+                int stateCount = index.readInt();
+                int offset = dataStart + index.readInt();
+                loaded.put(key(pathName, flipped), new CachedTrajectory(data, offset, stateCount, pathChecksum));
+            }
+            return loaded;
+        } catch (IOException | RuntimeException e) {
+            DriverStation.reportWarning("Failed to read the trajectory cache: " + e.getMessage(), false);
+            return Collections.emptyMap();
+        }
+    }
+
+    private static String key(String pathName, boolean flipped) {
+        return flipped ? pathName + "@red" : pathName;
+    }
+}
@@ -0,0 +1,125 @@
+package lib.team3526.auto;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.util.GeometryUtil;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Generates the {@link TrajectoryCache} file from every path in the deploy directory.
+ * <p>
+ * Each path is generated from rest for both alliances. The starting rotation is the one the robot has when the path
+ * starts in an auto (the auto's starting pose or the end of the previous path), or the path's preview rotation.
+ * <p>
+ * Usage: {@code ./gradlew generateTrajectoryCache} (also runs before deploying and simulating autos)
+ */
+public final class TrajectoryCacheGenerator {
+    private TrajectoryCacheGenerator() {}
+
+    public static void main(String... args) throws IOException {
+        // Needed to find the deploy directory (and by PathPlanner to read the paths)
+        if (!HAL.initialize(500, 0)) throw new IllegalStateException("Failed to initialize the HAL");
+
+        File pathplanner = new File(Filesystem.getDeployDirectory(), "pathplanner");
+        File[] pathFiles = new File(pathplanner, "paths").listFiles((dir, name) -> name.endsWith(".path"));
+        if (pathFiles == null) pathFiles = new File[0];
+
+        // Read every path once (the checksum is of the exact bytes on disk)
+        Map<String, byte[]> pathBytes = new HashMap<>();
+        Map<String, JsonNode> paths = new HashMap<>();
+        List<String> pathNames = new ArrayList<>();
+        for (File file : pathFiles) {
+            String name = file.getName().substring(0, file.getName().length() - ".path".length());
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            pathBytes.put(name, bytes);
+            paths.put(name, CachedAutoBuilder.readJson(bytes, name));
+            pathNames.add(name);
+        }
+        pathNames.sort(null);
+
+        Map<String, Rotation2d> startRotations = findStartRotations(new File(pathplanner, "autos"), paths);
+
+        long start = System.nanoTime();
+        int states = 0;
+        List<TrajectoryCache.Entry> entries = new ArrayList<>();
+        for (String name : pathNames) {
+            long checksum = TrajectoryCache.checksum(pathBytes.get(name));
+            Rotation2d startRotation = startRotations.getOrDefault(name, previewRotation(paths.get(name)));
+
+            PathPlannerPath path = PathPlannerPath.fromPathFile(name);
+            float[] blue = CachedTrajectory.pack(path.getTrajectory(new ChassisSpeeds(), startRotation));
+            float[] red = CachedTrajectory.pack(path.flipPath().getTrajectory(new ChassisSpeeds(), GeometryUtil.flipFieldRotation(startRotation)));
+            entries.add(new TrajectoryCache.Entry(name, false, checksum, blue));
+            entries.add(new TrajectoryCache.Entry(name, true, checksum, red));
+            states += (blue.length + red.length) / CachedTrajectory.kFields;
+        }
+
+        File output = new File(pathplanner, TrajectoryCache.kFileName);
+        TrajectoryCache.write(output, entries);
+        System.out.printf("Cached %d trajectories (%d paths, %d states, %d bytes) in %.1f ms: %s%n",
+            entries.size(), pathNames.size(), states, output.length(), (System.nanoTime() - start) / 1e6, output);
+
+        System.exit(0);
+    }
+
+    /**
+     * Find the rotation the robot has when each path starts in the autos (the first auto that uses a path wins)
+     */
+    private static Map<String, Rotation2d> findStartRotations(File autosDirectory, Map<String, JsonNode> paths) {
+        Map<String, Rotation2d> startRotations = new HashMap<>();
+        File[] autoFiles = autosDirectory.listFiles((dir, name) -> name.endsWith(".auto"));
+        if (autoFiles == null) return startRotations;
+        Arrays.sort(autoFiles);
+
+        for (File file : autoFiles) {
+            JsonNode auto = CachedAutoBuilder.readJson(file);
+            JsonNode startingPose = auto.get("startingPose");
+            Rotation2d rotation = startingPose == null || startingPose.isNull() ? null : Rotation2d.fromDegrees(startingPose.get("rotation").asDouble());
+            walk(auto.get("command"), rotation, paths, startRotations);
+        }
+        return startRotations;
+    }
+
+    /**
+     * Walk the commands in order, tracking the robot rotation after each path
+     * @return The rotation after the command (null if unknown)
+     */
+    private static Rotation2d walk(JsonNode command, Rotation2d rotation, Map<String, JsonNode> paths, Map<String, Rotation2d> startRotations) {
+        JsonNode data = command.get("data");
+        switch (command.get("type").asText()) {
+            case "path":
+                String name = data.get("pathName").asText();
+                JsonNode path = paths.get(name);
+                if (path == null) return null;
+                if (rotation != null) startRotations.putIfAbsent(name, rotation);
+                return Rotation2d.fromDegrees(path.get("goalEndState").get("rotation").asDouble());
+            case "sequential":
+            case "parallel":
+            case "race":
+            case "deadline":
+                for (JsonNode child : data.get("commands")) rotation = walk(child, rotation, paths, startRotations);
+                return rotation;
+            default:
+                return rotation;
+        }
+    }
+
+    private static Rotation2d previewRotation(JsonNode path) {
+        JsonNode preview = path.get("previewStartingState");
+        if (preview == null || preview.isNull()) return new Rotation2d();
+        return Rotation2d.fromDegrees(preview.get("rotation").asDouble());
+    }
+}
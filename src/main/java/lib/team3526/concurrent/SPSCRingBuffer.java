@@ -0,0 +1,87 @@
+package lib.team3526.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A lock-free, bounded, single-producer/single-consumer queue of preallocated elements.
+ * <p>
+ * The producer {@link #claim()}s a free slot, fills it and {@link #publish()}es it.
+ * The consumer {@link #peek()}s the oldest published slot, reads it and {@link #release()}s it.
+ * Slots are reused, so no objects are allocated after construction.
+ */
+public class SPSCRingBuffer<T> {
+    private final Object[] slots;
+    private final int capacity;
+    private final int mask;
+
+    // * Next slot to read (written by the consumer only)
+    private final AtomicLong head = new AtomicLong();
+    // * Next slot to write (written by the producer only)
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Create a new ring buffer
+     * @param capacity The number of slots (rounded up to a power of two)
+     * @param factory Creates the elements stored in the slots
+     */
+    public SPSCRingBuffer(int capacity, Supplier<T> factory) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new Object[size];
+        for (int i = 0; i < size; i++) slots[i] = factory.get();
+    }
+
+    /**
+     * Get a free slot to fill (producer only)
+     * @return The slot, or null if the queue is full
+     */
+    @SuppressWarnings("unchecked")
+    public T claim() {
+        long t = tail.get();
+        if (t - head.get() >= capacity) return null;
+        return (T) slots[(int) (t & mask)];
+    }
+
+    /**
+     * Make the last claimed slot visible to the consumer (producer only)
+     */
+    public void publish() {
+        tail.lazySet(tail.get() + 1);
+    }
+
+    /**
+     * Get the oldest published slot without removing it (consumer only)
+     * @return The slot, or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        long h = head.get();
+        if (h >= tail.get()) return null;
+        return (T) slots[(int) (h & mask)];
+    }
+
+    /**
+     * Return the slot obtained from {@link #peek()} to the producer (consumer only)
+     */
+    public void release() {
+        head.lazySet(head.get() + 1);
+    }
+
+    /**
+     * Get the number of published slots waiting to be consumed
+     * @return
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Get the number of slots
+     * @return
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
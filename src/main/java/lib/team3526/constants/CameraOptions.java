@@ -0,0 +1,30 @@
+package lib.team3526.constants;
+
+import edu.wpi.first.math.geometry.Transform3d;
+
+public class CameraOptions {
+    public String name;
+
+    // Transform from the robot center to the camera lens
+    public Transform3d robotToCamera = new Transform3d();
+
+    // Multiplies the standard deviations of every measurement (higher = trust the camera less)
+    public double stdDevScale = 1;
+
+    public CameraOptions() {}
+
+    public CameraOptions setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public CameraOptions setRobotToCamera(Transform3d robotToCamera) {
+        this.robotToCamera = robotToCamera;
+        return this;
+    }
+
+    public CameraOptions setStdDevScale(double stdDevScale) {
+        this.stdDevScale = stdDevScale;
+        return this;
+    }
+}
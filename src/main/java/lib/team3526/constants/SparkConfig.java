@@ -0,0 +1,94 @@
+package lib.team3526.constants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.revrobotics.CANSparkBase.IdleMode;
+
+/**
+ * The persistent parameters of a Spark MAX (only the ones that are set are written).
+ * <p>
+ * Applied with {@link lib.team3526.control.SparkConfigCache}, which flashes them once and skips them on the next boots.
+ */
+public class SparkConfig {
+    public enum Parameter {
+        kInverted,
+        kIdleMode,
+        kSmartCurrentLimit,
+        kPositionConversionFactor,
+        kVelocityConversionFactor,
+        kP,
+        kI,
+        kD,
+        kFF,
+        kPositionWrappingEnabled,
+        kPositionWrappingMinInput,
+        kPositionWrappingMaxInput
+    }
+
+    private final EnumMap<Parameter, Double> values = new EnumMap<>(Parameter.class);
+
+    public SparkConfig() {}
+
+    public SparkConfig setInverted(boolean inverted) {
+        values.put(Parameter.kInverted, inverted ? 1.0 : 0.0);
+        return this;
+    }
+
+    public SparkConfig setIdleMode(IdleMode idleMode) {
+        values.put(Parameter.kIdleMode, idleMode == IdleMode.kBrake ? 1.0 : 0.0);
+        return this;
+    }
+
+    public SparkConfig setSmartCurrentLimit(int amps) {
+        values.put(Parameter.kSmartCurrentLimit, (double) amps);
+        return this;
+    }
+
+    public SparkConfig setConversionFactors(double position, double velocity) {
+        values.put(Parameter.kPositionConversionFactor, position);
+        values.put(Parameter.kVelocityConversionFactor, velocity);
+        return this;
+    }
+
+    public SparkConfig setPID(PIDFConstants constants) {
+        values.put(Parameter.kP, constants.getP());
+        values.put(Parameter.kI, constants.getI());
+        values.put(Parameter.kD, constants.getD());
+        values.put(Parameter.kFF, constants.getF());
+        return this;
+    }
+
+    public SparkConfig setPositionWrapping(double minInput, double maxInput) {
+        values.put(Parameter.kPositionWrappingEnabled, 1.0);
+        values.put(Parameter.kPositionWrappingMinInput, minInput);
+        values.put(Parameter.kPositionWrappingMaxInput, maxInput);
+        return this;
+    }
+
+    /**
+     * Get the parameters that are set
+     * @return
+     */
+    public Map<Parameter, Double> getValues() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Get a hash of every parameter and its value (stable between runs)
+     * @return
+     */
+    public long getHash() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Parameter, Double> entry : values.entrySet()) {
+            builder.append(entry.getKey().name()).append('=').append(Double.doubleToLongBits(entry.getValue())).append(';');
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,53 @@
+package lib.team3526.constants;
+
+import com.revrobotics.CANSparkLowLevel.PeriodicFrame;
+
+/**
+ * What a Spark MAX is used for, and so how often it has to send each status frame.
+ * <p>
+ * Frames: 0 applied output and faults, 1 velocity, temperature, voltage and current, 2 position,
+ * 3 analog sensor, 4 alternate encoder, 5 and 6 duty cycle absolute encoder.
+ */
+public class SparkRole {
+    // * Slowest period the Spark accepts, used for the frames nobody reads
+    public static final int kDisabledPeriodMs = 65535;
+
+    // * REV defaults, for motors without a role
+    public static final SparkRole kDefault = new SparkRole("Default");
+
+    public String name;
+    private final int[] periodsMs = new int[]{ 10, 20, 20, 50, 20, 200, 200 };
+
+    public SparkRole(String name) {
+        this.name = name;
+    }
+
+    public SparkRole setPeriod(PeriodicFrame frame, int periodMs) {
+        this.periodsMs[frame.value] = periodMs;
+        return this;
+    }
+
+    /**
+     * Send the frames as slowly as possible
+     * @param frames
+     * @return
+     */
+    public SparkRole disable(PeriodicFrame... frames) {
+        for (PeriodicFrame frame : frames) this.periodsMs[frame.value] = kDisabledPeriodMs;
+        return this;
+    }
+
+    public int getPeriod(PeriodicFrame frame) {
+        return this.periodsMs[frame.value];
+    }
+
+    /**
+     * Get the number of status frames sent every second by a Spark with this role
+     * @return
+     */
+    public double getStatusFramesPerSecond() {
+        double framesPerSecond = 0;
+        for (int periodMs : this.periodsMs) framesPerSecond += 1000.0 / periodMs;
+        return framesPerSecond;
+    }
+}
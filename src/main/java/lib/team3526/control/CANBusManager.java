@@ -0,0 +1,116 @@
+package lib.team3526.control;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.ctre.phoenix6.CANBus;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.REVLibError;
+import com.revrobotics.CANSparkLowLevel.PeriodicFrame;
+
+import edu.wpi.first.hal.can.CANStatus;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import lib.team3526.constants.SparkRole;
+
+/**
+ * Applies the status frame periods of every Spark MAX from its {@link SparkRole} and keeps track of the CAN bus load.
+ * <p>
+ * The estimated utilization of the roboRIO bus (Spark status and control frames) is logged next to the measured one,
+ * along with the utilization of the Phoenix 6 buses when the CTRE devices are on a CANivore.
+ */
+public final class CANBusManager {
+    // * Bus model (1 Mbit/s, 8 byte extended frames are ~130 bits with the average bit stuffing)
+    private static final double kBusBitsPerSecond = 1_000_000;
+    private static final double kBitsPerFrame = 130;
+
+    // * The roboRIO sends every Spark its setpoint / heartbeat frame each loop
+    private static final double kSparkControlFramesPerSecond = 50;
+
+    // * Measuring the bus goes through the HAL, do it a few times per second only
+    private static final int kMeasureEveryLoops = 25;
+
+    // * Estimated frames per second of the roboRIO bus (by role)
+    private static final Map<String, Double> estimatedFramesPerSecond = new LinkedHashMap<>();
+    private static final Map<String, Integer> sparkCounts = new LinkedHashMap<>();
+    private static double totalFramesPerSecond = 0;
+
+    // * Phoenix 6 buses to measure (CANivores)
+    private static final List<String> phoenixBuses = new ArrayList<>();
+
+    private static int cycle = 0;
+    private static int failedConfigurations = 0;
+
+    private CANBusManager() {}
+
+    /**
+     * Apply the status frame periods of the role to the Spark and add it to the bus estimate
+     * @param spark
+     * @param role
+     */
+    public static synchronized void configure(CANSparkMax spark, SparkRole role) {
+        for (PeriodicFrame frame : PeriodicFrame.values()) {
+            REVLibError error = spark.setPeriodicFramePeriod(frame, role.getPeriod(frame));
+            if (error != REVLibError.kOk) {
+                failedConfigurations++;
+                DriverStation.reportWarning("Spark " + spark.getDeviceId() + " (" + role.name + "): failed to set " + frame + " period (" + error + ")", false);
+            }
+        }
+
+        double framesPerSecond = role.getStatusFramesPerSecond() + kSparkControlFramesPerSecond;
+        estimatedFramesPerSecond.merge(role.name, framesPerSecond, Double::sum);
+        sparkCounts.merge(role.name, 1, Integer::sum);
+        totalFramesPerSecond += framesPerSecond;
+    }
+
+    /**
+     * Also measure the utilization of a Phoenix 6 bus (ignored for the roboRIO bus, which is always measured)
+     * @param canbus CANivore name or serial number ("*" for any CANivore)
+     */
+    public static synchronized void monitorPhoenixBus(String canbus) {
+        if (canbus.isEmpty() || canbus.equals("rio") || phoenixBuses.contains(canbus)) return;
+        phoenixBuses.add(canbus);
+    }
+
+    /**
+     * Get the estimated utilization of the roboRIO bus by the Sparks
+     * @return Fraction of the bus bandwidth (0 to 1)
+     */
+    public static synchronized double getEstimatedUtilization() {
+        return totalFramesPerSecond * kBitsPerFrame / kBusBitsPerSecond;
+    }
+
+    /**
+     * Log the estimated and measured bus utilization (call once per loop)
+     */
+    public static synchronized void periodic() {
+        if (cycle++ % kMeasureEveryLoops != 0) return;
+
+        // roboRIO bus
+        CANStatus status = RobotController.getCANStatus();
+        Logger.recordOutput("CAN/rio/Utilization", status.percentBusUtilization);
+        Logger.recordOutput("CAN/rio/EstimatedUtilization", getEstimatedUtilization());
+        Logger.recordOutput("CAN/rio/BusOffCount", status.busOffCount);
+        Logger.recordOutput("CAN/rio/TxFullCount", status.txFullCount);
+        Logger.recordOutput("CAN/rio/ReceiveErrorCount", status.receiveErrorCount);
+        Logger.recordOutput("CAN/rio/TransmitErrorCount", status.transmitErrorCount);
+
+        for (Map.Entry<String, Double> entry : estimatedFramesPerSecond.entrySet()) {
+            Logger.recordOutput("CAN/rio/Sparks/" + entry.getKey() + "/Count", sparkCounts.get(entry.getKey()));
+            Logger.recordOutput("CAN/rio/Sparks/" + entry.getKey() + "/FramesPerSecond", entry.getValue());
+        }
+        Logger.recordOutput("CAN/rio/Sparks/FailedConfigurations", failedConfigurations);
+
+        // CANivores
+        for (String canbus : phoenixBuses) {
+            CANBus.CANBusStatus phoenixStatus = CANBus.getStatus(canbus);
+            Logger.recordOutput("CAN/" + canbus + "/Utilization", phoenixStatus.BusUtilization);
+            Logger.recordOutput("CAN/" + canbus + "/BusOffCount", phoenixStatus.BusOffCount);
+            Logger.recordOutput("CAN/" + canbus + "/TxFullCount", phoenixStatus.TxFullCount);
+        }
+    }
+}
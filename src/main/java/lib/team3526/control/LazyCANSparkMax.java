@@ -2,27 +2,90 @@ package lib.team3526.control;
 
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.REVLibError;
+import com.revrobotics.SparkPIDController;
+
+import lib.team3526.constants.SparkRole;
 
 /**
  * A wrapper for CANSparkMax that only updates the controller if the value has changed.
+ * <p>
+ * Outputs (duty cycle, voltage and PID references) are only recorded when set, and written once per loop by
+ * {@link SparkOutputs#flushAll()}. The last one set during the loop wins, changes smaller than the deadband are
+ * skipped and the output is sent again every refresh period in case a frame was lost.
  */
 public class LazyCANSparkMax extends CANSparkMax {
-    public LazyCANSparkMax(int deviceID, MotorType type, boolean lazy) {
-        super(deviceID, type);
+    // * Output requested during this loop
+    private ControlType desiredType = null;
+    private double desiredOutput = 0;
+    private boolean requested = false;
 
-        if (lazy) {
-            setPeriodicFramePeriod(PeriodicFrame.kStatus0, 10);
-            setPeriodicFramePeriod(PeriodicFrame.kStatus1, 20);
-            setPeriodicFramePeriod(PeriodicFrame.kStatus2, 30);
-        }
+    // * Output last sent to the controller
+    private ControlType sentType = null;
+    private double sentOutput = 0;
+    private int loopsSinceSent = 0;
+
+    // * Deadband for PID references (in the units of the reference)
+    private double closedLoopDeadband = 0;
+
+    // * Stats
+    private long sentFrames = 0;
+    private long suppressedFrames = 0;
+
+    private SparkPIDController pidController;
+
+    /**
+     * Create a Spark MAX that only sends the status frames its role needs
+     * @param deviceID
+     * @param type
+     * @param role
+     */
+    public LazyCANSparkMax(int deviceID, MotorType type, SparkRole role) {
+        super(deviceID, type);
+        CANBusManager.configure(this, role);
+        SparkOutputs.register(this);
     }
 
     public LazyCANSparkMax(int deviceID, MotorType type) {
-        this(deviceID, type, false);
+        this(deviceID, type, SparkRole.kDefault);
     }
 
     public void set(double value) {
-        if (value != get()) super.set(value);
+        setOutput(value, ControlType.kDutyCycle);
+    }
+
+    public void setVoltage(double outputVolts) {
+        setOutput(outputVolts, ControlType.kVoltage);
+    }
+
+    /**
+     * Get the duty cycle requested for this loop (what was last set, not what the motor is doing)
+     * @return
+     */
+    public double get() {
+        if (desiredType == ControlType.kDutyCycle) return desiredOutput;
+        return 0;
+    }
+
+    /**
+     * Set a reference of the onboard PID controller (written at the end of the loop)
+     * @param reference
+     * @param controlType
+     */
+    public void setReference(double reference, ControlType controlType) {
+        setOutput(reference, controlType);
+    }
+
+    /**
+     * Changes of a PID reference smaller than this are not sent
+     * @param deadband In the units of the reference (e.g. radians for the steer position)
+     */
+    public void setClosedLoopDeadband(double deadband) {
+        this.closedLoopDeadband = deadband;
+    }
+
+    public SparkPIDController getPIDController() {
+        if (pidController == null) pidController = super.getPIDController();
+        return pidController;
     }
 
     public void setInverted(boolean isInverted) {
@@ -38,4 +101,60 @@ public class LazyCANSparkMax extends CANSparkMax {
         if (seconds != getOpenLoopRampRate()) return super.setOpenLoopRampRate(seconds);
         return REVLibError.kOk;
     }
+
+    private void setOutput(double output, ControlType type) {
+        this.desiredOutput = output;
+        this.desiredType = type;
+        this.requested = true;
+    }
+
+    /**
+     * Write the desired output if it changed by more than the deadband or the refresh period is over
+     * @param dutyCycleDeadband
+     * @param voltageDeadband
+     * @param refreshLoops
+     */
+    void flush(double dutyCycleDeadband, double voltageDeadband, int refreshLoops) {
+        if (desiredType == null) return;
+        loopsSinceSent++;
+
+        double deadband;
+        if (desiredType == ControlType.kDutyCycle) deadband = dutyCycleDeadband;
+        else if (desiredType == ControlType.kVoltage) deadband = voltageDeadband;
+        else deadband = closedLoopDeadband;
+
+        boolean changed = desiredType != sentType
+            || Math.abs(desiredOutput - sentOutput) > deadband
+            // Always stop exactly
+            || (desiredOutput == 0 && sentOutput != 0);
+
+        if (changed || loopsSinceSent >= refreshLoops) {
+            if (desiredType == ControlType.kDutyCycle) super.set(desiredOutput);
+            else getPIDController().setReference(desiredOutput, desiredType);
+
+            sentType = desiredType;
+            sentOutput = desiredOutput;
+            loopsSinceSent = 0;
+            sentFrames++;
+        } else if (requested) {
+            suppressedFrames++;
+        }
+        requested = false;
+    }
+
+    /**
+     * Get the number of output frames written to the controller
+     * @return
+     */
+    public long getSentFrames() {
+        return this.sentFrames;
+    }
+
+    /**
+     * Get the number of outputs that were set but not written (within the deadband)
+     * @return
+     */
+    public long getSuppressedFrames() {
+        return this.suppressedFrames;
+    }
 }
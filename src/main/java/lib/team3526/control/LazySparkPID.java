@@ -5,9 +5,12 @@ import com.revrobotics.CANSparkBase.ControlType;
 
 /**
  * A wrapper for SparkPIDController that only updates the controller if the value has changed.
+ * <p>
+ * When created from a {@link LazyCANSparkMax} the references go through its once per loop output flush.
  */
 public class LazySparkPID {
     public SparkPIDController controller;
+    private LazyCANSparkMax spark;
 
     private double lastReference;
     private ControlType lastControlType;
@@ -24,9 +27,15 @@ public class LazySparkPID {
 
     public LazySparkPID(LazyCANSparkMax spark) {
         this.controller = spark.getPIDController();
+        this.spark = spark;
     }
 
     public void setReference(double reference, ControlType controlType) {
+        if (spark != null) {
+            spark.setReference(reference, controlType);
+            return;
+        }
+
         if (reference != lastReference || controlType != lastControlType) {
             controller.setReference(reference, controlType);
             lastReference = reference;
@@ -0,0 +1,69 @@
+package lib.team3526.control;
+
+import java.util.Arrays;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+
+/**
+ * Keeps every Phoenix 6 status signal the robot reads and refreshes them all with a single call per loop.
+ * <p>
+ * IO classes register their signals once (which also sets their update frequency) and then only read the cached values.
+ */
+public final class PhoenixSignalRegistry {
+    // * Registered signals
+    private static volatile BaseStatusSignal[] signals = new BaseStatusSignal[0];
+
+    // * Stats
+    private static StatusCode lastStatus = StatusCode.OK;
+    private static double lastRefreshMs = 0;
+
+    private PhoenixSignalRegistry() {}
+
+    /**
+     * Register signals to be refreshed every loop
+     * @param frequencyHz The update frequency of the signals
+     * @param newSignals
+     */
+    public static synchronized void register(double frequencyHz, BaseStatusSignal... newSignals) {
+        BaseStatusSignal.setUpdateFrequencyForAll(frequencyHz, newSignals);
+
+        BaseStatusSignal[] merged = Arrays.copyOf(signals, signals.length + newSignals.length);
+        System.arraycopy(newSignals, 0, merged, signals.length, newSignals.length);
+        signals = merged;
+    }
+
+    /**
+     * Refresh every registered signal (call once per loop, before anything reads them)
+     */
+    public static void refreshAll() {
+        BaseStatusSignal[] toRefresh = signals;
+        if (toRefresh.length == 0) return;
+
+        long start = System.nanoTime();
+        lastStatus = BaseStatusSignal.refreshAll(toRefresh);
+        lastRefreshMs = (System.nanoTime() - start) / 1e6;
+
+        Logger.recordOutput("CAN/PhoenixSignals/Count", toRefresh.length);
+        Logger.recordOutput("CAN/PhoenixSignals/RefreshMs", lastRefreshMs);
+        Logger.recordOutput("CAN/PhoenixSignals/Status", lastStatus.name());
+    }
+
+    /**
+     * Get the time taken by the last refresh
+     * @return
+     */
+    public static double getLastRefreshMs() {
+        return lastRefreshMs;
+    }
+
+    /**
+     * Get the status of the last refresh
+     * @return
+     */
+    public static StatusCode getLastStatus() {
+        return lastStatus;
+    }
+}
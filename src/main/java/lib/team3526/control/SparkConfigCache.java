@@ -0,0 +1,200 @@
+package lib.team3526.control;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.revrobotics.CANSparkBase.IdleMode;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.REVLibError;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Preferences;
+import lib.team3526.constants.SparkConfig;
+import lib.team3526.constants.SparkConfig.Parameter;
+
+/**
+ * Writes {@link SparkConfig}s to Spark MAXs only when they changed since they were last flashed.
+ * <p>
+ * The hash and values of the last flashed config are kept in the robot's {@link Preferences} (per CAN ID).
+ * When the hash matches and a quick read back agrees (the controller was not swapped or reset) nothing is sent,
+ * otherwise only the parameters that differ are written and then burned to flash.
+ */
+public final class SparkConfigCache {
+    private static final String kPrefix = "SparkConfig/";
+
+    // * Stats (the IOs can be created from several threads)
+    private static final AtomicInteger devicesSkipped = new AtomicInteger();
+    private static final AtomicInteger devicesFlashed = new AtomicInteger();
+    private static final AtomicInteger parametersWritten = new AtomicInteger();
+    private static final AtomicInteger failures = new AtomicInteger();
+    private static final AtomicLong configureNanos = new AtomicLong();
+
+    private SparkConfigCache() {}
+
+    /**
+     * Make sure the Spark has the config, writing and flashing only what changed
+     * @param spark
+     * @param config
+     */
+    public static void apply(CANSparkMax spark, SparkConfig config) {
+        long start = System.nanoTime();
+        String key = kPrefix + spark.getDeviceId() + "/";
+        Map<Parameter, Double> values = config.getValues();
+        long hash = config.getHash();
+
+        boolean sameDevice = readBackMatches(spark, values);
+        if (sameDevice && Preferences.getLong(key + "Hash", 0) == hash) {
+            devicesSkipped.incrementAndGet();
+            configureNanos.addAndGet(System.nanoTime() - start);
+            return;
+        }
+
+        // Write what changed (everything if the controller does not look like the one we flashed)
+        boolean ok = true;
+        int written = 0;
+        for (Map.Entry<Parameter, Double> entry : values.entrySet()) {
+            String parameterKey = key + entry.getKey().name();
+            double value = entry.getValue();
+            if (sameDevice && Preferences.containsKey(parameterKey) && Preferences.getDouble(parameterKey, Double.NaN) == value) continue;
+
+            REVLibError error = write(spark, entry.getKey(), value);
+            written++;
+            if (error != REVLibError.kOk) {
+                ok = false;
+                DriverStation.reportWarning("Spark " + spark.getDeviceId() + ": failed to set " + entry.getKey() + " (" + error + ")", false);
+            }
+        }
+        parametersWritten.addAndGet(written);
+
+        if (written > 0) {
+            REVLibError error = spark.burnFlash();
+            if (error != REVLibError.kOk) {
+                ok = false;
+                DriverStation.reportWarning("Spark " + spark.getDeviceId() + ": failed to burn flash (" + error + ")", false);
+            }
+            devicesFlashed.incrementAndGet();
+        }
+
+        // Only remember the config once it is on the controller, so a failed write is retried on the next boot
+        if (ok) {
+            for (Map.Entry<Parameter, Double> entry : values.entrySet()) Preferences.setDouble(key + entry.getKey().name(), entry.getValue());
+            Preferences.setLong(key + "Hash", hash);
+        } else {
+            failures.incrementAndGet();
+            Preferences.remove(key + "Hash");
+        }
+        configureNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * Log how much was written at boot (call after the logger started)
+     */
+    public static void logStats() {
+        Logger.recordOutput("SparkConfig/DevicesSkipped", devicesSkipped.get());
+        Logger.recordOutput("SparkConfig/DevicesFlashed", devicesFlashed.get());
+        Logger.recordOutput("SparkConfig/ParametersWritten", parametersWritten.get());
+        Logger.recordOutput("SparkConfig/Failures", failures.get());
+        Logger.recordOutput("SparkConfig/ConfigureMs", configureNanos.get() / 1e6);
+    }
+
+    /**
+     * Read back a few parameters to check the controller still has the flashed config (e.g. it was not replaced or
+     * factory reset): the inversion, the position factor and the first parameter of the config that a reset would change
+     */
+    private static boolean readBackMatches(CANSparkMax spark, Map<Parameter, Double> values) {
+        if (!readBackMatches(spark, values, Parameter.kInverted)) return false;
+        if (!readBackMatches(spark, values, Parameter.kPositionConversionFactor)) return false;
+
+        for (Map.Entry<Parameter, Double> entry : values.entrySet()) {
+            Parameter parameter = entry.getKey();
+            if (parameter == Parameter.kSmartCurrentLimit) continue; // Can't be read back
+            if (entry.getValue() != factoryDefault(parameter)) return readBackMatches(spark, values, parameter);
+        }
+        return true;
+    }
+
+    private static boolean readBackMatches(CANSparkMax spark, Map<Parameter, Double> values, Parameter parameter) {
+        Double value = values.get(parameter);
+        // The controller stores floats
+        return value == null || (float) read(spark, parameter) == (float) value.doubleValue();
+    }
+
+    private static double read(CANSparkMax spark, Parameter parameter) {
+        switch (parameter) {
+            case kInverted:
+                return spark.getInverted() ? 1 : 0;
+            case kIdleMode:
+                return spark.getIdleMode() == IdleMode.kBrake ? 1 : 0;
+            case kPositionConversionFactor:
+                return spark.getEncoder().getPositionConversionFactor();
+            case kVelocityConversionFactor:
+                return spark.getEncoder().getVelocityConversionFactor();
+            case kP:
+                return spark.getPIDController().getP();
+            case kI:
+                return spark.getPIDController().getI();
+            case kD:
+                return spark.getPIDController().getD();
+            case kFF:
+                return spark.getPIDController().getFF();
+            case kPositionWrappingEnabled:
+                return spark.getPIDController().getPositionPIDWrappingEnabled() ? 1 : 0;
+            case kPositionWrappingMinInput:
+                return spark.getPIDController().getPositionPIDWrappingMinInput();
+            case kPositionWrappingMaxInput:
+                return spark.getPIDController().getPositionPIDWrappingMaxInput();
+            default:
+                throw new IllegalArgumentException("Spark parameter " + parameter + " can't be read back");
+        }
+    }
+
+    /**
+     * Value of a parameter on a new or factory reset Spark MAX
+     */
+    private static double factoryDefault(Parameter parameter) {
+        switch (parameter) {
+            case kSmartCurrentLimit:
+                return 80;
+            case kPositionConversionFactor:
+            case kVelocityConversionFactor:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static REVLibError write(CANSparkMax spark, Parameter parameter, double value) {
+        switch (parameter) {
+            case kInverted:
+                spark.setInverted(value != 0);
+                return spark.getLastError();
+            case kIdleMode:
+                return spark.setIdleMode(value != 0 ? IdleMode.kBrake : IdleMode.kCoast);
+            case kSmartCurrentLimit:
+                return spark.setSmartCurrentLimit((int) value);
+            case kPositionConversionFactor:
+                return spark.getEncoder().setPositionConversionFactor(value);
+            case kVelocityConversionFactor:
+                return spark.getEncoder().setVelocityConversionFactor(value);
+            case kP:
+                return spark.getPIDController().setP(value);
+            case kI:
+                return spark.getPIDController().setI(value);
+            case kD:
+                return spark.getPIDController().setD(value);
+            case kFF:
+                return spark.getPIDController().setFF(value);
+            case kPositionWrappingEnabled:
+                return spark.getPIDController().setPositionPIDWrappingEnabled(value != 0);
+            case kPositionWrappingMinInput:
+                return spark.getPIDController().setPositionPIDWrappingMinInput(value);
+            case kPositionWrappingMaxInput:
+                return spark.getPIDController().setPositionPIDWrappingMaxInput(value);
+            default:
+                throw new IllegalArgumentException("Unknown Spark parameter " + parameter);
+        }
+    }
+}
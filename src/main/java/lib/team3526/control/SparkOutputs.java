@@ -0,0 +1,94 @@
+package lib.team3526.control;
+
+import java.util.Arrays;
+
+import org.littletonrobotics.junction.Logger;
+
+import lib.team3526.utils.LoopProfiler;
+
+/**
+ * Keeps every {@link LazyCANSparkMax} and writes their outputs once per loop, after every command and subsystem ran.
+ * <p>
+ * Stats (frames sent and suppressed by the deadband) are logged per device under CAN/Outputs/.
+ */
+public final class SparkOutputs {
+    // * Registered motors (the keys are published before the motors, so they are never shorter)
+    private static volatile LazyCANSparkMax[] sparks = new LazyCANSparkMax[0];
+    private static volatile String[] sentKeys = new String[0];
+    private static volatile String[] suppressedKeys = new String[0];
+
+    // * Config
+    private static double dutyCycleDeadband = 0.001;
+    private static double voltageDeadband = 0.01;
+    private static int refreshLoops = 25;
+
+    // * Stats
+    private static final int kLogEveryLoops = 50;
+    private static final LoopProfiler.Section profiler = LoopProfiler.section("SparkOutputs");
+    private static int cycle = 0;
+    private static long lastSentFrames = 0;
+
+    private SparkOutputs() {}
+
+    /**
+     * Register a motor to be flushed every loop (done by the {@link LazyCANSparkMax} constructor)
+     * @param spark
+     */
+    static synchronized void register(LazyCANSparkMax spark) {
+        int count = sparks.length;
+        LazyCANSparkMax[] newSparks = Arrays.copyOf(sparks, count + 1);
+        String[] newSentKeys = Arrays.copyOf(sentKeys, count + 1);
+        String[] newSuppressedKeys = Arrays.copyOf(suppressedKeys, count + 1);
+
+        newSparks[count] = spark;
+        newSentKeys[count] = "CAN/Outputs/Spark" + spark.getDeviceId() + "/Sent";
+        newSuppressedKeys[count] = "CAN/Outputs/Spark" + spark.getDeviceId() + "/Suppressed";
+
+        sentKeys = newSentKeys;
+        suppressedKeys = newSuppressedKeys;
+        sparks = newSparks;
+    }
+
+    /**
+     * Set the smallest output changes that are written
+     * @param dutyCycle Duty cycle deadband (-1 to 1)
+     * @param volts Voltage deadband
+     */
+    public static void setDeadbands(double dutyCycle, double volts) {
+        dutyCycleDeadband = dutyCycle;
+        voltageDeadband = volts;
+    }
+
+    /**
+     * Set how often an unchanged output is written again
+     * @param loops
+     */
+    public static void setRefreshLoops(int loops) {
+        if (loops < 1) throw new IllegalArgumentException("The refresh period must be at least one loop");
+        refreshLoops = loops;
+    }
+
+    /**
+     * Write the outputs set during this loop (call once per loop, after the command scheduler)
+     */
+    public static void flushAll() {
+        LazyCANSparkMax[] toFlush = sparks;
+
+        profiler.begin();
+        for (LazyCANSparkMax spark : toFlush) spark.flush(dutyCycleDeadband, voltageDeadband, refreshLoops);
+        profiler.end();
+
+        if (cycle++ % kLogEveryLoops != 0) return;
+
+        String[] sent = sentKeys;
+        String[] suppressed = suppressedKeys;
+        long sentFrames = 0;
+        for (int i = 0; i < toFlush.length; i++) {
+            Logger.recordOutput(sent[i], toFlush[i].getSentFrames());
+            Logger.recordOutput(suppressed[i], toFlush[i].getSuppressedFrames());
+            sentFrames += toFlush[i].getSentFrames();
+        }
+        Logger.recordOutput("CAN/Outputs/SentPerLoop", (sentFrames - lastSentFrames) / (double) kLogEveryLoops);
+        lastSentFrames = sentFrames;
+    }
+}
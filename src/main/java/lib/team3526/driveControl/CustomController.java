@@ -88,6 +88,23 @@ public class CustomController {
         }
     }
 
+    /**
+     * Apply the joystick curve to a raw axis value
+     * @param value The raw axis value
+     * @param curve The exponent of the curve (1 for linear, 3 for cubic)
+     * @return The shaped axis value (never -0.0)
+     */
+    public static double shapeAxis(double value, int curve) {
+        switch (curve) {
+            case 1:
+                return value + 0.0;
+            case 3:
+                return value * value * value + 0.0;
+            default:
+                return Math.pow(value, curve) + 0.0;
+        }
+    }
+
     /**
      * Get the "X" axis value of the left stick
      * @return The axis value of the stick
@@ -95,11 +112,11 @@ public class CustomController {
     public double getLeftY() {
         switch (this.type) {
             case XBOX:
-                return Math.pow(xboxController.getLeftY(), this.curve)+0.0;
+                return shapeAxis(xboxController.getLeftY(), this.curve);
             case PS4:
-                return Math.pow(ps4Controller.getLeftY(), this.curve)+0.0;
+                return shapeAxis(ps4Controller.getLeftY(), this.curve);
             case PS5:
-                return Math.pow(ps5Controller.getLeftY(), this.curve)+0.0;
+                return shapeAxis(ps5Controller.getLeftY(), this.curve);
             default:
                 throw new IllegalArgumentException("Invalid Controller Type");
         }
@@ -112,11 +129,11 @@ public class CustomController {
     public double getLeftX() {
         switch (this.type) {
             case XBOX:
-                return Math.pow(xboxController.getLeftX(), this.curve)+0.0;
+                return shapeAxis(xboxController.getLeftX(), this.curve);
             case PS4:
-                return Math.pow(ps4Controller.getLeftX(), this.curve)+0.0;
+                return shapeAxis(ps4Controller.getLeftX(), this.curve);
             case PS5:
-                return Math.pow(ps5Controller.getLeftX(), this.curve)+0.0;
+                return shapeAxis(ps5Controller.getLeftX(), this.curve);
             default:
                 throw new IllegalArgumentException("Invalid Controller Type");
         }
@@ -129,11 +146,11 @@ public class CustomController {
     public double getRightX() {
         switch (this.type) {
             case XBOX:
-                return Math.pow(xboxController.getRightX(), this.curve)+0.0;
+                return shapeAxis(xboxController.getRightX(), this.curve);
             case PS4:
-                return Math.pow(ps4Controller.getRightX(), this.curve)+0.0;
+                return shapeAxis(ps4Controller.getRightX(), this.curve);
             case PS5:
-                return Math.pow(ps5Controller.getRightX(), this.curve)+0.0;
+                return shapeAxis(ps5Controller.getRightX(), this.curve);
             default:
                 throw new IllegalArgumentException("Invalid Controller Type");
         }
@@ -146,11 +163,11 @@ public class CustomController {
     public double getRightY() {
         switch (this.type) {
             case XBOX:
-                return Math.pow(xboxController.getRightY(), this.curve)+0.0;
+                return shapeAxis(xboxController.getRightY(), this.curve);
             case PS4:
-                return Math.pow(ps4Controller.getRightY(), this.curve)+0.0;
+                return shapeAxis(ps4Controller.getRightY(), this.curve);
             case PS5:
-                return Math.pow(ps5Controller.getRightY(), this.curve)+0.0;
+                return shapeAxis(ps5Controller.getRightY(), this.curve);
             default:
                 throw new IllegalArgumentException("Invalid Controller Type");
         }
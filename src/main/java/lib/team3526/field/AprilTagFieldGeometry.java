@@ -0,0 +1,207 @@
+package lib.team3526.field;
+
+import java.util.EnumMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+
+/**
+ * AprilTag layout of a field with per-tag data precomputed into flat arrays, loaded once off the main thread.
+ * <p>
+ * Tags are indexed by ID: position, yaw, the direction they face (normal) and their 2D/3D poses.
+ * Queries never allocate.
+ */
+public final class AprilTagFieldGeometry {
+    // * One load per field, shared by every caller
+    private static final EnumMap<AprilTagFields, CompletableFuture<AprilTagFieldGeometry>> loads = new EnumMap<>(AprilTagFields.class);
+
+    private final AprilTagFieldLayout layout;
+    private final double fieldLength;
+    private final double fieldWidth;
+
+    // * Per tag (indexed by ID)
+    private final boolean[] present;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final double[] yaw;
+    private final double[] normalX;
+    private final double[] normalY;
+    private final Pose2d[] poses2d;
+    private final Pose3d[] poses3d;
+
+    /**
+     * Start loading the geometry of a field on a background thread (does nothing if it is already loading)
+     * @param field
+     * @return
+     */
+    public static synchronized CompletableFuture<AprilTagFieldGeometry> loadAsync(AprilTagFields field) {
+        return loads.computeIfAbsent(field, key -> {
+            CompletableFuture<AprilTagFieldGeometry> future = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    future.complete(new AprilTagFieldGeometry(key.loadAprilTagLayoutField()));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            }, "AprilTagFieldGeometry");
+            thread.setDaemon(true);
+            thread.start();
+            return future;
+        });
+    }
+
+    /**
+     * Get the geometry of a field, waiting for it to load if needed
+     * @param field
+     * @return
+     */
+    public static AprilTagFieldGeometry get(AprilTagFields field) {
+        try {
+            return loadAsync(field).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to load the AprilTag layout of " + field, e.getCause());
+        }
+    }
+
+    /**
+     * Precompute the geometry of a layout
+     * @param layout
+     */
+    public AprilTagFieldGeometry(AprilTagFieldLayout layout) {
+        this.layout = layout;
+        this.fieldLength = layout.getFieldLength();
+        this.fieldWidth = layout.getFieldWidth();
+
+        int maxId = 0;
+        for (AprilTag tag : layout.getTags()) maxId = Math.max(maxId, tag.ID);
+
+        int size = maxId + 1;
+        this.present = new boolean[size];
+        this.x = new double[size];
+        this.y = new double[size];
+        this.z = new double[size];
+        this.yaw = new double[size];
+        this.normalX = new double[size];
+        this.normalY = new double[size];
+        this.poses2d = new Pose2d[size];
+        this.poses3d = new Pose3d[size];
+
+        for (AprilTag tag : layout.getTags()) {
+            int id = tag.ID;
+            if (id < 0) continue;
+            Pose3d pose = tag.pose;
+            this.present[id] = true;
+            this.x[id] = pose.getX();
+            this.y[id] = pose.getY();
+            this.z[id] = pose.getZ();
+            this.yaw[id] = pose.getRotation().getZ();
+            // Tags face along the +X axis of their pose
+            this.normalX[id] = Math.cos(this.yaw[id]);
+            this.normalY[id] = Math.sin(this.yaw[id]);
+            this.poses3d[id] = pose;
+            this.poses2d[id] = pose.toPose2d();
+        }
+    }
+
+    public AprilTagFieldLayout getLayout() {
+        return this.layout;
+    }
+
+    public double getFieldLength() {
+        return this.fieldLength;
+    }
+
+    public double getFieldWidth() {
+        return this.fieldWidth;
+    }
+
+    /**
+     * Check if the field has a tag with this ID
+     * @param id
+     * @return
+     */
+    public boolean hasTag(int id) {
+        return id >= 0 && id < this.present.length && this.present[id];
+    }
+
+    public double getTagX(int id) {
+        return this.x[id];
+    }
+
+    public double getTagY(int id) {
+        return this.y[id];
+    }
+
+    public double getTagZ(int id) {
+        return this.z[id];
+    }
+
+    public double getTagYawRadians(int id) {
+        return this.yaw[id];
+    }
+
+    /**
+     * Get the X component of the direction the tag faces (unit vector on the field plane)
+     * @param id
+     * @return
+     */
+    public double getTagNormalX(int id) {
+        return this.normalX[id];
+    }
+
+    /**
+     * Get the Y component of the direction the tag faces (unit vector on the field plane)
+     * @param id
+     * @return
+     */
+    public double getTagNormalY(int id) {
+        return this.normalY[id];
+    }
+
+    /**
+     * Get the pose of a tag on the field plane (null if there is no such tag)
+     * @param id
+     * @return
+     */
+    public Pose2d getTagPose2d(int id) {
+        return hasTag(id) ? this.poses2d[id] : null;
+    }
+
+    /**
+     * Get the pose of a tag (null if there is no such tag)
+     * @param id
+     * @return
+     */
+    public Pose3d getTagPose3d(int id) {
+        return hasTag(id) ? this.poses3d[id] : null;
+    }
+
+    /**
+     * Get the distance on the field plane from a point to a tag
+     * @param id
+     * @param fieldX
+     * @param fieldY
+     * @return
+     */
+    public double getDistance(int id, double fieldX, double fieldY) {
+        return Math.hypot(fieldX - this.x[id], fieldY - this.y[id]);
+    }
+
+    /**
+     * Check if a point is in front of a tag (no distance limit)
+     * @param id
+     * @param fieldX
+     * @param fieldY
+     * @return False if there is no such tag
+     */
+    public boolean isInFrontOf(int id, double fieldX, double fieldY) {
+        if (!hasTag(id)) return false;
+        return (fieldX - this.x[id]) * this.normalX[id] + (fieldY - this.y[id]) * this.normalY[id] > 0;
+    }
+}
@@ -0,0 +1,166 @@
+package lib.team3526.logging;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.littletonrobotics.junction.LogDataReceiver;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Hands log tables to another receiver (e.g. a WPILOGWriter) through a bounded queue drained by its own thread.
+ * <p>
+ * AdvantageKit calls every receiver from a single thread and disables all of them if its own queue fills up, so a
+ * slow disk must not block {@link #putTable(LogTable)}. Tables that do not fit in the queue are dropped and counted;
+ * the writer only loses the intermediate values because it logs the differences against the last table it wrote.
+ * Call {@link #logStats()} from the main loop to record the queue stats.
+ */
+public class BufferedLogReceiver implements LogDataReceiver {
+    // * Longest wait for new tables before checking if the writer should stop
+    private static final long kPollTimeoutMs = 100;
+
+    private final LogDataReceiver receiver;
+    private final String name;
+    private final ArrayBlockingQueue<LogTable> queue;
+    private final ArrayList<LogTable> batch;
+    private final int capacity;
+
+    private Thread writerThread;
+    private volatile boolean running = false;
+
+    // * Stats (written by the receiver threads, read by the main loop)
+    private volatile long queuedTables = 0;
+    private volatile long writtenTables = 0;
+    private volatile long droppedTables = 0;
+    private volatile int maxDepth = 0;
+    private volatile double lastBatchMs = 0;
+    private volatile double maxBatchMs = 0;
+
+    // * Keys (built once)
+    private final String depthKey;
+    private final String maxDepthKey;
+    private final String droppedKey;
+    private final String writtenKey;
+    private final String batchMsKey;
+    private final String maxBatchMsKey;
+
+    /**
+     * Create a buffered receiver
+     * @param name Name of the receiver (used for the thread and the stats keys)
+     * @param receiver The receiver that does the slow work
+     * @param capacity Maximum number of tables waiting to be written (one per loop)
+     */
+    public BufferedLogReceiver(String name, LogDataReceiver receiver, int capacity) {
+        this.name = name;
+        this.receiver = receiver;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batch = new ArrayList<>(capacity);
+
+        String prefix = "Logging/" + name + "/";
+        this.depthKey = prefix + "QueueDepth";
+        this.maxDepthKey = prefix + "MaxQueueDepth";
+        this.droppedKey = prefix + "DroppedTables";
+        this.writtenKey = prefix + "WrittenTables";
+        this.batchMsKey = prefix + "BatchMs";
+        this.maxBatchMsKey = prefix + "MaxBatchMs";
+    }
+
+    @Override
+    public void start() {
+        receiver.start();
+
+        running = true;
+        writerThread = new Thread(this::writerLoop, "Log writer " + name);
+        writerThread.setDaemon(true);
+        writerThread.setPriority(Thread.MIN_PRIORITY);
+        writerThread.start();
+    }
+
+    @Override
+    public void end() {
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        receiver.end();
+    }
+
+    @Override
+    public void putTable(LogTable table) {
+        // Never block the AdvantageKit receiver thread
+        if (!queue.offer(table)) {
+            droppedTables++;
+            return;
+        }
+        queuedTables++;
+        int depth = queue.size();
+        if (depth > maxDepth) maxDepth = depth;
+    }
+
+    /**
+     * Record the queue stats (call from the main loop)
+     */
+    public void logStats() {
+        Logger.recordOutput(depthKey, queue.size());
+        Logger.recordOutput(maxDepthKey, maxDepth);
+        Logger.recordOutput(droppedKey, droppedTables);
+        Logger.recordOutput(writtenKey, writtenTables);
+        Logger.recordOutput(batchMsKey, lastBatchMs);
+        Logger.recordOutput(maxBatchMsKey, maxBatchMs);
+    }
+
+    /**
+     * Get the number of tables dropped because the queue was full
+     * @return
+     */
+    public long getDroppedTables() {
+        return droppedTables;
+    }
+
+    /**
+     * Get the number of tables accepted into the queue
+     * @return
+     */
+    public long getQueuedTables() {
+        return queuedTables;
+    }
+
+    /**
+     * Get the capacity of the queue
+     * @return
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void writerLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                // Wait for a table, then take everything that piled up behind it
+                LogTable first = queue.poll(kPollTimeoutMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                long start = System.nanoTime();
+                batch.add(first);
+                queue.drainTo(batch);
+                for (int i = 0; i < batch.size(); i++) receiver.putTable(batch.get(i));
+                writtenTables += batch.size();
+                batch.clear();
+
+                double batchMs = (System.nanoTime() - start) / 1e6;
+                lastBatchMs = batchMs;
+                if (batchMs > maxBatchMs) maxBatchMs = batchMs;
+            } catch (InterruptedException e) {
+                batch.clear();
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package lib.team3526.logging;
+
+/**
+ * How often a {@link Telemetry} signal is written to the log
+ */
+public final class LogRate {
+    // * Every loop (50Hz)
+    public static final LogRate kEveryLoop = new LogRate(1, false);
+
+    // * Only when the value differs from the last one written
+    public static final LogRate kOnChange = new LogRate(1, true);
+
+    final int periodCycles;
+    final boolean onChange;
+
+    private LogRate(int periodCycles, boolean onChange) {
+        if (periodCycles < 1) throw new IllegalArgumentException("The log period must be at least one loop");
+        this.periodCycles = periodCycles;
+        this.onChange = onChange;
+    }
+
+    /**
+     * Log once every N loops (signals with the same rate are spread across the loops)
+     * @param cycles
+     * @return
+     */
+    public static LogRate everyNLoops(int cycles) {
+        return new LogRate(cycles, false);
+    }
+}
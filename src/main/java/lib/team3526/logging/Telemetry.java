@@ -0,0 +1,233 @@
+package lib.team3526.logging;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.util.struct.Struct;
+import lib.team3526.utils.LoopProfiler;
+
+/**
+ * Logging helper for values written every loop from the control thread.
+ * <p>
+ * Keys are built once when a signal is created and every signal has a {@link LogRate}. Geometry is logged through
+ * its WPILib struct; on-change struct signals pack the value into a reused buffer and compare it to the last value
+ * written, so unchanged values never reach the logger. The time spent in the helper is logged under
+ * {@code LoopTime/Telemetry}. Signals can be created on any thread but only written from the main thread.
+ */
+public class Telemetry {
+    private static final String kWritesKey = "Telemetry/WritesPerCycle";
+
+    // * Shared by every signal
+    private static final LoopProfiler.Section overhead = LoopProfiler.section("Telemetry");
+    private static long cycle = 0;
+    private static long cycleNanos = 0;
+    private static int cycleWrites = 0;
+    private static final AtomicInteger signalCount = new AtomicInteger();
+
+    private final String prefix;
+
+    /**
+     * Create a telemetry group
+     * @param prefix The prefix of every key of the group (e.g. "SwerveDrive/FrontLeft")
+     */
+    public Telemetry(String prefix) {
+        this.prefix = prefix.endsWith("/") ? prefix : prefix + "/";
+    }
+
+    /**
+     * Advance to the next loop and record the logging overhead of the last one (call once per loop, after the scheduler runs)
+     */
+    public static void periodic() {
+        overhead.record(cycleNanos);
+        Logger.recordOutput(kWritesKey, cycleWrites);
+
+        cycleNanos = 0;
+        cycleWrites = 0;
+        cycle++;
+    }
+
+    public DoubleSignal doubleSignal(String name, LogRate rate) {
+        return new DoubleSignal(prefix + name, rate);
+    }
+
+    public LongSignal longSignal(String name, LogRate rate) {
+        return new LongSignal(prefix + name, rate);
+    }
+
+    public BooleanSignal booleanSignal(String name, LogRate rate) {
+        return new BooleanSignal(prefix + name, rate);
+    }
+
+    public <T> StructSignal<T> structSignal(String name, Struct<T> struct, LogRate rate) {
+        return new StructSignal<>(prefix + name, struct, rate);
+    }
+
+    public <T> StructArraySignal<T> structArraySignal(String name, Struct<T> struct, int length, LogRate rate) {
+        return new StructArraySignal<>(prefix + name, struct, length, rate);
+    }
+
+    // * Signals
+    private abstract static class Signal {
+        protected final String key;
+        protected final LogRate rate;
+        private final int phase;
+        protected boolean written = false;
+
+        protected Signal(String key, LogRate rate) {
+            this.key = key;
+            this.rate = rate;
+            this.phase = signalCount.getAndIncrement() % rate.periodCycles;
+        }
+
+        /**
+         * Check if the signal should be logged this loop
+         */
+        protected boolean isDue() {
+            return rate.periodCycles == 1 || (cycle + phase) % rate.periodCycles == 0;
+        }
+
+        protected static long start() {
+            return System.nanoTime();
+        }
+
+        protected static void finish(long start, boolean wrote) {
+            if (wrote) cycleWrites++;
+            cycleNanos += System.nanoTime() - start;
+        }
+    }
+
+    public static final class DoubleSignal extends Signal {
+        private double last;
+
+        private DoubleSignal(String key, LogRate rate) {
+            super(key, rate);
+        }
+
+        public void set(double value) {
+            long start = start();
+            boolean write = isDue() && (!rate.onChange || !written || Double.doubleToLongBits(value) != Double.doubleToLongBits(last));
+            if (write) {
+                Logger.recordOutput(key, value);
+                last = value;
+                written = true;
+            }
+            finish(start, write);
+        }
+    }
+
+    public static final class LongSignal extends Signal {
+        private long last;
+
+        private LongSignal(String key, LogRate rate) {
+            super(key, rate);
+        }
+
+        public void set(long value) {
+            long start = start();
+            boolean write = isDue() && (!rate.onChange || !written || value != last);
+            if (write) {
+                Logger.recordOutput(key, value);
+                last = value;
+                written = true;
+            }
+            finish(start, write);
+        }
+    }
+
+    public static final class BooleanSignal extends Signal {
+        private boolean last;
+
+        private BooleanSignal(String key, LogRate rate) {
+            super(key, rate);
+        }
+
+        public void set(boolean value) {
+            long start = start();
+            boolean write = isDue() && (!rate.onChange || !written || value != last);
+            if (write) {
+                Logger.recordOutput(key, value);
+                last = value;
+                written = true;
+            }
+            finish(start, write);
+        }
+    }
+
+    public static final class StructSignal<T> extends Signal {
+        private final Struct<T> struct;
+
+        // * Packed value of this loop and of the last one written
+        private final byte[] current;
+        private final byte[] last;
+        private final ByteBuffer currentBuffer;
+
+        private StructSignal(String key, Struct<T> struct, LogRate rate) {
+            super(key, rate);
+            this.struct = struct;
+            this.current = new byte[struct.getSize()];
+            this.last = new byte[struct.getSize()];
+            this.currentBuffer = ByteBuffer.wrap(current).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        public void set(T value) {
+            long start = start();
+            boolean write = isDue();
+            if (write && rate.onChange) {
+                currentBuffer.clear();
+                struct.pack(currentBuffer, value);
+                write = !written || !Arrays.equals(current, last);
+                if (write) System.arraycopy(current, 0, last, 0, current.length);
+            }
+            if (write) {
+                Logger.recordOutput(key, struct, value);
+                written = true;
+            }
+            finish(start, write);
+        }
+    }
+
+    public static final class StructArraySignal<T> extends Signal {
+        private final Struct<T> struct;
+        private final int length;
+
+        // * Packed values of this loop and of the last ones written
+        private final byte[] current;
+        private final byte[] last;
+        private final ByteBuffer currentBuffer;
+
+        private StructArraySignal(String key, Struct<T> struct, int length, LogRate rate) {
+            super(key, rate);
+            this.struct = struct;
+            this.length = length;
+            this.current = new byte[struct.getSize() * length];
+            this.last = new byte[struct.getSize() * length];
+            this.currentBuffer = ByteBuffer.wrap(current).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Log the values
+         * @param values Must have the length given when the signal was created
+         */
+        public void set(T[] values) {
+            if (values.length != length) throw new IllegalArgumentException("Expected " + length + " values for " + key);
+
+            long start = start();
+            boolean write = isDue();
+            if (write && rate.onChange) {
+                currentBuffer.clear();
+                for (T value : values) struct.pack(currentBuffer, value);
+                write = !written || !Arrays.equals(current, last);
+                if (write) System.arraycopy(current, 0, last, 0, current.length);
+            }
+            if (write) {
+                Logger.recordOutput(key, struct, values);
+                written = true;
+            }
+            finish(start, write);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package lib.team3526.math;
+
+/**
+ * Rolling histogram of durations over the last N samples, stored in preallocated primitive buckets.
+ * <p>
+ * Buckets are 20us wide up to 5ms and 250us wide up to 50ms, longer samples go to an overflow bucket.
+ * Adding a sample never allocates; percentiles are resolved to the upper edge of their bucket (capped at the
+ * exact maximum of the window). Not thread safe.
+ */
+public class LatencyHistogram {
+    private static final int kFineResolutionMicros = 20;
+    private static final int kFineBuckets = 250;
+    private static final int kCoarseResolutionMicros = 250;
+    private static final int kCoarseBuckets = 180;
+
+    private static final int kFineLimitMicros = kFineResolutionMicros * kFineBuckets;
+    private static final int kCoarseLimitMicros = kFineLimitMicros + kCoarseResolutionMicros * kCoarseBuckets;
+    private static final int kOverflowBucket = kFineBuckets + kCoarseBuckets;
+
+    // * Samples per bucket
+    private final int[] counts = new int[kOverflowBucket + 1];
+
+    // * Raw samples of the window (to drop the oldest one and get the exact max)
+    private final int[] window;
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Create a rolling histogram
+     * @param windowSize The number of samples kept
+     */
+    public LatencyHistogram(int windowSize) {
+        this.window = new int[windowSize];
+    }
+
+    /**
+     * Add a sample, dropping the oldest one if the window is full
+     * @param nanos Duration in nanoseconds
+     */
+    public void addNanos(long nanos) {
+        addMicros((int) Math.min(Math.max(nanos, 0) / 1000, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Add a sample, dropping the oldest one if the window is full
+     * @param micros Duration in microseconds
+     */
+    public void addMicros(int micros) {
+        if (micros < 0) micros = 0;
+
+        if (size == window.length) counts[bucketOf(window[head])]--;
+        else size++;
+
+        window[head] = micros;
+        counts[bucketOf(micros)]++;
+        head = (head + 1) % window.length;
+    }
+
+    /**
+     * Remove every sample
+     */
+    public void clear() {
+        for (int i = 0; i < counts.length; i++) counts[i] = 0;
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Get the number of samples in the window
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the longest sample of the window
+     * @return Microseconds (0 if empty)
+     */
+    public int getMaxMicros() {
+        int max = 0;
+        for (int i = 0; i < size; i++) max = Math.max(max, window[i]);
+        return max;
+    }
+
+    /**
+     * Get a percentile of the window
+     * @param percentile Between 0 and 1
+     * @return Microseconds (0 if empty)
+     */
+    public int getPercentileMicros(double percentile) {
+        if (size == 0) return 0;
+
+        int rank = Math.max(1, (int) Math.ceil(percentile * size));
+        int cumulative = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            cumulative += counts[bucket];
+            if (cumulative >= rank) return Math.min(upperEdgeOf(bucket), getMaxMicros());
+        }
+        return getMaxMicros();
+    }
+
+    private static int bucketOf(int micros) {
+        if (micros < kFineLimitMicros) return micros / kFineResolutionMicros;
+        if (micros < kCoarseLimitMicros) return kFineBuckets + (micros - kFineLimitMicros) / kCoarseResolutionMicros;
+        return kOverflowBucket;
+    }
+
+    private static int upperEdgeOf(int bucket) {
+        if (bucket < kFineBuckets) return (bucket + 1) * kFineResolutionMicros;
+        if (bucket < kOverflowBucket) return kFineLimitMicros + (bucket - kFineBuckets + 1) * kCoarseResolutionMicros;
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,198 @@
+package lib.team3526.math;
+
+import java.util.Optional;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Fixed capacity history of timestamped robot poses, stored in primitive ring buffers.
+ * <p>
+ * Adding a sample never allocates. Queries binary search the buffer (O(log n)) and interpolate between
+ * the two samples around the requested timestamp. Not thread safe.
+ */
+public class PoseHistory {
+    private final int capacity;
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] thetas;
+
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Create a pose history
+     * @param capacity The maximum number of samples kept (the oldest one is overwritten when full)
+     */
+    public PoseHistory(int capacity) {
+        this.capacity = capacity;
+        this.timestamps = new double[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.thetas = new double[capacity];
+    }
+
+    /**
+     * Add a sample, samples older than (or as old as) the newest one are ignored
+     * @param timestamp Seconds
+     * @param x Meters
+     * @param y Meters
+     * @param thetaRadians
+     */
+    public void add(double timestamp, double x, double y, double thetaRadians) {
+        if (size > 0 && timestamp <= timestamps[index(size - 1)]) return;
+
+        int i;
+        if (size == capacity) {
+            i = head;
+            head = (head + 1) % capacity;
+        } else {
+            i = index(size);
+            size++;
+        }
+
+        timestamps[i] = timestamp;
+        xs[i] = x;
+        ys[i] = y;
+        thetas[i] = thetaRadians;
+    }
+
+    /**
+     * Add a sample
+     * @param timestamp Seconds
+     * @param pose
+     */
+    public void add(double timestamp, Pose2d pose) {
+        add(timestamp, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+    }
+
+    /**
+     * Remove every sample (e.g. after the pose is reset)
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Get the number of samples stored
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the timestamp of the oldest sample
+     * @return
+     */
+    public double getOldestTimestamp() {
+        return size == 0 ? 0 : timestamps[index(0)];
+    }
+
+    /**
+     * Get the timestamp of the newest sample
+     * @return
+     */
+    public double getNewestTimestamp() {
+        return size == 0 ? 0 : timestamps[index(size - 1)];
+    }
+
+    /**
+     * Get the interpolated pose at a timestamp without allocating, clamped to the stored range
+     * @param timestamp Seconds
+     * @param out Receives {x, y, theta (radians)}
+     * @return False if the history is empty
+     */
+    public boolean getPoseAt(double timestamp, double[] out) {
+        if (size == 0) return false;
+
+        int upper = upperBound(timestamp);
+        if (upper == 0) {
+            copy(index(0), out);
+            return true;
+        }
+        if (upper == size) {
+            copy(index(size - 1), out);
+            return true;
+        }
+
+        int a = index(upper - 1);
+        int b = index(upper);
+        double t = (timestamp - timestamps[a]) / (timestamps[b] - timestamps[a]);
+
+        out[0] = xs[a] + (xs[b] - xs[a]) * t;
+        out[1] = ys[a] + (ys[b] - ys[a]) * t;
+        out[2] = MathUtil.angleModulus(thetas[a] + MathUtil.angleModulus(thetas[b] - thetas[a]) * t);
+        return true;
+    }
+
+    /**
+     * Get the interpolated pose at a timestamp, clamped to the stored range
+     * @param timestamp Seconds
+     * @return Empty if the history is empty
+     */
+    public Optional<Pose2d> getPoseAt(double timestamp) {
+        double[] pose = new double[3];
+        if (!getPoseAt(timestamp, pose)) return Optional.empty();
+        return Optional.of(new Pose2d(pose[0], pose[1], Rotation2d.fromRadians(pose[2])));
+    }
+
+    /**
+     * Get the field relative velocity at a timestamp without allocating, from the two samples around it
+     * @param timestamp Seconds
+     * @param out Receives {vx (m/s), vy (m/s), omega (rad/s)}
+     * @return False if there are less than two samples
+     */
+    public boolean getVelocityAt(double timestamp, double[] out) {
+        if (size < 2) return false;
+
+        int upper = Math.min(Math.max(upperBound(timestamp), 1), size - 1);
+        int a = index(upper - 1);
+        int b = index(upper);
+        double dt = timestamps[b] - timestamps[a];
+
+        out[0] = (xs[b] - xs[a]) / dt;
+        out[1] = (ys[b] - ys[a]) / dt;
+        out[2] = MathUtil.angleModulus(thetas[b] - thetas[a]) / dt;
+        return true;
+    }
+
+    /**
+     * Get the field relative velocity at a timestamp
+     * @param timestamp Seconds
+     * @return Empty if there are less than two samples
+     */
+    public Optional<ChassisSpeeds> getVelocityAt(double timestamp) {
+        double[] velocity = new double[3];
+        if (!getVelocityAt(timestamp, velocity)) return Optional.empty();
+        return Optional.of(new ChassisSpeeds(velocity[0], velocity[1], velocity[2]));
+    }
+
+    /**
+     * Get the logical index of the first sample newer than the timestamp (size if there is none)
+     */
+    private int upperBound(double timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[index(mid)] <= timestamp) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private int index(int logicalIndex) {
+        return (head + logicalIndex) % capacity;
+    }
+
+    private void copy(int i, double[] out) {
+        out[0] = xs[i];
+        out[1] = ys[i];
+        out[2] = thetas[i];
+    }
+}
@@ -0,0 +1,481 @@
+package lib.team3526.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Incremental shortest path search (D* Lite) over a {@link NavGrid} with 8-connected cells.
+ * <p>
+ * The search runs from the goal to the start, so when the robot moves or obstacles appear and disappear only the
+ * affected part of the previous search is repaired instead of searching the whole grid again. Changing the goal
+ * starts a new search. Dynamic obstacles are a second bitset on top of the grid. Diagonal moves cannot cut the
+ * corner of an obstacle. Everything is stored in flat arrays allocated once, planning does not allocate.
+ * Not thread safe.
+ */
+public final class DStarLitePlanner {
+    private static final double kInfinity = Double.POSITIVE_INFINITY;
+    private static final double kSqrt2 = Math.sqrt(2);
+    private static final double kKeyTolerance = 1e-9;
+
+    // * Neighbor offsets (the first 4 are straight, the last 4 diagonal)
+    private static final int[] kDx = { 1, -1, 0, 0, 1, 1, -1, -1 };
+    private static final int[] kDy = { 0, 0, 1, -1, 1, -1, 1, -1 };
+
+    // * Grid
+    private final NavGrid grid;
+    private final int columns;
+    private final int rows;
+    private final long[] dynamicBlocked;
+
+    // * Search state (per cell)
+    private final double[] g;
+    private final double[] rhs;
+
+    // * Priority queue (indexed binary heap ordered by key1 then key2)
+    private final int[] heap;
+    private final int[] heapIndex;
+    private final double[] key1;
+    private final double[] key2;
+    private int heapSize = 0;
+
+    // * Nearest free cell search
+    private final int[] searchQueue;
+    private final int[] searchMark;
+    private int searchStamp = 0;
+
+    private int start = -1;
+    private int goal = -1;
+    private int last = -1;
+    private double km = 0;
+    private int expansions = 0;
+
+    /**
+     * Create a planner
+     * @param grid
+     */
+    public DStarLitePlanner(NavGrid grid) {
+        this.grid = grid;
+        this.columns = grid.getColumns();
+        this.rows = grid.getRows();
+
+        int cells = grid.getCellCount();
+        this.dynamicBlocked = new long[NavGrid.words(cells)];
+        this.g = new double[cells];
+        this.rhs = new double[cells];
+        this.heap = new int[cells];
+        this.heapIndex = new int[cells];
+        this.key1 = new double[cells];
+        this.key2 = new double[cells];
+        this.searchQueue = new int[cells];
+        this.searchMark = new int[cells];
+
+        Arrays.fill(this.g, kInfinity);
+        Arrays.fill(this.rhs, kInfinity);
+        Arrays.fill(this.heapIndex, -1);
+    }
+
+    /**
+     * Start a new search
+     * @param start Start cell
+     * @param goal Goal cell
+     */
+    public void reset(int start, int goal) {
+        for (int i = 0; i < this.heapSize; i++) this.heapIndex[this.heap[i]] = -1;
+        this.heapSize = 0;
+        Arrays.fill(this.g, kInfinity);
+        Arrays.fill(this.rhs, kInfinity);
+
+        this.start = start;
+        this.last = start;
+        this.goal = goal;
+        this.km = 0;
+
+        this.rhs[goal] = 0;
+        push(goal, heuristic(start, goal), 0);
+    }
+
+    /**
+     * Move the start of the current search (the robot moved)
+     * @param start
+     */
+    public void moveStart(int start) {
+        if (this.goal < 0) throw new IllegalStateException("No search to move the start of");
+        if (start == this.start) return;
+        this.km += heuristic(this.last, start);
+        this.last = start;
+        this.start = start;
+    }
+
+    /**
+     * Replace the dynamic obstacles and repair the current search around the cells that changed
+     * @param blocked Obstacle bitset ({@link NavGrid#words(int)} words, same indexing as the grid)
+     * @return The number of cells that changed
+     */
+    public int setDynamicObstacles(long[] blocked) {
+        int changed = 0;
+        for (int word = 0; word < this.dynamicBlocked.length; word++) {
+            long diff = this.dynamicBlocked[word] ^ blocked[word];
+            if (diff == 0) continue;
+            this.dynamicBlocked[word] = blocked[word];
+
+            // Without a search there is nothing to repair
+            while (diff != 0 && this.goal >= 0) {
+                int cell = (word << 6) + Long.numberOfTrailingZeros(diff);
+                diff &= diff - 1;
+                changed++;
+
+                updateVertex(cell);
+                int column = cell % this.columns;
+                int row = cell / this.columns;
+                for (int d = 0; d < 8; d++) {
+                    int neighborColumn = column + kDx[d];
+                    int neighborRow = row + kDy[d];
+                    if (inside(neighborColumn, neighborRow)) updateVertex(neighborRow * this.columns + neighborColumn);
+                }
+            }
+            changed += Long.bitCount(diff);
+        }
+        return changed;
+    }
+
+    /**
+     * Search (or repair the search) until the shortest path from the start is known
+     * @param maxExpansions Stop after expanding this many cells (call again to continue)
+     * @return False if it stopped because of the expansion limit
+     */
+    public boolean computeShortestPath(int maxExpansions) {
+        this.expansions = 0;
+        while (this.heapSize > 0) {
+            int top = this.heap[0];
+            double startKey2 = Math.min(this.g[this.start], this.rhs[this.start]);
+            double startKey1 = startKey2 + this.km;
+            // Until the start is consistent and nothing left in the queue can improve it
+            if (!less(this.key1[top], this.key2[top], startKey1, startKey2) && this.rhs[this.start] == this.g[this.start]) break;
+            if (this.expansions >= maxExpansions) return false;
+            this.expansions++;
+
+            double newKey2 = Math.min(this.g[top], this.rhs[top]);
+            double newKey1 = newKey2 + heuristic(this.start, top) + this.km;
+            if (less(this.key1[top], this.key2[top], newKey1, newKey2)) {
+                // Its key is stale since the start moved
+                update(top, newKey1, newKey2);
+            } else if (this.g[top] > this.rhs[top]) {
+                this.g[top] = this.rhs[top];
+                remove(top);
+                updateNeighbors(top);
+            } else {
+                this.g[top] = kInfinity;
+                updateVertex(top);
+                updateNeighbors(top);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the last search found a path from the start to the goal
+     * @return
+     */
+    public boolean hasPath() {
+        return this.start >= 0 && this.g[this.start] < kInfinity;
+    }
+
+    /**
+     * Get the cells of the shortest path (start and goal included)
+     * @param out Receives the cells
+     * @return The number of cells, 0 if there is no path (or it does not fit)
+     */
+    public int extractPath(int[] out) {
+        if (!hasPath() || out.length == 0) return 0;
+
+        int cell = this.start;
+        int count = 0;
+        out[count++] = cell;
+        while (cell != this.goal) {
+            if (count == out.length) return 0;
+
+            int column = cell % this.columns;
+            int row = cell / this.columns;
+            int best = -1;
+            double bestCost = kInfinity;
+            for (int d = 0; d < 8; d++) {
+                int neighborColumn = column + kDx[d];
+                int neighborRow = row + kDy[d];
+                if (!inside(neighborColumn, neighborRow)) continue;
+                int neighbor = neighborRow * this.columns + neighborColumn;
+                double cost = cost(column, row, d) + this.g[neighbor];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = neighbor;
+                }
+            }
+            if (best < 0) return 0;
+            cell = best;
+            out[count++] = cell;
+        }
+        return count;
+    }
+
+    /**
+     * Find the free cell closest (in steps) to a cell
+     * @param cell
+     * @return The cell itself if it is free, -1 if every cell is blocked
+     */
+    public int findNearestFree(int cell) {
+        if (!isBlocked(cell)) return cell;
+
+        if (++this.searchStamp == 0) {
+            Arrays.fill(this.searchMark, 0);
+            this.searchStamp = 1;
+        }
+        int head = 0;
+        int tail = 0;
+        this.searchQueue[tail++] = cell;
+        this.searchMark[cell] = this.searchStamp;
+        while (head < tail) {
+            int current = this.searchQueue[head++];
+            if (!isBlocked(current)) return current;
+
+            int column = current % this.columns;
+            int row = current / this.columns;
+            for (int d = 0; d < 8; d++) {
+                int neighborColumn = column + kDx[d];
+                int neighborRow = row + kDy[d];
+                if (!inside(neighborColumn, neighborRow)) continue;
+                int neighbor = neighborRow * this.columns + neighborColumn;
+                if (this.searchMark[neighbor] == this.searchStamp) continue;
+                this.searchMark[neighbor] = this.searchStamp;
+                this.searchQueue[tail++] = neighbor;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check if a straight line between two field positions only crosses free cells
+     * (it cannot squeeze between two obstacles that touch at a corner)
+     * @param x0
+     * @param y0
+     * @param x1
+     * @param y1
+     * @return
+     */
+    public boolean hasLineOfSight(double x0, double y0, double x1, double y1) {
+        double nodeSize = this.grid.getNodeSizeMeters();
+        x0 /= nodeSize;
+        y0 /= nodeSize;
+        x1 /= nodeSize;
+        y1 /= nodeSize;
+
+        int column = (int) Math.floor(x0);
+        int row = (int) Math.floor(y0);
+        int endColumn = (int) Math.floor(x1);
+        int endRow = (int) Math.floor(y1);
+
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        double deltaX = dx == 0 ? kInfinity : Math.abs(1 / dx);
+        double deltaY = dy == 0 ? kInfinity : Math.abs(1 / dy);
+        double nextX = dx == 0 ? kInfinity : (dx > 0 ? column + 1 - x0 : x0 - column) * deltaX;
+        double nextY = dy == 0 ? kInfinity : (dy > 0 ? row + 1 - y0 : y0 - row) * deltaY;
+
+        int steps = Math.abs(endColumn - column) + Math.abs(endRow - row);
+        for (int i = 0; i <= steps; i++) {
+            if (isBlocked(column, row)) return false;
+            if (column == endColumn && row == endRow) return true;
+
+            if (nextX < nextY) {
+                nextX += deltaX;
+                column += stepX;
+            } else if (nextY < nextX) {
+                nextY += deltaY;
+                row += stepY;
+            } else {
+                // Through a corner
+                if (isBlocked(column + stepX, row) || isBlocked(column, row + stepY)) return false;
+                nextX += deltaX;
+                nextY += deltaY;
+                column += stepX;
+                row += stepY;
+                i++;
+            }
+        }
+        return !isBlocked(endColumn, endRow);
+    }
+
+    /**
+     * Check if a cell is blocked by the grid or a dynamic obstacle
+     * @param cell
+     * @return
+     */
+    public boolean isBlocked(int cell) {
+        return this.grid.isBlocked(cell) || (this.dynamicBlocked[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Check if a cell is blocked by the grid or a dynamic obstacle (true outside the grid)
+     * @param column
+     * @param row
+     * @return
+     */
+    public boolean isBlocked(int column, int row) {
+        if (!inside(column, row)) return true;
+        return isBlocked(row * this.columns + column);
+    }
+
+    public NavGrid getGrid() {
+        return this.grid;
+    }
+
+    public int getStart() {
+        return this.start;
+    }
+
+    public int getGoal() {
+        return this.goal;
+    }
+
+    /**
+     * Get the number of cells expanded by the last {@link #computeShortestPath(int)}
+     * @return
+     */
+    public int getLastExpansions() {
+        return this.expansions;
+    }
+
+    // * Search
+
+    private void updateVertex(int cell) {
+        if (cell != this.goal) {
+            int column = cell % this.columns;
+            int row = cell / this.columns;
+            double best = kInfinity;
+            for (int d = 0; d < 8; d++) {
+                int neighborColumn = column + kDx[d];
+                int neighborRow = row + kDy[d];
+                if (!inside(neighborColumn, neighborRow)) continue;
+                best = Math.min(best, cost(column, row, d) + this.g[neighborRow * this.columns + neighborColumn]);
+            }
+            this.rhs[cell] = best;
+        }
+
+        if (this.g[cell] != this.rhs[cell]) {
+            double newKey2 = Math.min(this.g[cell], this.rhs[cell]);
+            double newKey1 = newKey2 + heuristic(this.start, cell) + this.km;
+            if (this.heapIndex[cell] >= 0) update(cell, newKey1, newKey2);
+            else push(cell, newKey1, newKey2);
+        } else if (this.heapIndex[cell] >= 0) {
+            remove(cell);
+        }
+    }
+
+    private void updateNeighbors(int cell) {
+        int column = cell % this.columns;
+        int row = cell / this.columns;
+        for (int d = 0; d < 8; d++) {
+            int neighborColumn = column + kDx[d];
+            int neighborRow = row + kDy[d];
+            if (inside(neighborColumn, neighborRow)) updateVertex(neighborRow * this.columns + neighborColumn);
+        }
+    }
+
+    /**
+     * Cost of moving from a cell to its neighbor in a direction (infinite if either is blocked or it cuts a corner)
+     */
+    private double cost(int column, int row, int direction) {
+        int neighborColumn = column + kDx[direction];
+        int neighborRow = row + kDy[direction];
+        if (isBlocked(column, row) || isBlocked(neighborColumn, neighborRow)) return kInfinity;
+        if (direction < 4) return 1;
+        if (isBlocked(neighborColumn, row) || isBlocked(column, neighborRow)) return kInfinity;
+        return kSqrt2;
+    }
+
+    /**
+     * Octile distance between two cells (in cells)
+     */
+    private double heuristic(int a, int b) {
+        int dx = Math.abs(a % this.columns - b % this.columns);
+        int dy = Math.abs(a / this.columns - b / this.columns);
+        return Math.max(dx, dy) + (kSqrt2 - 1) * Math.min(dx, dy);
+    }
+
+    private boolean inside(int column, int row) {
+        return column >= 0 && row >= 0 && column < this.columns && row < this.rows;
+    }
+
+    // * Priority queue
+
+    /**
+     * Compare two keys (the same cost summed in a different order can differ in the last bits)
+     */
+    private static boolean less(double a1, double a2, double b1, double b2) {
+        if (a1 < b1 - kKeyTolerance) return true;
+        if (a1 > b1 + kKeyTolerance) return false;
+        return a2 < b2 - kKeyTolerance;
+    }
+
+    private boolean less(int i, int j) {
+        int a = this.heap[i];
+        int b = this.heap[j];
+        return less(this.key1[a], this.key2[a], this.key1[b], this.key2[b]);
+    }
+
+    private void push(int cell, double k1, double k2) {
+        this.key1[cell] = k1;
+        this.key2[cell] = k2;
+        this.heap[this.heapSize] = cell;
+        this.heapIndex[cell] = this.heapSize;
+        siftUp(this.heapSize++);
+    }
+
+    private void update(int cell, double k1, double k2) {
+        this.key1[cell] = k1;
+        this.key2[cell] = k2;
+        int i = this.heapIndex[cell];
+        siftUp(i);
+        siftDown(this.heapIndex[cell]);
+    }
+
+    private void remove(int cell) {
+        int i = this.heapIndex[cell];
+        this.heapIndex[cell] = -1;
+        int lastCell = this.heap[--this.heapSize];
+        if (i == this.heapSize) return;
+
+        this.heap[i] = lastCell;
+        this.heapIndex[lastCell] = i;
+        siftUp(i);
+        siftDown(this.heapIndex[lastCell]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(i, parent)) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= this.heapSize) break;
+            int smallest = left + 1 < this.heapSize && less(left + 1, left) ? left + 1 : left;
+            if (!less(smallest, i)) break;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int a = this.heap[i];
+        int b = this.heap[j];
+        this.heap[i] = b;
+        this.heap[j] = a;
+        this.heapIndex[b] = i;
+        this.heapIndex[a] = j;
+    }
+}
@@ -0,0 +1,361 @@
+package lib.team3526.pathfinding;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.pathplanner.lib.path.GoalEndState;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.pathfinding.Pathfinder;
+
+import edu.wpi.first.math.Pair;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import lib.team3526.concurrent.SPSCRingBuffer;
+import lib.team3526.math.LatencyHistogram;
+
+/**
+ * PathPlanner pathfinder that plans over the navigation grid with {@link DStarLitePlanner} on its own thread.
+ * <p>
+ * Register it with {@code Pathfinding.setPathfinder} and the PathPlanner pathfinding commands
+ * ({@code AutoBuilder.pathfindToPose}, {@code pathfindThenFollowPath}) follow its paths. The setters only store the
+ * request, invalidate the published path and wake the planner thread, so the main loop never waits for a search and
+ * never gets a path planned for an older request. Every request is answered, even when the path does not change.
+ * The grid is loaded on the planner thread too. Moving the start or the obstacles repairs the previous search; changing the goal starts a new one.
+ * The grid path is shortened to the cells with line of sight between them and turned into a bezier path when the
+ * follower asks for it. Every query is timed and the timings are logged by {@link #periodic()}.
+ */
+public class GridPathfinder implements Pathfinder {
+    private static final String kPrefix = "Pathfinding/";
+    private static final long kIdleParkNanos = 20_000_000;
+    private static final int kQueueSize = 32;
+    private static final int kHistogramWindow = 256;
+    // Waypoints closer than this are merged
+    private static final double kMinWaypointSpacingMeters = 0.01;
+
+    // * A finished query (planner thread produces, main loop consumes)
+    private static final class Query {
+        long nanos;
+        int expansions;
+        int cells;
+        int waypoints;
+        boolean newSearch;
+        boolean found;
+    }
+
+    // * A published path and the request it answers
+    private static final class Result {
+        final long version;
+        final List<Translation2d> waypoints;
+
+        Result(long version, List<Translation2d> waypoints) {
+            this.version = version;
+            this.waypoints = waypoints;
+        }
+    }
+
+    // * Config
+    private final File gridFile;
+    private final int maxExpansions;
+
+    // * Request (written by the main loop, read by the planner thread)
+    private volatile Translation2d startPosition = null;
+    private volatile Translation2d goalPosition = null;
+    private volatile List<Pair<Translation2d, Translation2d>> obstacles = List.of();
+    private final AtomicLong requestVersion = new AtomicLong();
+
+    // * Result (written by the planner thread, read by the main loop)
+    private volatile Result result = new Result(-1, List.of());
+    private final AtomicBoolean newPathAvailable = new AtomicBoolean(false);
+    private volatile boolean ready = false;
+    private volatile long droppedQueries = 0;
+
+    // * Timings
+    private final SPSCRingBuffer<Query> queries = new SPSCRingBuffer<>(kQueueSize, Query::new);
+    private final LatencyHistogram histogram = new LatencyHistogram(kHistogramWindow);
+    private long queryCount = 0;
+
+    private final Thread thread;
+
+    /**
+     * Create the pathfinder and start its thread (the grid is loaded on that thread)
+     * @param gridFile PathPlanner navgrid.json
+     * @param maxExpansions Cells a query can expand before it yields to newer requests
+     */
+    public GridPathfinder(File gridFile, int maxExpansions) {
+        this.gridFile = gridFile;
+        this.maxExpansions = maxExpansions;
+
+        this.thread = new Thread(this::run, "Pathfinding");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public boolean isNewPathAvailable() {
+        return this.newPathAvailable.get() && this.result.version == this.requestVersion.get();
+    }
+
+    @Override
+    public PathPlannerPath getCurrentPath(PathConstraints constraints, GoalEndState goalEndState) {
+        // Clear the flag first so a path published while this runs is not missed
+        this.newPathAvailable.getAndSet(false);
+        List<Translation2d> points = getWaypoints();
+        if (points.size() < 2) return null;
+
+        // Tangents follow the direction of travel through each waypoint
+        List<Pose2d> poses = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            Translation2d previous = points.get(Math.max(0, i - 1));
+            Translation2d next = points.get(Math.min(points.size() - 1, i + 1));
+            poses.add(new Pose2d(points.get(i), next.minus(previous).getAngle()));
+        }
+        return new PathPlannerPath(PathPlannerPath.bezierFromPoses(poses), constraints, goalEndState);
+    }
+
+    @Override
+    public void setStartPosition(Translation2d startPosition) {
+        this.startPosition = startPosition;
+        request();
+    }
+
+    @Override
+    public void setGoalPosition(Translation2d goalPosition) {
+        this.goalPosition = goalPosition;
+        request();
+    }
+
+    @Override
+    public void setDynamicObstacles(List<Pair<Translation2d, Translation2d>> obs, Translation2d currentRobotPos) {
+        this.obstacles = List.copyOf(obs);
+        this.startPosition = currentRobotPos;
+        request();
+    }
+
+    /**
+     * Get the waypoints of the path for the latest request (empty if there is none or it is not planned yet)
+     * @return
+     */
+    public List<Translation2d> getWaypoints() {
+        Result current = this.result;
+        return current.version == this.requestVersion.get() ? current.waypoints : List.of();
+    }
+
+    /**
+     * Check if the grid is loaded
+     * @return
+     */
+    public boolean isReady() {
+        return this.ready;
+    }
+
+    /**
+     * Log the queries finished since the last call (main loop only)
+     */
+    public void periodic() {
+        int count = 0;
+        Query query;
+        while ((query = this.queries.peek()) != null) {
+            this.histogram.addNanos(query.nanos);
+            Logger.recordOutput(kPrefix + "QueryMs", query.nanos / 1e6);
+            Logger.recordOutput(kPrefix + "Expansions", query.expansions);
+            Logger.recordOutput(kPrefix + "PathCells", query.cells);
+            Logger.recordOutput(kPrefix + "Waypoints", query.waypoints);
+            Logger.recordOutput(kPrefix + "NewSearch", query.newSearch);
+            Logger.recordOutput(kPrefix + "Found", query.found);
+            this.queries.release();
+            count++;
+        }
+
+        this.queryCount += count;
+        Logger.recordOutput(kPrefix + "Ready", this.ready);
+        Logger.recordOutput(kPrefix + "QueriesPerCycle", count);
+        Logger.recordOutput(kPrefix + "Queries", this.queryCount);
+        Logger.recordOutput(kPrefix + "DroppedTimings", this.droppedQueries);
+        if (this.histogram.size() > 0) {
+            Logger.recordOutput(kPrefix + "QueryP50Ms", this.histogram.getPercentileMicros(0.5) / 1e3);
+            Logger.recordOutput(kPrefix + "QueryP99Ms", this.histogram.getPercentileMicros(0.99) / 1e3);
+            Logger.recordOutput(kPrefix + "QueryMaxMs", this.histogram.getMaxMicros() / 1e3);
+        }
+        if (count > 0) Logger.recordOutput(kPrefix + "Path", getWaypoints().toArray(new Translation2d[0]));
+    }
+
+    /**
+     * Invalidate the published path (it answers an older request) and wake the planner thread
+     */
+    private void request() {
+        this.requestVersion.incrementAndGet();
+        this.newPathAvailable.set(false);
+        LockSupport.unpark(this.thread);
+    }
+
+    // * Planner thread
+
+    private void run() {
+        NavGrid grid;
+        try {
+            grid = NavGrid.load(this.gridFile);
+        } catch (RuntimeException e) {
+            DriverStation.reportError("Failed to load the navigation grid: " + e.getMessage(), false);
+            return;
+        }
+
+        DStarLitePlanner planner = new DStarLitePlanner(grid);
+        long[] dynamicBlocked = new long[NavGrid.words(grid.getCellCount())];
+        int[] cells = new int[grid.getCellCount()];
+        this.ready = true;
+
+        List<Pair<Translation2d, Translation2d>> plannedObstacles = List.of();
+        int plannedStartCell = -1;
+        Translation2d plannedGoal = null;
+        List<Translation2d> plannedPoints = List.of();
+        boolean unfinished = false;
+        long seenVersion = -1;
+
+        while (true) {
+            long version = this.requestVersion.get();
+            if (version == seenVersion && !unfinished) {
+                LockSupport.parkNanos(this, kIdleParkNanos);
+                continue;
+            }
+            seenVersion = version;
+
+            Translation2d start = this.startPosition;
+            Translation2d goal = this.goalPosition;
+            List<Pair<Translation2d, Translation2d>> obstacles = this.obstacles;
+            if (start == null || goal == null) continue;
+
+            long queryStart = System.nanoTime();
+            int changedCells = 0;
+            if (obstacles != plannedObstacles) {
+                rasterize(grid, obstacles, dynamicBlocked);
+                changedCells = planner.setDynamicObstacles(dynamicBlocked);
+                plannedObstacles = obstacles;
+            }
+
+            int startCell = planner.findNearestFree(grid.getCell(start.getX(), start.getY()));
+            int goalCell = planner.findNearestFree(grid.getCell(goal.getX(), goal.getY()));
+            if (startCell < 0 || goalCell < 0) {
+                publish(version, List.of());
+                record(queryStart, 0, 0, 0, false, false);
+                plannedStartCell = -1;
+                unfinished = false;
+                continue;
+            }
+
+            // Same start cell, goal and obstacles and the search is done: answer the request with the same path
+            if (!unfinished && changedCells == 0 && goal.equals(plannedGoal) && startCell == plannedStartCell) {
+                publish(version, plannedPoints);
+                continue;
+            }
+
+            boolean newSearch = goalCell != planner.getGoal();
+            if (newSearch) planner.reset(startCell, goalCell);
+            else planner.moveStart(startCell);
+
+            unfinished = !planner.computeShortestPath(this.maxExpansions);
+            int expansions = planner.getLastExpansions();
+            if (unfinished) {
+                // Out of budget, go again (with the newest request if there is one)
+                record(queryStart, expansions, 0, 0, newSearch, false);
+                continue;
+            }
+
+            int count = planner.extractPath(cells);
+            List<Translation2d> points = count == 0 ? List.of() : smooth(planner, cells, count, start, goal);
+            plannedStartCell = startCell;
+            plannedGoal = goal;
+            plannedPoints = points;
+            publish(version, points);
+            record(queryStart, expansions, count, points.size(), newSearch, count > 0);
+        }
+    }
+
+    private void publish(long version, List<Translation2d> points) {
+        this.result = new Result(version, points);
+        this.newPathAvailable.set(true);
+    }
+
+    private void record(long startNanos, int expansions, int cells, int waypoints, boolean newSearch, boolean found) {
+        long nanos = System.nanoTime() - startNanos;
+        Query query = this.queries.claim();
+        if (query == null) {
+            this.droppedQueries++;
+            return;
+        }
+        query.nanos = nanos;
+        query.expansions = expansions;
+        query.cells = cells;
+        query.waypoints = waypoints;
+        query.newSearch = newSearch;
+        query.found = found;
+        this.queries.publish();
+    }
+
+    /**
+     * Mark the cells covered by the obstacle boxes (each pair is two opposite corners)
+     */
+    private static void rasterize(NavGrid grid, List<Pair<Translation2d, Translation2d>> obstacles, long[] blocked) {
+        Arrays.fill(blocked, 0);
+        for (Pair<Translation2d, Translation2d> obstacle : obstacles) {
+            Translation2d a = obstacle.getFirst();
+            Translation2d b = obstacle.getSecond();
+            int minColumn = Math.max(0, grid.getColumn(Math.min(a.getX(), b.getX())));
+            int maxColumn = Math.min(grid.getColumns() - 1, grid.getColumn(Math.max(a.getX(), b.getX())));
+            int minRow = Math.max(0, grid.getRow(Math.min(a.getY(), b.getY())));
+            int maxRow = Math.min(grid.getRows() - 1, grid.getRow(Math.max(a.getY(), b.getY())));
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    int cell = row * grid.getColumns() + column;
+                    blocked[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+    }
+
+    /**
+     * Turn the grid path into waypoints, skipping every cell the previous waypoint can see past.
+     * The first and last waypoints are the real start and goal, not their cell centers.
+     */
+    private static List<Translation2d> smooth(DStarLitePlanner planner, int[] cells, int count, Translation2d start, Translation2d goal) {
+        NavGrid grid = planner.getGrid();
+
+        // Start, the cells in between, goal (the start and goal cells are kept if they were moved out of an obstacle)
+        double[] xs = new double[count + 2];
+        double[] ys = new double[count + 2];
+        int n = 0;
+        xs[n] = start.getX();
+        ys[n++] = start.getY();
+        int first = cells[0] == grid.getCell(start.getX(), start.getY()) ? 1 : 0;
+        int last = cells[count - 1] == grid.getCell(goal.getX(), goal.getY()) ? count - 1 : count;
+        for (int i = first; i < last; i++) {
+            xs[n] = grid.getCenterX(cells[i]);
+            ys[n++] = grid.getCenterY(cells[i]);
+        }
+        xs[n] = goal.getX();
+        ys[n++] = goal.getY();
+
+        List<Translation2d> points = new ArrayList<>();
+        points.add(start);
+        int anchor = 0;
+        while (anchor < n - 1) {
+            int next = anchor + 1;
+            while (next + 1 < n && planner.hasLineOfSight(xs[anchor], ys[anchor], xs[next + 1], ys[next + 1])) next++;
+
+            Translation2d point = next == n - 1 ? goal : new Translation2d(xs[next], ys[next]);
+            Translation2d previous = points.get(points.size() - 1);
+            if (previous.getDistance(point) >= kMinWaypointSpacingMeters) points.add(point);
+            else if (next == n - 1 && points.size() > 1) points.set(points.size() - 1, point);
+            anchor = next;
+        }
+        return points.size() < 2 ? List.of() : points;
+    }
+}
@@ -0,0 +1,192 @@
+package lib.team3526.pathfinding;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * The PathPlanner navigation grid ({@code deploy/pathplanner/navgrid.json}) packed into a bitset.
+ * <p>
+ * Cells are indexed row major ({@code row * columns + column}), row 0 is at y = 0 and column 0 at x = 0.
+ * A set bit is an obstacle. Anything outside the grid is treated as an obstacle.
+ */
+public final class NavGrid {
+    private final int columns;
+    private final int rows;
+    private final double nodeSizeMeters;
+    private final double fieldLength;
+    private final double fieldWidth;
+    private final long[] blocked;
+
+    /**
+     * Create a grid
+     * @param columns
+     * @param rows
+     * @param nodeSizeMeters
+     * @param fieldLength
+     * @param fieldWidth
+     * @param blocked Obstacle bitset (at least {@code columns * rows} bits)
+     */
+    public NavGrid(int columns, int rows, double nodeSizeMeters, double fieldLength, double fieldWidth, long[] blocked) {
+        if (columns <= 0 || rows <= 0 || nodeSizeMeters <= 0) throw new IllegalArgumentException("Empty navigation grid");
+        if (blocked.length < words(columns * rows)) throw new IllegalArgumentException("The obstacle bitset is too small");
+        this.columns = columns;
+        this.rows = rows;
+        this.nodeSizeMeters = nodeSizeMeters;
+        this.fieldLength = fieldLength;
+        this.fieldWidth = fieldWidth;
+        this.blocked = blocked;
+    }
+
+    /**
+     * Get the grid file in the deploy directory
+     * @return
+     */
+    public static File getFile() {
+        return new File(Filesystem.getDeployDirectory(), "pathplanner/navgrid.json");
+    }
+
+    /**
+     * Read a PathPlanner navgrid.json file
+     * @param file
+     * @return
+     */
+    public static NavGrid load(File file) {
+        JsonNode json;
+        try {
+            json = new ObjectMapper().readTree(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read " + file, e);
+        }
+
+        JsonNode grid = json.get("grid");
+        int rows = grid.size();
+        int columns = rows == 0 ? 0 : grid.get(0).size();
+        long[] blocked = new long[words(columns * rows)];
+        for (int row = 0; row < rows; row++) {
+            JsonNode cells = grid.get(row);
+            for (int column = 0; column < Math.min(columns, cells.size()); column++) {
+                if (cells.get(column).asBoolean()) {
+                    int cell = row * columns + column;
+                    blocked[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+
+        JsonNode fieldSize = json.get("field_size");
+        double nodeSize = json.get("nodeSizeMeters").asDouble();
+        return new NavGrid(
+            columns,
+            rows,
+            nodeSize,
+            fieldSize == null ? columns * nodeSize : fieldSize.get("x").asDouble(),
+            fieldSize == null ? rows * nodeSize : fieldSize.get("y").asDouble(),
+            blocked
+        );
+    }
+
+    /**
+     * Get the number of 64 bit words needed for a bitset of cells
+     * @param cells
+     * @return
+     */
+    public static int words(int cells) {
+        return (cells + 63) >>> 6;
+    }
+
+    /**
+     * Check if a cell is an obstacle
+     * @param cell
+     * @return
+     */
+    public boolean isBlocked(int cell) {
+        return (this.blocked[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Check if a cell is an obstacle (true outside the grid)
+     * @param column
+     * @param row
+     * @return
+     */
+    public boolean isBlocked(int column, int row) {
+        if (column < 0 || row < 0 || column >= this.columns || row >= this.rows) return true;
+        return isBlocked(row * this.columns + column);
+    }
+
+    /**
+     * Get the column containing a field X coordinate (can be outside the grid)
+     * @param x
+     * @return
+     */
+    public int getColumn(double x) {
+        return (int) Math.floor(x / this.nodeSizeMeters);
+    }
+
+    /**
+     * Get the row containing a field Y coordinate (can be outside the grid)
+     * @param y
+     * @return
+     */
+    public int getRow(double y) {
+        return (int) Math.floor(y / this.nodeSizeMeters);
+    }
+
+    /**
+     * Get the cell containing a field position, clamped to the grid
+     * @param x
+     * @param y
+     * @return
+     */
+    public int getCell(double x, double y) {
+        int column = Math.max(0, Math.min(this.columns - 1, getColumn(x)));
+        int row = Math.max(0, Math.min(this.rows - 1, getRow(y)));
+        return row * this.columns + column;
+    }
+
+    /**
+     * Get the field X coordinate of the center of a cell
+     * @param cell
+     * @return
+     */
+    public double getCenterX(int cell) {
+        return (cell % this.columns + 0.5) * this.nodeSizeMeters;
+    }
+
+    /**
+     * Get the field Y coordinate of the center of a cell
+     * @param cell
+     * @return
+     */
+    public double getCenterY(int cell) {
+        return (cell / this.columns + 0.5) * this.nodeSizeMeters;
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+
+    public int getCellCount() {
+        return this.columns * this.rows;
+    }
+
+    public double getNodeSizeMeters() {
+        return this.nodeSizeMeters;
+    }
+
+    public double getFieldLength() {
+        return this.fieldLength;
+    }
+
+    public double getFieldWidth() {
+        return this.fieldWidth;
+    }
+}
@@ -0,0 +1,135 @@
+package lib.team3526.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Runs the slow parts of robot startup (device construction and configuration) concurrently and keeps a timeline of them.
+ * <p>
+ * Tasks start on a small thread pool as soon as their dependencies are done. Everything is timed from JVM start, so the
+ * timeline shows how long the robot code took to become ready. Tasks must not create subsystems (the command scheduler
+ * is not thread safe), only their IO. The timeline is logged under {@code Boot/} once the logger is running.
+ */
+public final class BootTimeline {
+    // * Device setup mostly waits on CAN round trips, more threads than cores is fine
+    public static final int kThreads = 8;
+
+    // * JVM start on the System.nanoTime() clock
+    private static final long kJvmStartNanos = System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+
+    private static final List<Entry> entries = new ArrayList<>();
+    private static ExecutorService executor;
+    private static long readyNanos = 0;
+
+    private BootTimeline() {}
+
+    private static final class Entry {
+        final String name;
+        final String thread;
+        final long startNanos;
+        final long endNanos;
+
+        Entry(String name, String thread, long startNanos, long endNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+    }
+
+    /**
+     * Run a task on the boot thread pool once every dependency is done
+     * @param name Name of the task in the timeline
+     * @param task
+     * @param dependencies Tasks whose results this one uses
+     * @return The result of the task
+     */
+    public static <T> CompletableFuture<T> start(String name, Supplier<T> task, CompletableFuture<?>... dependencies) {
+        Supplier<T> timedTask = () -> {
+            long start = System.nanoTime();
+            try {
+                return task.get();
+            } finally {
+                record(name, start);
+            }
+        };
+
+        if (dependencies.length == 0) return CompletableFuture.supplyAsync(timedTask, getExecutor());
+        return CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> timedTask.get(), getExecutor());
+    }
+
+    /**
+     * Wait for a task and get its result (rethrows whatever the task threw)
+     * @param future
+     * @return
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Add a step that ran on the calling thread to the timeline
+     * @param name
+     * @param startNanos System.nanoTime() when the step started
+     */
+    public static void record(String name, long startNanos) {
+        long end = System.nanoTime();
+        synchronized (entries) {
+            entries.add(new Entry(name, Thread.currentThread().getName(), startNanos, end));
+        }
+    }
+
+    /**
+     * Mark the robot code as ready and stop the boot threads
+     */
+    public static synchronized void ready() {
+        readyNanos = System.nanoTime();
+        if (executor != null) executor.shutdown();
+        executor = null;
+    }
+
+    /**
+     * Log the timeline (call once, after the logger started and {@link #ready()})
+     */
+    public static void log() {
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                double startMs = (entry.startNanos - kJvmStartNanos) / 1e6;
+                double durationMs = (entry.endNanos - entry.startNanos) / 1e6;
+                Logger.recordOutput("Boot/" + entry.name + "/StartMs", startMs);
+                Logger.recordOutput("Boot/" + entry.name + "/DurationMs", durationMs);
+                Logger.recordOutput("Boot/" + entry.name + "/Thread", entry.thread);
+            }
+
+            double readyMs = (readyNanos - kJvmStartNanos) / 1e6;
+            Logger.recordOutput("Boot/ReadyMs", readyMs);
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(kThreads, runnable -> {
+                Thread thread = new Thread(runnable, "Boot-" + count.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
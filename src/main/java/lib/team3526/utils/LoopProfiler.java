@@ -0,0 +1,168 @@
+package lib.team3526.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import lib.team3526.math.LatencyHistogram;
+
+/**
+ * Times subsystem periodics and command executes on the main loop and logs their rolling p50/p99/max.
+ * <p>
+ * Subsystems get a {@link Section} once and wrap their {@code periodic()} with {@link Section#begin()} and
+ * {@link Section#end()}. Commands are timed through the scheduler callbacks (see {@link #bindScheduler(CommandScheduler)}).
+ * Results are logged under {@code LoopTime/} once every {@link #kReportPeriodCycles} loops. Sections can be created on
+ * any thread (device IO is built in parallel at boot), everything else is main thread only.
+ */
+public final class LoopProfiler {
+    // * Samples kept per section (5 seconds at 50Hz)
+    public static final int kWindowSize = 250;
+
+    // * Loops between reports (once per second at 50Hz)
+    public static final int kReportPeriodCycles = 50;
+
+    // * Commands are created dynamically, cap the number of histograms kept for them
+    public static final int kMaxCommandSections = 64;
+
+    private static final ArrayList<Section> sections = new ArrayList<>();
+    private static final HashMap<String, Integer> keyCounts = new HashMap<>();
+    private static final HashMap<String, Section> commandSections = new HashMap<>();
+
+    private static boolean enabled = true;
+    private static int cycles = 0;
+
+    // * End of the last timed step of the scheduler command loop
+    private static long lastCommandMark = 0;
+
+    private LoopProfiler() {}
+
+    /**
+     * A timed piece of the loop
+     */
+    public static final class Section {
+        private final LatencyHistogram histogram = new LatencyHistogram(kWindowSize);
+        private final String p50Key;
+        private final String p99Key;
+        private final String maxKey;
+        private long start = 0;
+
+        private Section(String key) {
+            this.p50Key = key + "/P50Ms";
+            this.p99Key = key + "/P99Ms";
+            this.maxKey = key + "/MaxMs";
+        }
+
+        /**
+         * Start timing
+         */
+        public void begin() {
+            if (enabled) start = System.nanoTime();
+        }
+
+        /**
+         * Stop timing and record the sample
+         */
+        public void end() {
+            if (enabled) histogram.addNanos(System.nanoTime() - start);
+        }
+
+        /**
+         * Record a sample measured elsewhere
+         * @param nanos
+         */
+        public void record(long nanos) {
+            if (!enabled) return;
+            histogram.addNanos(nanos);
+        }
+
+        private void report() {
+            if (histogram.size() == 0) return;
+            Logger.recordOutput(p50Key, histogram.getPercentileMicros(0.50) / 1000.0);
+            Logger.recordOutput(p99Key, histogram.getPercentileMicros(0.99) / 1000.0);
+            Logger.recordOutput(maxKey, histogram.getMaxMicros() / 1000.0);
+        }
+    }
+
+    /**
+     * Enable or disable the profiler (disabled sections cost a single branch)
+     * @param enable
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Create the section of a subsystem, logged under {@code LoopTime/Subsystems/<name>}.
+     * Repeated names get a numeric suffix (e.g. the second "Shooter" is "Shooter_1").
+     * @param name
+     * @return
+     */
+    public static Section subsystem(String name) {
+        return section("LoopTime/Subsystems/", name);
+    }
+
+    /**
+     * Create a section logged under {@code LoopTime/<name>}
+     * @param name
+     * @return
+     */
+    public static Section section(String name) {
+        return section("LoopTime/", name);
+    }
+
+    private static synchronized Section section(String prefix, String name) {
+        String key = prefix + name;
+        int duplicates = keyCounts.merge(key, 1, Integer::sum) - 1;
+        if (duplicates > 0) key = key + "_" + duplicates;
+
+        Section section = new Section(key);
+        sections.add(section);
+        return section;
+    }
+
+    /**
+     * Time every command executed by the scheduler, logged under {@code LoopTime/Commands/<name>}.
+     * <p>
+     * Each sample is the time since the previous command (or since the button bindings were polled), which is the
+     * command's execute() plus the isFinished() of the command before it. Call after every button binding is made.
+     * @param scheduler
+     */
+    public static void bindScheduler(CommandScheduler scheduler) {
+        // Runs last when the button loop is polled, right before the scheduler iterates its commands
+        scheduler.getDefaultButtonLoop().bind(() -> lastCommandMark = System.nanoTime());
+
+        scheduler.onCommandExecute(LoopProfiler::recordCommand);
+
+        // Do not charge the end() of a finished command to the next one
+        scheduler.onCommandFinish(command -> lastCommandMark = System.nanoTime());
+        scheduler.onCommandInterrupt(command -> lastCommandMark = System.nanoTime());
+    }
+
+    private static void recordCommand(Command command) {
+        long now = System.nanoTime();
+        if (!enabled) return;
+
+        Section section = commandSections.get(command.getName());
+        if (section == null && commandSections.size() < kMaxCommandSections) {
+            section = new Section("LoopTime/Commands/" + command.getName());
+            commandSections.put(command.getName(), section);
+        }
+        if (section != null) section.record(now - lastCommandMark);
+
+        lastCommandMark = now;
+    }
+
+    /**
+     * Log the histograms at a low rate (call once per loop, after the scheduler runs)
+     */
+    public static void periodic() {
+        if (!enabled || ++cycles < kReportPeriodCycles) return;
+        cycles = 0;
+
+        for (int i = 0; i < sections.size(); i++) sections.get(i).report();
+        for (Section section : commandSections.values()) section.report();
+    }
+}